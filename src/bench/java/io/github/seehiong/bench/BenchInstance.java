@@ -0,0 +1,24 @@
+package io.github.seehiong.bench;
+
+import java.util.List;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.Input;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * An instance of the library with the engines that solve it. The input is shared by those engines, each run gets its
+ * own solverId.
+ */
+@Data
+@AllArgsConstructor
+public class BenchInstance {
+
+    private String id; // e.g. tsp-clustered-200
+    private String family; // tsp, cvrp, flp or bpp
+    private String layout; // uniform, clustered or grid
+    private int size; // cities, customers or items
+    private List<ProblemType> problems; // engines compared on it
+    private Input input;
+}
@@ -0,0 +1,79 @@
+package io.github.seehiong.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.utils.InstanceGenerator;
+import lombok.experimental.UtilityClass;
+
+/**
+ * The generated instance library. Every instance is drawn from a seed derived from the library seed and its id, so
+ * it does not change when sizes or layouts are added to or left out of a run.
+ */
+@UtilityClass
+public class BenchLibrary {
+
+    public List<BenchInstance> generate(BenchOptions options) {
+        List<BenchInstance> library = new ArrayList<>();
+        for (int size : options.getSizes()) {
+            for (String layout : options.getLayouts()) {
+                add(library, options, "tsp", layout, size, List.of(ProblemType.TSP, ProblemType.TSP_GA));
+                add(library, options, "cvrp", layout, size, List.of(ProblemType.CVRP, ProblemType.CVRP_MIP));
+                add(library, options, "flp", layout, size, List.of(ProblemType.FLP));
+            }
+            // Items have weights, not locations, so bin packing has a single layout
+            add(library, options, "bpp", "uniform", size, List.of(ProblemType.BPP));
+        }
+        return library;
+    }
+
+    private void add(List<BenchInstance> library, BenchOptions options, String family, String layout, int size,
+            List<ProblemType> problems) {
+        List<ProblemType> selected = problems.stream().filter(options.getProblems()::contains).toList();
+        if (selected.isEmpty()) {
+            return;
+        }
+        String id = family + "-" + layout + "-" + size;
+        Input input = input(family, layout, size, new Random(Objects.hash(options.getSeed(), id)));
+        library.add(new BenchInstance(id, family, layout, size, selected, input));
+    }
+
+    /**
+     * @param family tsp, cvrp, flp or bpp, see {@link #family(ProblemType)}
+     * @param layout uniform, clustered or grid; ignored for bin packing
+     */
+    public Input input(String family, String layout, int size, Random random) {
+        return switch (family) {
+            case "tsp" -> InstanceGenerator.tspInput(coordinates(layout, size, random));
+            case "cvrp" -> InstanceGenerator.cvrpInput(coordinates(layout, size, random), random);
+            case "flp" -> InstanceGenerator.flpInput(coordinates(layout, size, random), random);
+            case "bpp" -> InstanceGenerator.bppInput(size, random);
+            default -> throw new IllegalArgumentException("Unknown family " + family);
+        };
+    }
+
+    /**
+     * The family of instances an engine solves.
+     */
+    public String family(ProblemType problem) {
+        return switch (problem) {
+            case TSP, TSP_GA -> "tsp";
+            case CVRP, CVRP_MIP -> "cvrp";
+            case FLP -> "flp";
+            case BPP -> "bpp";
+        };
+    }
+
+    private Coordinate[] coordinates(String layout, int n, Random random) {
+        return switch (layout) {
+            case "clustered" -> InstanceGenerator.clustered(n, Math.max(2, n / 25), random);
+            case "grid" -> InstanceGenerator.grid(n, random);
+            default -> InstanceGenerator.uniform(n, random);
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.seehiong.bench;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import io.github.seehiong.model.ProblemType;
+import lombok.Data;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+@Data
+public class BenchOptions {
+
+    private List<Integer> sizes = List.of(20, 50, 100);
+    private List<String> layouts = List.of("uniform", "clustered", "grid");
+    private Set<ProblemType> problems = EnumSet.allOf(ProblemType.class);
+    private Duration budget = Duration.ofSeconds(10); // Per run
+    private long seed = 42;
+    private double target = 0.01; // Gap to the reference cost counted as reaching it
+    private Path output = Path.of("build/reports/solver-bench");
+    private Path baseline; // runs.json of an earlier run to compare against
+    private double tolerance = 0.05; // Increase of the gap integral over the baseline counted as a regression
+
+    public static BenchOptions parse(String[] args) {
+        BenchOptions options = new BenchOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "sizes" -> options.sizes = Arrays.stream(value.split(",")).map(String::trim)
+                        .map(Integer::valueOf).toList();
+                case "layouts" -> options.layouts = Arrays.stream(value.split(",")).map(String::trim).toList();
+                case "problems" -> {
+                    options.problems = EnumSet.noneOf(ProblemType.class);
+                    Arrays.stream(value.split(",")).map(String::trim).map(ProblemType::fromString)
+                            .forEach(options.problems::add);
+                }
+                case "budget" -> options.budget = Duration.ofSeconds(Long.parseLong(value));
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "target" -> options.target = Double.parseDouble(value);
+                case "output" -> options.output = Path.of(value);
+                case "baseline" -> options.baseline = Path.of(value);
+                case "tolerance" -> options.tolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.seehiong.bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scores the runs and writes them under the output directory:
+ * <ul>
+ * <li>{@code runs.json}, every run with its curve, the input of a later baseline comparison</li>
+ * <li>{@code summary.csv}, one row per run</li>
+ * <li>{@code curves.csv}, one row per improving solution, for plotting cost over time</li>
+ * <li>{@code comparison.csv}, the mean scores of each engine by family and size</li>
+ * </ul>
+ * The reference cost of an instance is the best final cost any engine reached on it, so gaps are relative between
+ * engines rather than to the optimum.
+ */
+@Slf4j
+public class BenchReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final BenchOptions options;
+    private final List<BenchRun> runs;
+
+    public BenchReport(BenchOptions options, List<BenchRun> runs) {
+        this.options = options;
+        this.runs = runs;
+        score();
+    }
+
+    public void write() throws IOException {
+        Path output = options.getOutput();
+        Files.createDirectories(output);
+        MAPPER.writeValue(output.resolve("runs.json").toFile(), runs);
+
+        try (PrintWriter summary = new PrintWriter(Files.newBufferedWriter(output.resolve("summary.csv")))) {
+            summary.println("instance,family,layout,size,problem,status,duration_ms,final_cost,reference_cost,"
+                    + "final_gap,time_to_first_ms,time_to_target_ms,gap_integral");
+            for (BenchRun run : runs) {
+                summary.println(String.join(",", run.getInstance(), run.getFamily(), run.getLayout(),
+                        String.valueOf(run.getSize()), run.getProblem(), run.getStatus(),
+                        String.valueOf(run.getDuration()), format(run.getFinalCost()), format(run.getReferenceCost()),
+                        format(run.getFinalGap()), format(run.getTimeToFirst()), format(run.getTimeToTarget()),
+                        format(run.getGapIntegral())));
+            }
+        }
+
+        try (PrintWriter curves = new PrintWriter(Files.newBufferedWriter(output.resolve("curves.csv")))) {
+            curves.println("instance,problem,elapsed_ms,cost,gap");
+            for (BenchRun run : runs) {
+                for (CurvePoint point : run.getCurve()) {
+                    curves.println(String.join(",", run.getInstance(), run.getProblem(),
+                            String.valueOf(point.getElapsed()), format(point.getCost()),
+                            format(gap(point.getCost(), run.getReferenceCost()))));
+                }
+            }
+        }
+
+        List<String> rows = comparison();
+        Files.write(output.resolve("comparison.csv"), rows);
+        rows.forEach(row -> log.info("{}", row.replace(',', '\t')));
+        log.info("{} runs written to {}", runs.size(), output.toAbsolutePath());
+    }
+
+    /**
+     * Compares the gap integral of every run with the same run of the baseline, if one was given.
+     *
+     * @return false when a run failed where the baseline did not, or its gap integral grew by more than the tolerance
+     */
+    public boolean compareToBaseline() throws IOException {
+        if (options.getBaseline() == null) {
+            return true;
+        }
+        List<BenchRun> baseline = MAPPER.readValue(options.getBaseline().toFile(), new TypeReference<>() {
+        });
+        Map<String, BenchRun> previous = baseline.stream()
+                .collect(Collectors.toMap(BenchReport::key, Function.identity()));
+
+        int regressions = 0;
+        for (BenchRun run : runs) {
+            BenchRun before = previous.get(key(run));
+            if (before == null) {
+                continue;
+            }
+            boolean failed = "failed".equals(run.getStatus()) && !"failed".equals(before.getStatus());
+            if (failed || run.getGapIntegral() > before.getGapIntegral() + options.getTolerance()) {
+                regressions++;
+                log.warn("regression of {} on {}: gap integral {} against {}, status {} against {}", run.getProblem(),
+                        run.getInstance(), format(run.getGapIntegral()), format(before.getGapIntegral()),
+                        run.getStatus(), before.getStatus());
+            }
+        }
+        log.info("{} regressions against {}", regressions, options.getBaseline());
+        return regressions == 0;
+    }
+
+    private void score() {
+        Map<String, Double> references = new TreeMap<>();
+        for (BenchRun run : runs) {
+            if (run.getFinalCost() != null) {
+                references.merge(run.getInstance(), run.getFinalCost(), Math::min);
+            }
+        }
+
+        long budget = options.getBudget().toMillis();
+        for (BenchRun run : runs) {
+            Double reference = references.get(run.getInstance());
+            run.setReferenceCost(reference);
+            List<CurvePoint> curve = run.getCurve();
+            if (curve.isEmpty() || reference == null) {
+                run.setGapIntegral(1);
+                continue;
+            }
+            run.setFinalGap(gap(run.getFinalCost(), reference));
+            run.setTimeToFirst(curve.get(0).getElapsed());
+
+            // Area under the gap, capped at 1, over the budget; the gap is 1 until the first solution
+            double area = Math.min(budget, curve.get(0).getElapsed());
+            for (int i = 0; i < curve.size(); i++) {
+                CurvePoint point = curve.get(i);
+                if (run.getTimeToTarget() == null && point.getCost() <= reference * (1 + options.getTarget())) {
+                    run.setTimeToTarget(point.getElapsed());
+                }
+                long from = Math.min(budget, point.getElapsed());
+                long to = i + 1 < curve.size() ? Math.min(budget, curve.get(i + 1).getElapsed()) : budget;
+                area += Math.min(1, gap(point.getCost(), reference)) * (to - from);
+            }
+            run.setGapIntegral(budget == 0 ? 0 : area / budget);
+        }
+    }
+
+    private List<String> comparison() {
+        Map<String, List<BenchRun>> groups = runs.stream().collect(Collectors.groupingBy(
+                run -> run.getFamily() + "," + run.getSize() + "," + run.getProblem(), TreeMap::new,
+                Collectors.toList()));
+
+        List<String> rows = new ArrayList<>();
+        rows.add("family,size,problem,runs,solved,mean_final_gap,mean_time_to_first_ms,mean_gap_integral");
+        groups.forEach((group, members) -> rows.add(String.join(",", group, String.valueOf(members.size()),
+                String.valueOf(members.stream().filter(run -> "solved".equals(run.getStatus())).count()),
+                format(mean(members, BenchRun::getFinalGap)),
+                format(mean(members, run -> run.getTimeToFirst() == null ? null : run.getTimeToFirst().doubleValue())),
+                format(mean(members, BenchRun::getGapIntegral)))));
+        return rows;
+    }
+
+    private static Double mean(List<BenchRun> runs, Function<BenchRun, Double> score) {
+        double[] values = runs.stream().map(score).filter(Objects::nonNull).mapToDouble(Double::doubleValue).toArray();
+        return values.length == 0 ? null : Arrays.stream(values).average().orElseThrow();
+    }
+
+    private static Double gap(double cost, Double reference) {
+        if (reference == null) {
+            return null;
+        }
+        return reference == 0 ? (cost == 0 ? 0 : 1) : (cost - reference) / Math.abs(reference);
+    }
+
+    private static String key(BenchRun run) {
+        return run.getInstance() + "/" + run.getProblem();
+    }
+
+    private static String format(Number value) {
+        if (value == null) {
+            return "";
+        }
+        return value instanceof Double ? String.format(Locale.ROOT, "%.4f", value.doubleValue()) : value.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.seehiong.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One engine on one instance: its anytime cost curve and the scores derived from it against the best cost any engine
+ * reached on the instance.
+ */
+@Data
+@NoArgsConstructor
+public class BenchRun {
+
+    private String instance;
+    private String family;
+    private String layout;
+    private int size;
+    private String problem;
+    private String status; // solved, timeout or failed
+    private String error;
+    private long duration; // in milliseconds
+    private List<CurvePoint> curve = new ArrayList<>(); // improving solutions only
+
+    private Double finalCost; // null when no solution was found
+    private Double referenceCost; // best final cost of all engines on the instance
+    private Double finalGap; // relative to the reference cost
+    private Long timeToFirst; // in milliseconds, null when no solution was found
+    private Long timeToTarget; // in milliseconds to come within the target gap, null when never
+    private double gapIntegral; // mean gap over the budget, 1 while there is no solution; lower is better
+
+}
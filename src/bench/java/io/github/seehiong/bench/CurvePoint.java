@@ -0,0 +1,15 @@
+package io.github.seehiong.bench;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurvePoint {
+
+    private long elapsed; // in milliseconds since the run started
+    private double cost; // of the solution published at that time
+
+}
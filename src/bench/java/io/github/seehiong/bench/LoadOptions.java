@@ -0,0 +1,79 @@
+package io.github.seehiong.bench;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.seehiong.model.ProblemType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Load test options, given as {@code --name=value}.
+ */
+@Data
+public class LoadOptions {
+
+    private double rate = 10; // Solves submitted per second
+    private String arrivals = "poisson"; // poisson, or constant for evenly spaced submissions
+    private Duration duration = Duration.ofSeconds(30); // Of the arrival phase; solves still running are awaited
+    private List<MixEntry> mix = parseMix("tsp:50:4,tsp_ga:50:2,cvrp:30:2,flp:40:1,bpp:50:1");
+    private Duration budget = Duration.ofSeconds(2); // Time limit of every solve
+    private int watchers = 1; // Clients following each solve on /progress
+    private int variants = 8; // Instances generated per mix entry, submissions cycle through them
+    private boolean cache = false; // Whether the server reuses solutions of identical inputs
+    private long seed = 42;
+    private Path output = Path.of("build/reports/load-test");
+
+    public static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "arrivals" -> options.arrivals = value;
+                case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "mix" -> options.mix = parseMix(value);
+                case "budget" -> options.budget = Duration.ofSeconds(Long.parseLong(value));
+                case "watchers" -> options.watchers = Integer.parseInt(value);
+                case "variants" -> options.variants = Integer.parseInt(value);
+                case "cache" -> options.cache = Boolean.parseBoolean(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "output" -> options.output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Parses {@code problem:size:weight} entries separated by commas, the weight defaulting to 1.
+     */
+    private static List<MixEntry> parseMix(String value) {
+        List<MixEntry> mix = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Expected problem:size[:weight], got " + entry);
+            }
+            mix.add(new MixEntry(ProblemType.fromString(parts[0]), Integer.parseInt(parts[1]),
+                    parts.length > 2 ? Double.parseDouble(parts[2]) : 1));
+        }
+        return mix;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class MixEntry {
+
+        private ProblemType problem;
+        private int size;
+        private double weight; // Relative share of submissions
+    }
+}
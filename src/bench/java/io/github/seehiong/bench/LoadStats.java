@@ -0,0 +1,125 @@
+package io.github.seehiong.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Samples gathered by the load test: latencies of the solve and progress streams, and the CPU and heap of the process
+ * sampled at a fixed interval. Since the server is embedded, those include the client, which on virtual threads idles
+ * while waiting on its streams.
+ */
+public class LoadStats {
+
+    private static final com.sun.management.OperatingSystemMXBean SYSTEM =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>(); // in microseconds, by metric
+    private final Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+    private final List<Double> cpu = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> heap = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger streaming = new AtomicInteger(); // Open solve and progress streams
+    private volatile int peakStreaming;
+
+    public void record(String metric, long nanos) {
+        latencies.computeIfAbsent(metric, key -> Collections.synchronizedList(new ArrayList<>())).add(nanos / 1000);
+    }
+
+    public void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void streamOpened() {
+        int open = streaming.incrementAndGet();
+        if (open > peakStreaming) {
+            peakStreaming = open; // Racy, close enough for a peak
+        }
+    }
+
+    public void streamClosed() {
+        streaming.decrementAndGet();
+    }
+
+    public void sample() {
+        double load = SYSTEM.getProcessCpuLoad();
+        if (load >= 0) {
+            cpu.add(load);
+        }
+        heap.add(MEMORY.getHeapMemoryUsage().getUsed());
+    }
+
+    public Summary summarize() {
+        Summary summary = new Summary();
+        new TreeMap<>(latencies).forEach((metric, samples) -> summary.getLatencies().put(metric, percentiles(samples)));
+        outcomes.forEach((outcome, count) -> summary.getOutcomes().put(outcome, count.get()));
+        summary.setPeakStreams(peakStreaming);
+        synchronized (cpu) {
+            summary.setMeanCpu(cpu.stream().mapToDouble(Double::doubleValue).average().orElse(0));
+            summary.setMaxCpu(cpu.stream().mapToDouble(Double::doubleValue).max().orElse(0));
+        }
+        synchronized (heap) {
+            summary.setMaxHeapMb(heap.stream().mapToLong(Long::longValue).max().orElse(0) / (1024 * 1024));
+        }
+        summary.setAvailableProcessors(Runtime.getRuntime().availableProcessors());
+        summary.setMaxMemoryMb(Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        return summary;
+    }
+
+    private static Percentiles percentiles(List<Long> samples) {
+        long[] sorted;
+        synchronized (samples) {
+            sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        Percentiles percentiles = new Percentiles();
+        percentiles.setCount(sorted.length);
+        if (sorted.length > 0) {
+            percentiles.setP50(at(sorted, 0.50));
+            percentiles.setP90(at(sorted, 0.90));
+            percentiles.setP99(at(sorted, 0.99));
+            percentiles.setMax(sorted[sorted.length - 1] / 1000.0);
+        }
+        return percentiles;
+    }
+
+    // Nearest rank, in milliseconds
+    private static double at(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Summary {
+
+        private Map<String, Percentiles> latencies = new LinkedHashMap<>(); // in milliseconds, by metric
+        private Map<String, Integer> outcomes = new LinkedHashMap<>(); // solves by outcome
+        private int peakStreams;
+        private double meanCpu; // process CPU load between 0 and 1, over all cores
+        private double maxCpu;
+        private long maxHeapMb;
+        private int availableProcessors;
+        private long maxMemoryMb;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Percentiles {
+
+        private int count;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double max;
+    }
+}
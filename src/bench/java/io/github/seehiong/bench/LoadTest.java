@@ -0,0 +1,238 @@
+package io.github.seehiong.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.github.seehiong.bench.LoadOptions.MixEntry;
+import io.github.seehiong.model.constraint.SolveTimeConstraint;
+import io.github.seehiong.model.input.Input;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClientConfiguration;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.client.sse.SseClient;
+import io.micronaut.http.sse.Event;
+import io.micronaut.runtime.server.EmbeddedServer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Drives the SSE endpoints of a server started in-process on a random port, as many independent clients would.
+ * <p>
+ * Solves are submitted to {@code /solve/{problem}} at the given rate, drawn from a weighted mix of problems and sizes,
+ * and each is followed by its watchers on {@code /progress/{solverId}} from its first event on. Every client is a
+ * virtual thread blocking on its stream, so hundreds of them cost no platform threads. Recorded latencies:
+ * <ul>
+ * <li>{@code first-event}, from submission to the first event of the solve stream, usually its queue position</li>
+ * <li>{@code first-solution}, from submission to the first event past the queue</li>
+ * <li>{@code completion}, from submission to the end of the solve stream</li>
+ * <li>{@code event-lag}, from an event reaching the solve stream to the same event, by sequence, reaching a
+ * watcher</li>
+ * </ul>
+ * Run with {@code ./gradlew loadTest --args="--rate=50 --duration=60"}; the options are listed in
+ * {@link LoadOptions}. The summary is logged and written to {@code load-test.json} under the output directory.
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final Argument<Map<String, Object>> EVENT = Argument.mapOf(String.class, Object.class);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(500);
+    private static final Duration DRAIN = Duration.ofSeconds(60); // Beyond the budget for solves still running
+
+    private final LoadOptions options;
+    private final SseClient client;
+    private final LoadStats stats = new LoadStats();
+
+    public LoadTest(LoadOptions options, SseClient client) {
+        this.options = options;
+        this.client = client;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+
+        Map<String, Object> properties = Map.of(
+                "micronaut.server.port", -1,
+                "optimizer.cache.enabled", options.isCache(),
+                "micronaut.http.client.read-timeout", options.getBudget().plus(DRAIN).toSeconds() + "s",
+                "micronaut.http.client.read-idle-timeout", options.getBudget().plus(DRAIN).toSeconds() + "s");
+        try (EmbeddedServer server = ApplicationContext.run(EmbeddedServer.class, properties)) {
+            List<String> payloads = new ArrayList<>();
+            List<String> paths = new ArrayList<>();
+            double[] weights = prepare(options, server.getApplicationContext(), payloads, paths);
+
+            SseClient client = SseClient.create(server.getURL(),
+                    server.getApplicationContext().getBean(HttpClientConfiguration.class));
+            LoadStats.Summary summary;
+            try {
+                summary = new LoadTest(options, client).run(payloads, paths, weights);
+            } finally {
+                if (client instanceof AutoCloseable closeable) {
+                    closeable.close();
+                }
+            }
+            Files.createDirectories(options.getOutput());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(options.getOutput().resolve("load-test.json").toFile(), summary);
+            log.info("{}", summary);
+        }
+    }
+
+    /**
+     * Generates the variants of every mix entry as request bodies without a solverId, so that the server assigns
+     * one to each submission.
+     *
+     * @return cumulative weights of the payloads, for drawing one at random
+     */
+    private static double[] prepare(LoadOptions options, ApplicationContext context, List<String> payloads,
+            List<String> paths) throws IOException {
+        io.micronaut.serde.ObjectMapper mapper = context.getBean(io.micronaut.serde.ObjectMapper.class);
+        long budget = options.getBudget().toSeconds();
+        List<Double> cumulative = new ArrayList<>();
+        double total = 0;
+        for (MixEntry entry : options.getMix()) {
+            String family = BenchLibrary.family(entry.getProblem());
+            for (int variant = 0; variant < options.getVariants(); variant++) {
+                Random random = new Random(options.getSeed() * 31 + payloads.size());
+                Input input = BenchLibrary.input(family, "uniform", entry.getSize(), random);
+                input.setSolverId(null);
+                input.setSolveTimeConstraint(new SolveTimeConstraint(budget + "s", budget));
+
+                payloads.add(mapper.writeValueAsString(input));
+                paths.add("/solve/" + entry.getProblem().name().toLowerCase());
+                total += entry.getWeight() / options.getVariants();
+                cumulative.add(total);
+            }
+        }
+        return cumulative.stream().mapToDouble(weight -> weight).toArray();
+    }
+
+    public LoadStats.Summary run(List<String> payloads, List<String> paths, double[] weights) {
+        Random random = new Random(options.getSeed());
+        double total = weights[weights.length - 1];
+        long intervalNanos = (long) (1e9 / options.getRate());
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(stats::sample, 0, SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("submitting {} solves per second for {} s", options.getRate(), options.getDuration().toSeconds());
+
+        int submitted = 0;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long end = System.nanoTime() + options.getDuration().toNanos();
+            long next = System.nanoTime();
+            while (next < end) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                int payload = draw(weights, random.nextDouble() * total);
+                clients.execute(() -> solve(paths.get(payload), payloads.get(payload)));
+                submitted++;
+                next += "constant".equals(options.getArrivals()) ? intervalNanos
+                        : (long) (-Math.log(1 - random.nextDouble()) * intervalNanos); // Exponential gaps
+            }
+            log.info("{} solves submitted, waiting for those still running", submitted);
+        } finally {
+            sampler.shutdownNow();
+        }
+        return stats.summarize();
+    }
+
+    private void solve(String path, String payload) {
+        Map<Long, Long> receivedAt = new ConcurrentHashMap<>(); // By event sequence, for the watchers' lag
+        List<Thread> watchers = new ArrayList<>();
+        long submittedAt = System.nanoTime();
+        boolean[] first = {true, true}; // Awaiting the first event, the first solution
+        stats.streamOpened();
+        try {
+            Flux.from(client.eventStream(HttpRequest.POST(path, payload).contentType(MediaType.APPLICATION_JSON),
+                    EVENT))
+                    .map(Event::getData)
+                    .doOnNext(event -> {
+                        long now = System.nanoTime();
+                        if (event.get("sequence") instanceof Number sequence) {
+                            receivedAt.put(sequence.longValue(), now);
+                        }
+                        if (first[0]) {
+                            first[0] = false;
+                            stats.record("first-event", now - submittedAt);
+                            String solverId = String.valueOf(event.get("solverId"));
+                            for (int i = 0; event.get("solverId") != null && i < options.getWatchers(); i++) {
+                                watchers.add(Thread.ofVirtual().start(() -> watch(solverId, receivedAt)));
+                            }
+                        }
+                        if (first[1] && !"QUEUED".equals(event.get("solverState"))) {
+                            first[1] = false;
+                            stats.record("first-solution", now - submittedAt);
+                        }
+                    })
+                    .blockLast();
+            stats.record("completion", System.nanoTime() - submittedAt);
+            stats.count("completed");
+            for (Thread watcher : watchers) {
+                watcher.join(); // Their streams end with the solve's
+            }
+        } catch (HttpClientResponseException e) {
+            stats.count(e.getStatus() == HttpStatus.SERVICE_UNAVAILABLE ? "rejected" : "failed");
+        } catch (RuntimeException e) {
+            log.debug("solve stream failed", e);
+            stats.count("failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stats.streamClosed();
+        }
+    }
+
+    private void watch(String solverId, Map<Long, Long> solveReceivedAt) {
+        boolean[] replayed = {false};
+        stats.streamOpened();
+        try {
+            Flux.from(client.eventStream(HttpRequest.GET("/progress/" + solverId), EVENT))
+                    .map(Event::getData)
+                    .doOnNext(event -> {
+                        long now = System.nanoTime();
+                        // The first event replays the latest output, however long ago it was published
+                        if (!replayed[0]) {
+                            replayed[0] = true;
+                            return;
+                        }
+                        if (event.get("sequence") instanceof Number sequence) {
+                            Long solveAt = solveReceivedAt.get(sequence.longValue());
+                            if (solveAt != null) {
+                                stats.record("event-lag", Math.max(0, now - solveAt)); // Either stream may win
+                            }
+                        }
+                    })
+                    .blockLast();
+        } catch (RuntimeException e) {
+            log.debug("progress stream of {} failed", solverId, e);
+            stats.count("watch-failed");
+        } finally {
+            stats.streamClosed();
+        }
+    }
+
+    private static int draw(double[] cumulative, double value) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (value < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+}
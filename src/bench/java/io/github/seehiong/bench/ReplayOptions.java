@@ -0,0 +1,41 @@
+package io.github.seehiong.bench;
+
+import java.nio.file.Path;
+
+import lombok.Data;
+
+/**
+ * Replay options, given as {@code --name=value}.
+ */
+@Data
+public class ReplayOptions {
+
+    private Path captures = Path.of("data/captures"); // Directory written by the capture mode
+    private int limit = Integer.MAX_VALUE; // Most recent captures replayed
+    private Path output = Path.of("build/reports/replay");
+    private Path baseline; // replay.json of another build to compare against
+    private double objectiveTolerance = 0.01; // Relative objective increase counted as a regression
+    private double latencyTolerance = 0.25; // Relative time to first solution increase counted as a regression
+
+    public static ReplayOptions parse(String[] args) {
+        ReplayOptions options = new ReplayOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "captures" -> options.captures = Path.of(value);
+                case "limit" -> options.limit = Integer.parseInt(value);
+                case "output" -> options.output = Path.of(value);
+                case "baseline" -> options.baseline = Path.of(value);
+                case "objective-tolerance" -> options.objectiveTolerance = Double.parseDouble(value);
+                case "latency-tolerance" -> options.latencyTolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        return options;
+    }
+}
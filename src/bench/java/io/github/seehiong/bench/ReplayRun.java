@@ -0,0 +1,28 @@
+package io.github.seehiong.bench;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One captured request replayed, and how it compares with the same capture in the baseline.
+ */
+@Data
+@NoArgsConstructor
+public class ReplayRun {
+
+    private String capture; // file name, the key to the baseline
+    private String problem;
+    private long timeLimit; // in seconds, as captured
+    private String status; // solved, timeout or failed
+    private String error;
+    private Long timeToFirst; // in milliseconds, null when no solution was found
+    private long duration; // in milliseconds
+    private long cpuTime; // process CPU milliseconds, the replay running alone
+    private Double objective; // of the last solution
+
+    private Long baselineTimeToFirst;
+    private Long baselineCpuTime;
+    private Double baselineObjective;
+    private boolean regression;
+
+}
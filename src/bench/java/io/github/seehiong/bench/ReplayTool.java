@@ -0,0 +1,196 @@
+package io.github.seehiong.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.QueuedOutput;
+import io.github.seehiong.service.base.SolverService;
+import io.micronaut.context.ApplicationContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays the requests captured by {@code optimizer.capture} against the build on the classpath, one at a time with
+ * their original time limits, and records the time to first solution, process CPU time and objective of each.
+ * <p>
+ * Run with {@code ./gradlew replay --args="--captures=data/captures"}; the options are listed in
+ * {@link ReplayOptions}. The runs are written to {@code replay.json} and {@code replay.csv} under the output
+ * directory. Given the {@code replay.json} of another build as baseline, each run is compared with the same capture
+ * there, and the tool exits with status 1 when one regressed.
+ */
+@Slf4j
+public class ReplayTool {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final com.sun.management.OperatingSystemMXBean SYSTEM =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private static final Duration GRACE = Duration.ofSeconds(30); // Beyond the time limit before a run times out
+    private static final Duration UNLIMITED = Duration.ofMinutes(10); // Cap on captures without a time limit
+
+    public static void main(String[] args) throws IOException {
+        ReplayOptions options = ReplayOptions.parse(args);
+        List<Path> captures;
+        try (Stream<Path> files = Files.list(options.getCaptures())) {
+            captures = files.filter(file -> file.getFileName().toString().endsWith(".json.gz"))
+                    .sorted(Comparator.reverseOrder())
+                    .limit(options.getLimit())
+                    .sorted()
+                    .toList();
+        }
+        log.info("replaying {} captures from {}", captures.size(), options.getCaptures());
+
+        List<ReplayRun> runs = new ArrayList<>();
+        try (ApplicationContext context = ApplicationContext.run(Map.of("optimizer.capture.enabled", false))) {
+            Map<ProblemType, SolverService<Input, Output>> services = SolverBench.services(context);
+            for (Path capture : captures) {
+                runs.add(replay(services, capture));
+            }
+        }
+
+        int regressions = compare(options, runs);
+        write(options.getOutput(), runs);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static ReplayRun replay(Map<ProblemType, SolverService<Input, Output>> services, Path capture) {
+        String name = capture.getFileName().toString();
+        ReplayRun run = new ReplayRun();
+        run.setCapture(name);
+
+        long startedAt = System.nanoTime();
+        long cpuAtStart = SYSTEM.getProcessCpuTime();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        try {
+            ProblemType problem = ProblemType.fromString(name.split("-")[1]); // <capturedAt>-<problem>-<solverId>
+            run.setProblem(problem.name());
+            SolverService<Input, Output> service = services.get(problem);
+            Input input = service.processInput(read(capture));
+            input.setSolverId(UUID.randomUUID());
+            run.setTimeLimit(input.getTimeInSeconds());
+            Duration limit = input.getTimeInSeconds() > 0 ? Duration.ofSeconds(input.getTimeInSeconds()) : UNLIMITED;
+
+            startedAt = System.nanoTime();
+            cpuAtStart = SYSTEM.getProcessCpuTime();
+            long solveStartedAt = startedAt;
+            service.solveUntracked(input)
+                    .filter(event -> event instanceof Output && !(event instanceof QueuedOutput))
+                    .cast(Output.class)
+                    .doOnNext(output -> {
+                        Double objective = SolverBench.cost(output);
+                        if (objective != null) {
+                            if (run.getTimeToFirst() == null) {
+                                run.setTimeToFirst((System.nanoTime() - solveStartedAt) / 1_000_000);
+                            }
+                            run.setObjective(objective);
+                        }
+                    })
+                    .doOnCancel(() -> timedOut.set(true))
+                    .take(limit.plus(GRACE))
+                    .blockLast();
+            run.setStatus(timedOut.get() ? "timeout" : "solved");
+        } catch (IOException | RuntimeException e) {
+            run.setStatus("failed");
+            run.setError(e.getMessage());
+        }
+        run.setDuration((System.nanoTime() - startedAt) / 1_000_000);
+        run.setCpuTime((SYSTEM.getProcessCpuTime() - cpuAtStart) / 1_000_000);
+        log.info("{}: {} in {} ms, first solution after {} ms, objective {}", name, run.getStatus(),
+                run.getDuration(), run.getTimeToFirst(), run.getObjective());
+        return run;
+    }
+
+    private static String read(Path capture) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(capture))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Marks the runs that are worse than the same capture in the baseline: failed where it was solved, a higher
+     * objective beyond the objective tolerance, or a longer time to first solution beyond the latency tolerance.
+     *
+     * @return the number of regressions
+     */
+    private static int compare(ReplayOptions options, List<ReplayRun> runs) throws IOException {
+        if (options.getBaseline() == null) {
+            return 0;
+        }
+        List<ReplayRun> baseline = MAPPER.readValue(options.getBaseline().toFile(), new TypeReference<>() {
+        });
+        Map<String, ReplayRun> previous = baseline.stream()
+                .collect(Collectors.toMap(ReplayRun::getCapture, Function.identity()));
+
+        int regressions = 0;
+        for (ReplayRun run : runs) {
+            ReplayRun before = previous.get(run.getCapture());
+            if (before == null) {
+                continue;
+            }
+            run.setBaselineTimeToFirst(before.getTimeToFirst());
+            run.setBaselineCpuTime(before.getCpuTime());
+            run.setBaselineObjective(before.getObjective());
+
+            boolean failed = "failed".equals(run.getStatus()) && !"failed".equals(before.getStatus());
+            boolean worse;
+            if (run.getObjective() == null || before.getObjective() == null) {
+                worse = run.getObjective() == null && before.getObjective() != null;
+            } else {
+                double allowed = Math.abs(before.getObjective()) * options.getObjectiveTolerance();
+                worse = run.getObjective() > before.getObjective() + allowed;
+            }
+            boolean slower = run.getTimeToFirst() != null && before.getTimeToFirst() != null
+                    && run.getTimeToFirst() > before.getTimeToFirst() * (1 + options.getLatencyTolerance());
+            if (failed || worse || slower) {
+                run.setRegression(true);
+                regressions++;
+                log.warn("regression on {}: objective {} against {}, first solution after {} ms against {} ms, "
+                        + "status {} against {}", run.getCapture(), run.getObjective(), before.getObjective(),
+                        run.getTimeToFirst(), before.getTimeToFirst(), run.getStatus(), before.getStatus());
+            }
+        }
+        log.info("{} regressions against {}", regressions, options.getBaseline());
+        return regressions;
+    }
+
+    private static void write(Path output, List<ReplayRun> runs) throws IOException {
+        Files.createDirectories(output);
+        MAPPER.writeValue(output.resolve("replay.json").toFile(), runs);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output.resolve("replay.csv")))) {
+            csv.println("capture,problem,time_limit_s,status,time_to_first_ms,duration_ms,cpu_ms,objective,"
+                    + "baseline_time_to_first_ms,baseline_cpu_ms,baseline_objective,regression");
+            for (ReplayRun run : runs) {
+                csv.println(Stream.of(run.getCapture(), run.getProblem(), run.getTimeLimit(), run.getStatus(),
+                        run.getTimeToFirst(), run.getDuration(), run.getCpuTime(), run.getObjective(),
+                        run.getBaselineTimeToFirst(), run.getBaselineCpuTime(), run.getBaselineObjective(),
+                        run.isRegression())
+                        .map(value -> value == null ? "" : value.toString())
+                        .collect(Collectors.joining(",")));
+            }
+        }
+        log.info("{} replays written to {}", runs.size(), output.toAbsolutePath());
+    }
+}
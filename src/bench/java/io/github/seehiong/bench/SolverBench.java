@@ -0,0 +1,144 @@
+package io.github.seehiong.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.constraint.SolveTimeConstraint;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.BPPOutput;
+import io.github.seehiong.model.output.CVRPOutput;
+import io.github.seehiong.model.output.FLPOutput;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.QueuedOutput;
+import io.github.seehiong.model.output.TSPOutput;
+import io.github.seehiong.service.base.BaseSolverService;
+import io.github.seehiong.service.base.SolverService;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.serde.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs every engine on every instance of the generated library for the same time budget, one run at a time so that
+ * engines do not compete for cores, and records the cost of each improving solution as it is published. The runs are
+ * then scored against the best cost any engine reached, see {@link BenchReport}.
+ * <p>
+ * Run with {@code ./gradlew solverBench --args="--sizes=20,50 --budget=5"}; the options are listed in
+ * {@link BenchOptions}. Exits with status 1 when a baseline is given and a run regressed against it.
+ */
+@Slf4j
+public class SolverBench {
+
+    private static final Duration GRACE = Duration.ofSeconds(5); // Beyond the budget before a run counts as timed out
+
+    public static void main(String[] args) throws IOException {
+        BenchOptions options = BenchOptions.parse(args);
+
+        List<BenchRun> runs = new ArrayList<>();
+        try (ApplicationContext context = ApplicationContext.run()) {
+            Map<ProblemType, SolverService<Input, Output>> services = services(context);
+            List<BenchInstance> library = BenchLibrary.generate(options);
+            writeLibrary(context.getBean(ObjectMapper.class), library, options.getOutput().resolve("instances"));
+
+            for (BenchInstance instance : library) {
+                for (ProblemType problem : instance.getProblems()) {
+                    runs.add(run(services.get(problem), instance, problem, options.getBudget()));
+                }
+            }
+        }
+
+        BenchReport report = new BenchReport(options, runs);
+        report.write();
+        if (!report.compareToBaseline()) {
+            System.exit(1);
+        }
+    }
+
+    static Map<ProblemType, SolverService<Input, Output>> services(ApplicationContext context) {
+        Map<ProblemType, SolverService<Input, Output>> services = new EnumMap<>(ProblemType.class);
+        for (SolverService<?, ?> service : context.getBeansOfType(SolverService.class)) {
+            services.put(((BaseSolverService<?, ?>) service).getProblemType(), (SolverService<Input, Output>) service);
+        }
+        return services;
+    }
+
+    private static void writeLibrary(ObjectMapper mapper, List<BenchInstance> library, Path directory)
+            throws IOException {
+        Files.createDirectories(directory);
+        for (BenchInstance instance : library) {
+            Files.write(directory.resolve(instance.getId() + ".json"), mapper.writeValueAsBytes(instance.getInput()));
+        }
+    }
+
+    private static BenchRun run(SolverService<Input, Output> service, BenchInstance instance, ProblemType problem,
+            Duration budget) {
+        BenchRun run = new BenchRun();
+        run.setInstance(instance.getId());
+        run.setFamily(instance.getFamily());
+        run.setLayout(instance.getLayout());
+        run.setSize(instance.getSize());
+        run.setProblem(problem.name());
+
+        Input input = instance.getInput();
+        input.setSolverId(UUID.randomUUID());
+        input.setTimings(null);
+        input.setSolveTimeConstraint(new SolveTimeConstraint(budget.toSeconds() + "s", budget.toSeconds()));
+
+        AtomicBoolean timedOut = new AtomicBoolean();
+        long startedAt = System.nanoTime();
+        try {
+            service.solveUntracked(input)
+                    .filter(event -> event instanceof Output && !(event instanceof QueuedOutput))
+                    .doOnNext(event -> record(run, (Output) event, startedAt))
+                    .doOnCancel(() -> timedOut.set(true))
+                    .take(budget.plus(GRACE))
+                    .blockLast();
+            run.setStatus(timedOut.get() ? "timeout" : "solved");
+        } catch (RuntimeException e) {
+            run.setStatus("failed");
+            run.setError(e.getMessage());
+        }
+        run.setDuration((System.nanoTime() - startedAt) / 1_000_000);
+        log.info("{} on {}: {} in {} ms, cost {}", problem, instance.getId(), run.getStatus(), run.getDuration(),
+                run.getFinalCost());
+        return run;
+    }
+
+    // Keeps the outputs that improve on the last recorded cost; engines may republish or, for GA, regress
+    private static void record(BenchRun run, Output output, long startedAt) {
+        Double cost = cost(output);
+        if (cost == null || (run.getFinalCost() != null && cost >= run.getFinalCost())) {
+            return;
+        }
+        run.getCurve().add(new CurvePoint((System.nanoTime() - startedAt) / 1_000_000, cost));
+        run.setFinalCost(cost);
+    }
+
+    /**
+     * Objective of an output carrying a solution, or null for status outputs. Every engine minimizes, bin packing the
+     * number of bins.
+     */
+    static Double cost(Output output) {
+        if (output instanceof TSPOutput tspOutput && tspOutput.getTours() != null) {
+            return tspOutput.getCost();
+        }
+        if (output instanceof CVRPOutput cvrpOutput && cvrpOutput.getRoutes() != null) {
+            return cvrpOutput.getCost();
+        }
+        if (output instanceof FLPOutput flpOutput && flpOutput.getAssignments() != null) {
+            return flpOutput.getCost();
+        }
+        if (output instanceof BPPOutput bppOutput && bppOutput.getItems() != null) {
+            return (double) bppOutput.getItems().size();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.seehiong.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.input.TSPInput;
+import io.github.seehiong.model.metadata.CustomerCoordinateMetadata;
+import io.github.seehiong.model.metric.CostMetric;
+import io.github.seehiong.model.metric.VehicleRouteMetric;
+import io.github.seehiong.model.output.CVRPOutput;
+import io.github.seehiong.utils.DistanceMatrixUtil;
+import io.github.seehiong.utils.InstanceGenerator;
+import io.micronaut.serde.ObjectMapper;
+
+/**
+ * JSON round trips of the largest payloads: a TSP input with its full distance matrix and a CVRP output with its
+ * routes and customer coordinates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerdeBenchmark {
+
+    @Param({"100", "1000", "2000"})
+    private int locations;
+
+    @Param("42")
+    private long seed;
+
+    private ObjectMapper objectMapper;
+    private TSPInput tspInput;
+    private byte[] tspInputJson;
+    private CVRPOutput cvrpOutput;
+    private byte[] cvrpOutputJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = ObjectMapper.getDefault();
+        Random random = new Random(seed);
+        Coordinate[] coordinates = InstanceGenerator.uniform(locations, random);
+
+        tspInput = TSPInput.builder()
+                .distanceMatrixConstraint(new DistanceMatrixConstraint(DistanceMatrixUtil.euclidean(coordinates)))
+                .build();
+        tspInputJson = objectMapper.writeValueAsBytes(tspInput);
+
+        // Customers dealt round robin over the vehicles, in a random order
+        int vehicles = Math.max(1, locations / 20);
+        int[] order = InstanceGenerator.tour(locations, random);
+        VehicleRouteMetric routes = new VehicleRouteMetric(vehicles);
+        for (int i = 1; i < locations; i++) {
+            routes.getRoutes()[i % vehicles].add(order[i]);
+        }
+        for (ArrayList<Integer> route : routes.getRoutes()) {
+            route.add(0, 0);
+            route.add(0);
+        }
+        cvrpOutput = CVRPOutput.builder()
+                .solverState(SolverState.SOLVED)
+                .vehicleRouteMetric(routes)
+                .costMetric(new CostMetric(random.nextDouble() * InstanceGenerator.SIDE * locations))
+                .customerCoordinateMetadata(new CustomerCoordinateMetadata(coordinates))
+                .build();
+        cvrpOutputJson = objectMapper.writeValueAsBytes(cvrpOutput);
+    }
+
+    @Benchmark
+    public byte[] serializeTspInput() throws IOException {
+        return objectMapper.writeValueAsBytes(tspInput);
+    }
+
+    @Benchmark
+    public TSPInput deserializeTspInput() throws IOException {
+        return objectMapper.readValue(tspInputJson, TSPInput.class);
+    }
+
+    @Benchmark
+    public byte[] serializeCvrpOutput() throws IOException {
+        return objectMapper.writeValueAsBytes(cvrpOutput);
+    }
+
+    @Benchmark
+    public CVRPOutput deserializeCvrpOutput() throws IOException {
+        return objectMapper.readValue(cvrpOutputJson, CVRPOutput.class);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.seehiong.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.input.CVRPInput;
+import io.github.seehiong.model.input.FLPInput;
+import io.github.seehiong.model.input.TSPInput;
+import io.github.seehiong.utils.InstanceGenerator;
+import io.github.seehiong.utils.NumberTokenizer;
+
+/**
+ * Instance files parsed the way uploads are: tokenized, then turned into an input with its distance matrix. The
+ * services are built without their solve dependencies, which parsing does not touch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ParserBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    private int locations;
+
+    @Param("42")
+    private long seed;
+
+    private final TSPService tspService = new TSPService(null, null, null, null, null);
+    private final CVRPService cvrpService = new CVRPService(null, null, null, null);
+    private final FLPService flpService = new FLPService(null, null, null, null);
+
+    private byte[] tspFile;
+    private byte[] cvrpFile;
+    private byte[] flpFile;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(seed);
+        Coordinate[] locationCoordinates = InstanceGenerator.uniform(locations, random);
+        int[] demands = InstanceGenerator.demands(locations, 10, random);
+        tspFile = InstanceGenerator.tspFile(locationCoordinates).getBytes(StandardCharsets.US_ASCII);
+        cvrpFile = InstanceGenerator.cvrpFile(locationCoordinates, demands, Math.max(1, locations / 20), 100)
+                .getBytes(StandardCharsets.US_ASCII);
+
+        int facilityCount = Math.max(1, locations / 10);
+        double[] costs = new double[facilityCount];
+        int[] capacities = new int[facilityCount];
+        for (int i = 0; i < facilityCount; i++) {
+            costs[i] = 1000 + random.nextInt(9000);
+            capacities[i] = 100 + random.nextInt(400);
+        }
+        flpFile = InstanceGenerator.flpFile(InstanceGenerator.uniform(facilityCount, random), costs, capacities,
+                locationCoordinates, demands).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public TSPInput tsp() throws IOException {
+        return tspService.processFile(tokenize(tspFile));
+    }
+
+    @Benchmark
+    public CVRPInput cvrp() throws IOException {
+        return cvrpService.processFile(tokenize(cvrpFile));
+    }
+
+    @Benchmark
+    public FLPInput flp() throws IOException {
+        return flpService.processFile(tokenize(flpFile));
+    }
+
+    private static NumberTokenizer tokenize(byte[] file) {
+        NumberTokenizer tokens = new NumberTokenizer();
+        tokens.feed(file);
+        return tokens.finish();
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.seehiong.solver;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.seehiong.utils.DistanceMatrixUtil;
+import io.github.seehiong.utils.InstanceGenerator;
+
+/**
+ * Operators of the GA, on random tours of uniformly scattered cities. The operators draw their own random cut
+ * points, only the instance and the tours are seeded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TSPGaSolverBenchmark {
+
+    @Param({"100", "500", "2000"})
+    private int cities;
+
+    @Param("42")
+    private long seed;
+
+    private TSPGaSolver solver;
+    private int[] genome;
+    private int[] otherGenome;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(seed);
+        solver = new TSPGaSolver();
+        solver.graph = DistanceMatrixUtil.euclidean(InstanceGenerator.uniform(cities, random));
+        solver.maxCities = cities;
+        genome = InstanceGenerator.tour(cities, random);
+        otherGenome = InstanceGenerator.tour(cities, random);
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        return solver.calculateDistance(genome);
+    }
+
+    @Benchmark
+    public int[] localSearch() {
+        return solver.localSearch(genome);
+    }
+
+    @Benchmark
+    public int[] performCrossover() {
+        return solver.performCrossover(genome, otherGenome);
+    }
+
+    @Benchmark
+    public int[] inversionMutation() {
+        return solver.inversionMutation(genome);
+    }
+
+    @Benchmark
+    public int[] insertionMutation() {
+        return solver.insertionMutation(genome);
+    }
+
+    @Benchmark
+    public int[] swapMutation() {
+        // Swaps within the given genome, which stays a tour
+        return solver.swapMutation(genome);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.seehiong.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coordinates derived back from the distance matrix of uniformly scattered cities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CoordUtilBenchmark {
+
+    @Param({"50", "200", "800"})
+    private int cities;
+
+    @Param("42")
+    private long seed;
+
+    private double[][] distances;
+
+    @Setup
+    public void setUp() {
+        distances = DistanceMatrixUtil.euclidean(InstanceGenerator.uniform(cities, new Random(seed)));
+    }
+
+    @Benchmark
+    public double[][] deriveCoordinates() {
+        return CoordUtil.deriveCoordinates(distances);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.seehiong.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.seehiong.model.Coordinate;
+
+/**
+ * Symmetric matrices of {@code locations} points, and rectangular ones from them to a tenth as many facilities. The
+ * forks enable the vector kernel, as the application does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DistanceMatrixBenchmark {
+
+    @Param({"500", "2000", "4000"})
+    private int locations;
+
+    @Param("42")
+    private long seed;
+
+    private Coordinate[] customers;
+    private Coordinate[] facilities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(seed);
+        customers = InstanceGenerator.uniform(locations, random);
+        facilities = InstanceGenerator.uniform(Math.max(1, locations / 10), random);
+    }
+
+    @Benchmark
+    public double[][] symmetric() {
+        return DistanceMatrixUtil.euclidean(customers);
+    }
+
+    @Benchmark
+    public double[][] rectangular() {
+        return DistanceMatrixUtil.euclidean(customers, facilities);
+    }
+}
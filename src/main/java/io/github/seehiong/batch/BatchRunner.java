@@ -0,0 +1,100 @@
+package io.github.seehiong.batch;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.Priority;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.constraint.SolveTimeConstraint;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.CompletionOutput;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.QueuedOutput;
+import io.github.seehiong.scheduler.SolveScheduler;
+import io.github.seehiong.service.base.SolverService;
+import io.github.seehiong.store.InstanceStore;
+import io.micronaut.http.sse.Event;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Solves many inputs of one problem type under a shared time budget.
+ * <p>
+ * Inputs are parsed and submitted only as workers free up, at most one per worker at a time, so a batch never fills
+ * the scheduler queue. Each one is solved without a progress channel, result store entry or cache lookup, and only
+ * its final output is kept. Results are emitted in completion order as SSE events whose id is the input's index.
+ */
+@Slf4j
+@Singleton
+public class BatchRunner {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final SolveScheduler scheduler;
+    private final InstanceStore instanceStore;
+
+    public BatchRunner(SolveScheduler scheduler, InstanceStore instanceStore) {
+        this.scheduler = scheduler;
+        this.instanceStore = instanceStore;
+    }
+
+    /**
+     * @param rawInputs JSON text of each input, in index order
+     * @param budget wall-clock time for the whole batch; inputs asking for longer, or for no limit, get what is left
+     *        of it when they start, and inputs not started before it runs out are skipped
+     */
+    public Flux<Event<Output>> solve(SolverService<?, ?> service, List<String> rawInputs, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        log.info("batch of {} inputs started with a budget of {} s", rawInputs.size(), budget.toSeconds());
+        return Flux.range(0, rawInputs.size())
+                .flatMap(index -> solve((SolverService<Input, Output>) service, index, rawInputs.get(index), deadline),
+                        scheduler.getWorkers());
+    }
+
+    private Mono<Event<Output>> solve(SolverService<Input, Output> service, int index, String rawInput, long deadline) {
+        return Mono.defer(() -> {
+            long remainingSeconds = TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime());
+            if (remainingSeconds < 1) {
+                return Mono.just(failed(index, null, "batch time budget exhausted"));
+            }
+
+            Input input;
+            try {
+                input = SolveTimings.parse(() -> service.processInput(rawInput));
+                if (input.getInstanceId() != null) {
+                    instanceStore.resolve(input);
+                }
+            } catch (IOException | RuntimeException e) {
+                return Mono.just(failed(index, null, "invalid input: " + e.getMessage()));
+            }
+            if (input.getPriority() == null) {
+                input.setPriority(Priority.LOW);
+            }
+            boolean unlimited = input.getTimeInSeconds() <= 0 && input.getSolveTime() == null;
+            if (unlimited || input.getTimeInSeconds() > remainingSeconds) {
+                input.setSolveTimeConstraint(new SolveTimeConstraint(remainingSeconds + "s", remainingSeconds));
+            }
+
+            return service.solveUntracked(input)
+                    .filter(event -> event instanceof Output && !(event instanceof QueuedOutput))
+                    .cast(Output.class)
+                    .last()
+                    .map(output -> Event.of(output).id(String.valueOf(index)))
+                    .onErrorResume(e -> Mono.just(failed(index, input.getSolverId(), e.getMessage())));
+        });
+    }
+
+    private static Event<Output> failed(int index, UUID solverId, String reason) {
+        CompletionOutput output = new CompletionOutput();
+        output.setSolverId(solverId);
+        output.setSolverState(SolverState.CANCELLED);
+        output.setMessage(reason);
+        return Event.<Output>of(output).id(String.valueOf(index)).name("failed");
+    }
+}
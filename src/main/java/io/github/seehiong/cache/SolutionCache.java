@@ -0,0 +1,225 @@
+package io.github.seehiong.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.SolutionCacheStats;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.input.DistanceMatrixInput;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.progress.ProgressChannel;
+import io.github.seehiong.store.ResultStore;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Solutions of previously solved inputs, keyed by a SHA-256 of everything that affects the solution: the problem
+ * type, constraints, objective and solve time, but not the solverId, priority, progress mode or threads.
+ * <p>
+ * A request identical to a solved one is answered with the stored solution straight away, and one identical to a
+ * solve still running attaches to its progress stream instead of solving again.
+ */
+@Slf4j
+@Singleton
+public class SolutionCache {
+
+    private static final Set<String> UNHASHED = Set.of(
+            "solverId", "priority", "progressMode", // Identify and route the request only
+            "threads", // Changes how fast, not what is solved
+            "instanceId", // Already resolved into the constraints
+            "timings", // Of this request
+            "distanceMatrixConstraint"); // Hashed as raw doubles
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    private final SolutionCacheConfiguration configuration;
+    private final ObjectMapper objectMapper;
+    private final ResultStore resultStore;
+
+    private final LinkedHashMap<String, Solution> solutions = new LinkedHashMap<>(16, 0.75f, true); // Access order
+    private final Map<String, ProgressChannel> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong attached = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public SolutionCache(SolutionCacheConfiguration configuration, ObjectMapper objectMapper, ResultStore resultStore) {
+        this.configuration = configuration;
+        this.objectMapper = objectMapper;
+        this.resultStore = resultStore;
+    }
+
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Canonical hash of an input, read without modifying it. Its writable properties are hashed one by one as JSON,
+     * except those in {@link #UNHASHED}; the distance matrix, when there is one, is hashed as raw doubles.
+     */
+    @SuppressWarnings("unchecked")
+    public String key(ProblemType problemType, Input input) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(problemType.name().getBytes(StandardCharsets.UTF_8));
+
+        BeanIntrospection<Input> introspection =
+                (BeanIntrospection<Input>) BeanIntrospection.getIntrospection(input.getClass());
+        try {
+            for (BeanProperty<Input, Object> property : introspection.getBeanProperties()) {
+                // Read-only and ignored properties are derived from the others
+                if (property.isReadOnly() || property.hasAnnotation(JsonIgnore.class)
+                        || UNHASHED.contains(property.getName())) {
+                    continue;
+                }
+                Object value = property.get(input);
+                digest.update(property.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(value == null ? NULL : objectMapper.writeValueAsBytes(value));
+                digest.update((byte) ',');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to hash input", e);
+        }
+
+        DistanceMatrixConstraint matrix = input instanceof DistanceMatrixInput matrixInput
+                ? matrixInput.getDistanceMatrixConstraint()
+                : null;
+        if (matrix != null && matrix.getDistances() != null) {
+            for (double[] row : matrix.getDistances()) {
+                ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + row.length * Double.BYTES);
+                buffer.putInt(row.length);
+                for (double distance : row) {
+                    buffer.putDouble(distance);
+                }
+                digest.update(buffer.array());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The stored solution for {@code key}, replayed as a completed solve of {@code input}.
+     */
+    public Optional<Flux<Object>> find(String key, Input input) {
+        Solution solution;
+        synchronized (this) {
+            solution = solutions.get(key);
+            if (solution != null && isExpired(solution)) {
+                solutions.remove(key);
+                expirations.incrementAndGet();
+                solution = null;
+            }
+        }
+        if (solution == null) {
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        log.info("answering {} from the solution of an identical input", input.getSolverId());
+        return Optional.of(replay(solution, input));
+    }
+
+    /**
+     * Registers {@code channel} as the solve in flight for {@code key}, unless an identical solve streaming in the
+     * same progress mode is already running, which is then returned instead.
+     */
+    public Optional<ProgressChannel> attach(String key, ProgressChannel channel) {
+        ProgressChannel running = inFlight.putIfAbsent(key, channel);
+        if (running != null && running.getMode() == channel.getMode()) {
+            attached.incrementAndGet();
+            log.info("solve {} attached to identical solve {}", channel.getSolverId(), running.getSolverId());
+            return Optional.of(running);
+        }
+        misses.incrementAndGet();
+        if (running == null) {
+            channel.result()
+                    .doFinally(signal -> inFlight.remove(key, channel))
+                    .subscribe(output -> {
+                        if (output.getSolverState() == SolverState.SOLVED) {
+                            store(key, output);
+                        }
+                    });
+        }
+        return Optional.empty();
+    }
+
+    public SolutionCacheStats getStats() {
+        synchronized (this) {
+            return new SolutionCacheStats(solutions.size(), inFlight.size(), hits.get(), attached.get(), misses.get(),
+                    expirations.get());
+        }
+    }
+
+    private void store(String key, Output output) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(output);
+        } catch (IOException e) {
+            log.warn("failed to cache solution of {}", output.getSolverId(), e);
+            return;
+        }
+        synchronized (this) {
+            solutions.put(key, new Solution(output.getClass(), json, System.nanoTime()));
+            while (solutions.size() > configuration.getMaxEntries()) {
+                solutions.remove(solutions.keySet().iterator().next());
+            }
+        }
+    }
+
+    private Flux<Object> replay(Solution solution, Input input) {
+        return Flux.defer(() -> {
+            Output output;
+            try {
+                output = objectMapper.readValue(solution.getJson(), solution.getType());
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+            String solverId = input.getSolverId().toString();
+            output.setSolverId(input.getSolverId());
+            output.setSequence(1);
+            output.setTimings(null); // Those of the original solve, nothing was solved for this one
+            resultStore.put(solverId, output);
+            resultStore.complete(solverId);
+            return Flux.just(output, "complete");
+        });
+    }
+
+    private boolean isExpired(Solution solution) {
+        return System.nanoTime() - solution.getStoredAt() > configuration.getTtl().toNanos();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Solution {
+
+        private final Class<? extends Output> type;
+        private final byte[] json;
+        private final long storedAt;
+    }
+}
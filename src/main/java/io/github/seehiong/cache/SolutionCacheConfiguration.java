@@ -0,0 +1,16 @@
+package io.github.seehiong.cache;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.cache")
+public class SolutionCacheConfiguration {
+
+    private boolean enabled = true;
+    private Duration ttl = Duration.ofHours(1); // How long a solution is reused after it was found
+    private int maxEntries = 1024; // Solutions kept, least recently used first out
+
+}
@@ -0,0 +1,17 @@
+package io.github.seehiong.capture;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.capture")
+public class CaptureConfiguration {
+
+    private boolean enabled = false;
+    private String directory = "data/captures"; // Rolling directory of gzip captures
+    private double sampleRate = 0.1; // Fraction of solve requests captured
+    private long maxInputSize = 16L * 1024 * 1024; // Inputs with more JSON bytes than this are not captured
+    private long maxDirectorySize = 1024L * 1024 * 1024; // Compressed bytes kept, oldest captures dropped first
+    private int queueCapacity = 64; // Captures waiting to be written, further ones are dropped
+
+}
@@ -0,0 +1,210 @@
+package io.github.seehiong.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.DistanceMatrixInput;
+import io.github.seehiong.model.input.Input;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a sample of the solve requests to {@code optimizer.capture.directory}, so that a production workload can be
+ * replayed offline against another build.
+ * <p>
+ * Each capture is the input's JSON, gzipped, in a file named {@code <capturedAt>-<problem>-<solverId>.json.gz}. The
+ * request body is kept as received, except for inputs decoded from a matrix or file upload and inputs referring to a
+ * registered instance, which are serialized once resolved so that the capture stands on its own. Captures are written
+ * on a single background thread; when it falls behind, further captures are dropped rather than slowing requests.
+ */
+@Slf4j
+@Singleton
+public class RequestCapture {
+
+    static final String SUFFIX = ".json.gz";
+
+    private final CaptureConfiguration configuration;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final ThreadPoolExecutor writer;
+    private final Deque<Path> files = new ArrayDeque<>(); // Oldest first
+    private final AtomicLong dropped = new AtomicLong();
+    private long directorySize;
+
+    public RequestCapture(CaptureConfiguration configuration, ObjectMapper objectMapper) throws IOException {
+        this.configuration = configuration;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(configuration.getDirectory());
+        if (!configuration.isEnabled()) {
+            this.writer = null;
+            return;
+        }
+
+        Files.createDirectories(directory);
+        try (Stream<Path> existing = Files.list(directory)) {
+            List<Path> captures = existing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted()
+                    .toList();
+            for (Path file : captures) {
+                files.addLast(file);
+                directorySize += Files.size(file);
+            }
+        }
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(configuration.getQueueCapacity()),
+                runnable -> Thread.ofPlatform().name("capture").daemon().unstarted(runnable),
+                (runnable, executor) -> dropped.incrementAndGet());
+        log.info("capturing {} of solve requests to {}, holding {} captures", configuration.getSampleRate(), directory,
+                files.size());
+    }
+
+    /**
+     * Captures a sampled request. The JSON is taken on the caller's thread, before the solve is scheduled, so the
+     * writer never reads an input that is in use; inputs over {@code optimizer.capture.max-input-size} are skipped
+     * before anything is queued.
+     *
+     * @param rawInput request body the input was parsed from, or null when it was decoded from another format
+     */
+    public void capture(ProblemType problemType, Input input, @Nullable String rawInput) {
+        if (writer == null || ThreadLocalRandom.current().nextDouble() >= configuration.getSampleRate()) {
+            return;
+        }
+        long capturedAt = System.currentTimeMillis();
+        byte[] json;
+        if (rawInput != null && input.getInstanceId() == null) {
+            if (rawInput.length() > configuration.getMaxInputSize()) {
+                return;
+            }
+            json = rawInput.getBytes(StandardCharsets.UTF_8);
+        } else {
+            if (minimumJsonSize(input) > configuration.getMaxInputSize()) {
+                return;
+            }
+            json = serialize(input); // Before the scheduler grants it threads or the solver touches it
+            if (json == null) {
+                return;
+            }
+        }
+        writer.execute(() -> write(problemType, input.getSolverId(), json, capturedAt));
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void write(ProblemType problemType, UUID solverId, byte[] json, long capturedAt) {
+        try {
+            Path file = directory.resolve(capturedAt + "-" + problemType.name() + "-" + solverId + SUFFIX);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                out.write(json);
+            }
+            files.addLast(file);
+            directorySize += Files.size(file);
+            roll();
+
+        } catch (IOException e) {
+            log.warn("failed to capture input {}", solverId, e);
+        }
+    }
+
+    // JSON of the input, null when it fails or outgrows the maximum size, in which case serializing stops there
+    private byte[] serialize(Input input) {
+        BoundedOutputStream out = new BoundedOutputStream(configuration.getMaxInputSize());
+        try {
+            objectMapper.writeValue(out, input);
+            return out.toByteArray();
+        } catch (IOException e) {
+            if (!out.isOverflowed()) {
+                log.warn("failed to capture input {}", input.getSolverId(), e);
+            }
+            return null;
+        }
+    }
+
+    // Fewest JSON bytes the input can take, two per matrix entry, so inputs obviously too large are not serialized
+    private static long minimumJsonSize(Input input) {
+        if (input instanceof DistanceMatrixInput matrixInput && matrixInput.getDistanceMatrixConstraint() != null
+                && matrixInput.getDistanceMatrixConstraint().getDistances() != null) {
+            long entries = 0;
+            for (double[] row : matrixInput.getDistanceMatrixConstraint().getDistances()) {
+                entries += row == null ? 1 : row.length;
+            }
+            return 2 * entries;
+        }
+        return 0;
+    }
+
+    // Deletes the oldest captures beyond the directory size, keeping at least the latest
+    private void roll() throws IOException {
+        while (directorySize > configuration.getMaxDirectorySize() && files.size() > 1) {
+            Path oldest = files.removeFirst();
+            directorySize -= Files.size(oldest);
+            Files.deleteIfExists(oldest);
+        }
+    }
+
+    // Buffer that fails once the limit is passed, so the serializer stops there rather than writing the whole input
+    private static class BoundedOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final long limit;
+        private boolean overflowed;
+
+        BoundedOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len);
+            buffer.write(b, off, len);
+        }
+
+        boolean isOverflowed() {
+            return overflowed;
+        }
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        private void ensureCapacity(int len) throws IOException {
+            if (buffer.size() + (long) len > limit) {
+                overflowed = true;
+                throw new IOException("Input exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.seehiong.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import io.github.seehiong.model.InstanceInfo;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.scheduler.OrchestrationFactory;
+import io.github.seehiong.service.base.SolverService;
+import io.github.seehiong.store.InstanceStore;
+import io.github.seehiong.utils.FileUtil;
+import io.github.seehiong.utils.MatrixCodec;
+import io.github.seehiong.utils.MatrixCodec.MatrixPayload;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Delete;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import jakarta.inject.Named;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Controller("/instances")
+@ExecuteOn(TaskExecutors.BLOCKING) // Parsing stays off the event loop
+@RequiredArgsConstructor
+public class InstanceController {
+
+    private final Map<ProblemType, SolverService<?, ?>> services;
+    private final InstanceStore instanceStore;
+    private final RequestConfiguration requestConfiguration;
+    @Named(OrchestrationFactory.ORCHESTRATION)
+    private final Scheduler orchestration;
+
+    @Post(value = "/{problem}", consumes = MediaType.APPLICATION_JSON)
+    public HttpResponse<InstanceInfo> register(@Body String rawInput, @PathVariable String problem) throws IOException {
+        ProblemType problemType = ProblemType.fromString(problem);
+        Input input = (Input) getService(problemType).processInput(rawInput);
+        return HttpResponse.created(instanceStore.register(problemType, input));
+    }
+
+    @Post(value = "/{problem}", consumes = MatrixCodec.MEDIA_TYPE)
+    public HttpResponse<InstanceInfo> registerMatrix(@Body byte[] body, @PathVariable String problem) throws IOException {
+        ProblemType problemType = ProblemType.fromString(problem);
+        MatrixPayload payload = MatrixCodec.decode(body, requestConfiguration.getMaxMatrixDimension(),
+                requestConfiguration.getMaxMatrixBytes());
+        Input input = (Input) getService(problemType).processMatrix(payload.getHeader(), payload.getMatrix());
+        return HttpResponse.created(instanceStore.register(problemType, input));
+    }
+
+    @Post(value = "/{problem}/upload", consumes = MediaType.MULTIPART_FORM_DATA)
+    public Mono<HttpResponse<InstanceInfo>> upload(StreamingFileUpload file, @PathVariable String problem) {
+        ProblemType problemType = ProblemType.fromString(problem);
+        SolverService<?, ?> service = getService(problemType);
+        return FileUtil.tokenize(file, orchestration)
+                .map(tokens -> {
+                    try {
+                        Input input = (Input) service.processFile(tokens);
+                        return HttpResponse.created(instanceStore.register(problemType, input));
+
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to deserialize input", e);
+                    }
+                });
+    }
+
+    @Get("/{instanceId}")
+    public HttpResponse<InstanceInfo> get(@PathVariable String instanceId) {
+        return instanceStore.info(instanceId)
+                .map(HttpResponse::ok)
+                .orElseGet(HttpResponse::notFound);
+    }
+
+    @Delete("/{instanceId}")
+    public HttpResponse<Void> delete(@PathVariable String instanceId) throws IOException {
+        return instanceStore.remove(instanceId) ? HttpResponse.noContent() : HttpResponse.notFound();
+    }
+
+    private SolverService<?, ?> getService(ProblemType problemType) {
+        SolverService<?, ?> service = services.get(problemType);
+
+        if (service == null) {
+            throw new IllegalArgumentException("Problem not supported");
+        }
+        return service;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.seehiong.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+import io.github.seehiong.job.JobManager;
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.JobInfo;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.service.base.SolverService;
+import io.github.seehiong.store.InstanceStore;
+import io.github.seehiong.store.ResultStore;
+import io.github.seehiong.utils.MatrixCodec;
+import io.github.seehiong.utils.MatrixCodec.MatrixPayload;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.sse.Event;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@Controller("/jobs")
+@ExecuteOn(TaskExecutors.BLOCKING) // Parsing and preprocessing stay off the event loop
+@RequiredArgsConstructor
+public class JobController {
+
+    private final Map<ProblemType, SolverService<?, ?>> services;
+    private final InstanceStore instanceStore;
+    private final JobManager jobManager;
+    private final ResultStore resultStore;
+    private final RequestConfiguration requestConfiguration;
+
+    @Post(value = "/{problem}", consumes = MediaType.APPLICATION_JSON)
+    public HttpResponse<JobInfo> submit(@Body String rawInput, @PathVariable String problem) throws IOException {
+        ProblemType problemType = ProblemType.fromString(problem);
+        SolverService<?, ?> service = getService(problemType);
+        return submit(problemType, service, SolveTimings.parse(() -> (Input) service.processInput(rawInput)));
+    }
+
+    @Post(value = "/{problem}", consumes = MatrixCodec.MEDIA_TYPE)
+    public HttpResponse<JobInfo> submitMatrix(@Body byte[] body, @PathVariable String problem) throws IOException {
+        ProblemType problemType = ProblemType.fromString(problem);
+        SolverService<?, ?> service = getService(problemType);
+        Input input = SolveTimings.parse(() -> {
+            MatrixPayload payload = MatrixCodec.decode(body, requestConfiguration.getMaxMatrixDimension(),
+                    requestConfiguration.getMaxMatrixBytes());
+            return (Input) service.processMatrix(payload.getHeader(), payload.getMatrix());
+        });
+        return submit(problemType, service, input);
+    }
+
+    @Get("/{solverId}")
+    public HttpResponse<JobInfo> status(@PathVariable UUID solverId) {
+        return jobManager.info(solverId)
+                .map(HttpResponse::ok)
+                .orElseGet(HttpResponse::notFound);
+    }
+
+    @Get(value = "/{solverId}/result", produces = MediaType.APPLICATION_JSON)
+    public HttpResponse<byte[]> result(@PathVariable UUID solverId) {
+        return resultStore.get(solverId.toString())
+                .map(HttpResponse::ok)
+                .orElseGet(HttpResponse::notFound);
+    }
+
+    @Get(value = "/{solverId}/events", produces = MediaType.TEXT_EVENT_STREAM)
+    public Flux<Event<Object>> events(@PathVariable UUID solverId, @Nullable @Header("Last-Event-ID") String lastEventId) {
+        return jobManager.events(solverId, parseEventId(lastEventId)).orElseGet(Flux::empty);
+    }
+
+    // The header is echoed back by the browser as sent, anything but one of our ids replays the whole buffer
+    private static long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(lastEventId.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private HttpResponse<JobInfo> submit(ProblemType problemType, SolverService<?, ?> service, Input input) throws IOException {
+        if (input.getInstanceId() != null) {
+            instanceStore.resolve(input);
+        }
+        JobInfo info = jobManager.submit(input.getSolverId(), problemType,
+                () -> ((SolverService<Input, Output>) service).solve(input));
+        return HttpResponse.accepted(URI.create("/jobs/" + info.getSolverId())).body(info);
+    }
+
+    private SolverService<?, ?> getService(ProblemType problemType) {
+        SolverService<?, ?> service = services.get(problemType);
+
+        if (service == null) {
+            throw new IllegalArgumentException("Problem not supported");
+        }
+        return service;
+    }
+}
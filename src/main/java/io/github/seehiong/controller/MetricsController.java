@@ -0,0 +1,20 @@
+package io.github.seehiong.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import lombok.RequiredArgsConstructor;
+
+@Controller("/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry;
+
+    @Get(produces = PROMETHEUS_TEXT)
+    public String scrape() {
+        return registry.scrape();
+    }
+}
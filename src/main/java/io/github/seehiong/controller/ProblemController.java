@@ -1,51 +1,137 @@
 package io.github.seehiong.controller;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.UUID;
 
+import io.github.seehiong.batch.BatchRunner;
+import io.github.seehiong.capture.RequestCapture;
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.constraint.SolveTimeConstraint;
 import io.github.seehiong.model.input.Input;
 import io.github.seehiong.model.output.Output;
+import io.github.seehiong.scheduler.OrchestrationFactory;
+import io.github.seehiong.scheduler.SolveScheduler;
+import io.github.seehiong.service.base.BaseSolverService;
 import io.github.seehiong.service.base.SolverService;
+import io.github.seehiong.store.InstanceStore;
+import io.github.seehiong.utils.FileUtil;
+import io.github.seehiong.utils.JsonUtil;
+import io.github.seehiong.utils.MatrixCodec;
+import io.github.seehiong.utils.MatrixCodec.MatrixPayload;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Delete;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.Post;
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.http.sse.Event;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import jakarta.inject.Named;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
 
 @Controller("/solve")
+@ExecuteOn(TaskExecutors.BLOCKING) // Parsing and preprocessing stay off the event loop
 @RequiredArgsConstructor
 public class ProblemController {
 
     private final Map<ProblemType, SolverService<?, ?>> services;
+    private final InstanceStore instanceStore;
+    private final SolveScheduler scheduler;
+    private final BatchRunner batchRunner;
+    private final RequestCapture requestCapture;
+    private final RequestConfiguration requestConfiguration;
+    @Named(OrchestrationFactory.ORCHESTRATION)
+    private final Scheduler orchestration;
 
     @Post(value = "/{problem}", produces = MediaType.TEXT_EVENT_STREAM)
     public Flux<Object> solve(@Body String rawInput, @PathVariable String problem) {
         try {
             SolverService<?, ?> service = getService(problem);
-            Input input = (Input) service.processInput(rawInput);
-            return ((SolverService<Input, Output>) service).solve(input);
+            Input input = SolveTimings.parse(() -> (Input) service.processInput(rawInput));
+            return solve(service, input, rawInput);
 
         } catch (IOException e) {
             return Flux.error(new RuntimeException("Failed to deserialize input", e));
         }
     }
 
-    @Post(value = "/{problem}/upload", produces = MediaType.TEXT_EVENT_STREAM, consumes = MediaType.MULTIPART_FORM_DATA)
-    public Flux<Object> uploadSolve(CompletedFileUpload file, @PathVariable String problem) throws IOException {
+    @Post(value = "/{problem}", produces = MediaType.TEXT_EVENT_STREAM, consumes = MatrixCodec.MEDIA_TYPE)
+    public Flux<Object> solveMatrix(@Body byte[] body, @PathVariable String problem) {
         try {
             SolverService<?, ?> service = getService(problem);
-            Input input = (Input) service.processFile(file);
-            return ((SolverService<Input, Output>) service).solve(input);
+            Input input = SolveTimings.parse(() -> {
+                MatrixPayload payload = MatrixCodec.decode(body, requestConfiguration.getMaxMatrixDimension(),
+                        requestConfiguration.getMaxMatrixBytes());
+                return (Input) service.processMatrix(payload.getHeader(), payload.getMatrix());
+            });
+            return solve(service, input, null);
 
         } catch (IOException e) {
-            return Flux.error(new RuntimeException("Failed to deserialize input", e));
+            return Flux.error(new RuntimeException("Failed to decode matrix input", e));
         }
     }
 
+    @Post(value = "/{problem}/upload", produces = MediaType.TEXT_EVENT_STREAM, consumes = MediaType.MULTIPART_FORM_DATA)
+    public Flux<Object> uploadSolve(StreamingFileUpload file, @PathVariable String problem) {
+        SolverService<?, ?> service = getService(problem);
+        return FileUtil.tokenize(file, orchestration)
+                .flatMapMany(tokens -> {
+                    try {
+                        Input input = SolveTimings.parse(() -> (Input) service.processFile(tokens));
+                        return solve(service, input, null);
+
+                    } catch (IOException e) {
+                        return Flux.error(new RuntimeException("Failed to deserialize input", e));
+                    }
+                });
+    }
+
+    @Post(value = "/{problem}/batch", produces = MediaType.TEXT_EVENT_STREAM)
+    public Flux<Event<Output>> solveBatch(@Body String rawInputs, @PathVariable String problem,
+            @Nullable @QueryValue Duration budget) {
+        try {
+            return batchRunner.solve(getService(problem), JsonUtil.splitArray(rawInputs), batchBudget(budget));
+
+        } catch (IOException e) {
+            return Flux.error(new RuntimeException("Failed to read batch", e));
+        }
+    }
+
+    @Post(value = "/{problem}/batch", produces = MediaType.TEXT_EVENT_STREAM, consumes = BatchRunner.NDJSON)
+    public Flux<Event<Output>> solveBatchLines(@Body String rawInputs, @PathVariable String problem,
+            @Nullable @QueryValue Duration budget) {
+        return batchRunner.solve(getService(problem), rawInputs.lines().filter(line -> !line.isBlank()).toList(),
+                batchBudget(budget));
+    }
+
+    @Delete("/{solverId}")
+    public HttpResponse<Void> cancel(@PathVariable UUID solverId) {
+        return scheduler.cancel(solverId) ? HttpResponse.noContent() : HttpResponse.notFound();
+    }
+
+    private Flux<Object> solve(SolverService<?, ?> service, Input input, @Nullable String rawInput)
+            throws IOException {
+        if (input.getInstanceId() != null) {
+            instanceStore.resolve(input);
+        }
+        requestCapture.capture(((BaseSolverService<?, ?>) service).getProblemType(), input, rawInput);
+        return ((SolverService<Input, Output>) service).solve(input);
+    }
+
+    private static Duration batchBudget(Duration budget) {
+        return budget == null ? Duration.ofSeconds(SolveTimeConstraint.DEFAULT_TIME_IN_SECONDS) : budget;
+    }
+
     private SolverService<?, ?> getService(String problem) {
         ProblemType problemType = ProblemType.fromString(problem.toUpperCase());
         SolverService<?, ?> service = services.get(problemType);
@@ -1,42 +1,61 @@
 package io.github.seehiong.controller;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ResultStoreStats;
+import io.github.seehiong.model.SolutionCacheStats;
 import io.github.seehiong.model.output.CompletionOutput;
 import io.github.seehiong.model.output.Output;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.store.ResultStore;
+import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.Produces;
 import io.micronaut.http.sse.Event;
-import io.reactivex.rxjava3.core.BackpressureStrategy;
-import io.reactivex.rxjava3.core.Flowable;
-import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Controller("/progress")
 @RequiredArgsConstructor
 public class ProgressController {
 
-    public static final Map<String, PublishSubject<? extends Output>> activeSolvers = new ConcurrentHashMap<>();
-    public static final Map<String, Output> latestOutputs = new ConcurrentHashMap<>();
+    private final ResultStore resultStore;
+    private final ProgressRegistry progressRegistry;
+    private final SolutionCache solutionCache;
 
     @Get("/latest/{solverId}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Output getLatestOutput(@PathVariable String solverId) {
-        return latestOutputs.get(solverId);
+    @ExecuteOn(TaskExecutors.BLOCKING) // May read a spilled or logged result from disk
+    public HttpResponse<byte[]> getLatestOutput(@PathVariable String solverId) {
+        // Served as stored, without deserializing the output again
+        return resultStore.get(solverId)
+                .map(HttpResponse::ok)
+                .orElseGet(HttpResponse::notFound);
+    }
+
+    @Get("/stats/results")
+    public ResultStoreStats getResultStats() {
+        return resultStore.getStats();
+    }
+
+    @Get("/stats/cache")
+    public SolutionCacheStats getCacheStats() {
+        return solutionCache.getStats();
     }
 
     @Get(value = "/{solverId}", produces = MediaType.TEXT_EVENT_STREAM)
-    public Flowable<Event<Output>> streamProgress(String solverId) {
-        PublishSubject<? extends Output> progressSubject = activeSolvers.get(solverId);
-        if (progressSubject == null) {
-            return Flowable.empty();
-        }
-        return progressSubject.toFlowable(BackpressureStrategy.BUFFER)
-                .map(Event::of)
-                .concatWith(Flowable.just(Event.of(new CompletionOutput())));
+    public Flux<Event<Output>> streamProgress(String solverId) {
+        // Starts from the last published output, slow clients skip to the newest
+        return progressRegistry.find(solverId)
+                .map(channel -> channel.asFlux()
+                        .ofType(Output.class)
+                        .map(Event::of)
+                        .concatWith(Mono.just(Event.of(new CompletionOutput()))))
+                .orElseGet(Flux::empty);
     }
 }
@@ -0,0 +1,13 @@
+package io.github.seehiong.controller;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.requests")
+public class RequestConfiguration {
+
+    private int maxMatrixDimension = 10_000; // Rows or columns of a binary matrix payload, larger ones are rejected
+    private long maxMatrixBytes = 512L * 1024 * 1024; // Inflated bytes of a binary matrix payload, gzip included
+
+}
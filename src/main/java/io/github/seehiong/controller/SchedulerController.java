@@ -0,0 +1,19 @@
+package io.github.seehiong.controller;
+
+import io.github.seehiong.model.SchedulerStats;
+import io.github.seehiong.scheduler.SolveScheduler;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import lombok.RequiredArgsConstructor;
+
+@Controller("/scheduler")
+@RequiredArgsConstructor
+public class SchedulerController {
+
+    private final SolveScheduler scheduler;
+
+    @Get
+    public SchedulerStats stats() {
+        return scheduler.getStats();
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.seehiong.controller;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import io.github.seehiong.scheduler.DuplicateSolveException;
+import io.github.seehiong.scheduler.ModelTooLargeException;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import jakarta.inject.Singleton;
+
+/**
+ * Answers solves turned away by a full scheduler queue with 503, so clients can back off and retry, and those whose
+ * model would never fit the memory budget with 413. A solver id already in flight is a conflict, 409.
+ */
+@Produces
+@Singleton
+public class SolveRejectedHandler implements ExceptionHandler<RejectedExecutionException, HttpResponse<String>> {
+
+    @Override
+    public HttpResponse<String> handle(HttpRequest request, RejectedExecutionException exception) {
+        if (exception instanceof DuplicateSolveException) {
+            return HttpResponse.<String>status(HttpStatus.CONFLICT).body(exception.getMessage());
+        }
+        if (exception instanceof ModelTooLargeException) {
+            return HttpResponse.<String>status(HttpStatus.REQUEST_ENTITY_TOO_LARGE).body(exception.getMessage());
+        }
+        return HttpResponse.<String>status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(exception.getMessage());
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.seehiong.job;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.jobs")
+public class JobConfiguration {
+
+    private int replayEvents = 256; // Events kept per job for clients resuming their stream
+    private Duration retention = Duration.ofHours(1); // How long finished jobs stay queryable
+
+}
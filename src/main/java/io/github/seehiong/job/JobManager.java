@@ -0,0 +1,155 @@
+package io.github.seehiong.job;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.github.seehiong.model.JobInfo;
+import io.github.seehiong.model.JobStatus;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.QueuedOutput;
+import io.github.seehiong.scheduler.DuplicateSolveException;
+import io.micronaut.http.sse.Event;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Runs submitted solves in the background, independent of any HTTP connection.
+ * <p>
+ * Every event of a job is numbered; the last {@code optimizer.jobs.replay-events} are replayed to late or
+ * reconnecting clients, who skip what they saw through {@code Last-Event-ID}. Finished jobs are kept for
+ * {@code optimizer.jobs.retention}.
+ */
+@Slf4j
+@Singleton
+public class JobManager {
+
+    private final JobConfiguration configuration;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    public JobManager(JobConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Starts consuming a solve's events in the background.
+     *
+     * @param solve opens the solve's events, only once the solver id is known to be free, so that a duplicate never
+     *            registers a progress channel
+     * @throws RejectedExecutionException when the scheduler turned the solve away, {@link DuplicateSolveException}
+     *             when a job with the same id is still kept
+     */
+    public JobInfo submit(UUID solverId, ProblemType problemType, Supplier<Flux<Object>> solve) {
+        purgeExpired();
+
+        Job job = new Job(solverId, problemType, configuration.getReplayEvents());
+        if (jobs.putIfAbsent(solverId, job) != null) {
+            throw new DuplicateSolveException("Job already submitted: " + solverId);
+        }
+        Flux<Object> events;
+        try {
+            events = solve.get();
+        } catch (RuntimeException e) {
+            jobs.remove(solverId, job);
+            throw e;
+        }
+        events.subscribe(job::onNext, job::onError, job::onComplete);
+
+        // Admission happens on subscribe, so a full queue is known right away
+        if (job.failure instanceof RejectedExecutionException rejected) {
+            jobs.remove(solverId, job);
+            throw rejected;
+        }
+        return job.info();
+    }
+
+    public Optional<JobInfo> info(UUID solverId) {
+        return Optional.ofNullable(jobs.get(solverId)).map(Job::info);
+    }
+
+    /**
+     * Events of a job after {@code lastEventId}, the buffered ones first, then live ones until the job finishes.
+     */
+    public Optional<Flux<Event<Object>>> events(UUID solverId, long lastEventId) {
+        return Optional.ofNullable(jobs.get(solverId))
+                .map(job -> job.events.asFlux()
+                        .filter(event -> event.id() > lastEventId)
+                        .map(event -> {
+                            Event<Object> sse = Event.of(event.data()).id(String.valueOf(event.id()));
+                            return event.name() == null ? sse : sse.name(event.name());
+                        }));
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        long retention = configuration.getRetention().toNanos();
+        jobs.values().removeIf(job -> job.finished && now - job.finishedAt > retention);
+    }
+
+    private record JobEvent(long id, String name, Object data) {
+    }
+
+    private static class Job {
+
+        private final UUID solverId;
+        private final ProblemType problemType;
+        private final Sinks.Many<JobEvent> events;
+        private final AtomicLong sequence = new AtomicLong();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Throwable failure;
+        private volatile boolean finished;
+        private volatile long finishedAt;
+
+        Job(UUID solverId, ProblemType problemType, int replayEvents) {
+            this.solverId = solverId;
+            this.problemType = problemType;
+            this.events = Sinks.many().replay().limit(replayEvents);
+        }
+
+        void onNext(Object event) {
+            if (event instanceof Output output && output.getSolverState() == SolverState.CANCELLED) {
+                status = JobStatus.CANCELLED;
+            } else if (event instanceof QueuedOutput queuedOutput) {
+                status = queuedOutput.getQueuePosition() > 0 ? JobStatus.QUEUED : JobStatus.RUNNING;
+            } else if (event instanceof Output) {
+                status = JobStatus.RUNNING;
+            }
+            events.tryEmitNext(new JobEvent(sequence.incrementAndGet(), null, event));
+        }
+
+        void onError(Throwable error) {
+            log.warn("job {} failed: {}", solverId, error.getMessage());
+            failure = error;
+            status = JobStatus.FAILED;
+            finish(new JobEvent(sequence.incrementAndGet(), "error", String.valueOf(error.getMessage())));
+        }
+
+        void onComplete() {
+            if (status != JobStatus.CANCELLED) {
+                status = JobStatus.COMPLETED;
+            }
+            finish(null);
+        }
+
+        private void finish(JobEvent lastEvent) {
+            if (lastEvent != null) {
+                events.tryEmitNext(lastEvent);
+            }
+            events.tryEmitComplete();
+            finishedAt = System.nanoTime();
+            finished = true;
+        }
+
+        JobInfo info() {
+            return new JobInfo(solverId, problemType, status, sequence.get(), failure == null ? null : failure.getMessage());
+        }
+    }
+}
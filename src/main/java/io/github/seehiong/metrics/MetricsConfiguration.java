@@ -0,0 +1,15 @@
+package io.github.seehiong.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.metrics")
+public class MetricsConfiguration {
+
+    private List<Integer> sizeBuckets = new ArrayList<>(List.of(100, 1000, 10000)); // Upper bounds of the size tag
+
+}
@@ -0,0 +1,62 @@
+package io.github.seehiong.metrics;
+
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
+import io.github.seehiong.store.ResultStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Singleton;
+
+/**
+ * Gauges of the solves in flight and of the caches, read from their stats on every scrape.
+ */
+@Singleton
+public class OptimizerMeterBinder implements MeterBinder {
+
+    private final SolveScheduler scheduler;
+    private final ProgressRegistry progressRegistry;
+    private final SolutionCache solutionCache;
+    private final ResultStore resultStore;
+
+    public OptimizerMeterBinder(SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache, ResultStore resultStore) {
+        this.scheduler = scheduler;
+        this.progressRegistry = progressRegistry;
+        this.solutionCache = solutionCache;
+        this.resultStore = resultStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("optimizer.solves.running", scheduler, SolveScheduler::getRunning)
+                .description("Solves running on a worker")
+                .register(registry);
+        Gauge.builder("optimizer.solves.queued", scheduler, SolveScheduler::getQueueSize)
+                .description("Solves waiting for a worker")
+                .register(registry);
+        Gauge.builder("optimizer.progress.channels", progressRegistry, ProgressRegistry::getActive)
+                .description("Progress channels of unfinished solves")
+                .register(registry);
+
+        Gauge.builder("optimizer.cache.entries", solutionCache, cache -> cache.getStats().getEntries())
+                .description("Solutions held for identical inputs")
+                .register(registry);
+        Gauge.builder("optimizer.cache.in.flight", solutionCache, cache -> cache.getStats().getInFlight())
+                .description("Solves identical requests can attach to")
+                .register(registry);
+        FunctionCounter.builder("optimizer.cache.hits", solutionCache, cache -> cache.getStats().getHits())
+                .description("Requests answered from a stored solution")
+                .register(registry);
+
+        Gauge.builder("optimizer.results.entries", resultStore, store -> store.getStats().getEntries())
+                .description("Results held on the heap")
+                .register(registry);
+        Gauge.builder("optimizer.results.weight", resultStore, store -> store.getStats().getWeight())
+                .description("Serialized bytes of the results held on the heap")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.seehiong.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.BPPInput;
+import io.github.seehiong.model.input.CVRPInput;
+import io.github.seehiong.model.input.FLPInput;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.input.TSPInput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Singleton;
+
+/**
+ * Meters of individual solves, tagged with the problem type and a bucket of the instance size (cities, customers or
+ * items) bounded by {@code optimizer.metrics.size-buckets}.
+ */
+@Singleton
+public class SolveMetrics {
+
+    private final MeterRegistry registry;
+    private final List<Integer> sizeBuckets;
+    private final Map<String, Long> firstRequestNanos = new ConcurrentHashMap<>(); // By problem type
+
+    public SolveMetrics(MeterRegistry registry, MetricsConfiguration configuration) {
+        this.registry = registry;
+        this.sizeBuckets = configuration.getSizeBuckets().stream().sorted().toList();
+    }
+
+    public Tags tags(ProblemType problemType, Input input) {
+        return Tags.of("problem", problemType.name(), "size", sizeBucket(sizeOf(input)));
+    }
+
+    public void recordQueued(Tags tags, long waitNanos) {
+        timer("optimizer.solve.queue", "Time from submission to dispatch on a worker", tags)
+                .record(Duration.ofNanos(waitNanos));
+    }
+
+    public void recordFirstSolution(Tags tags, long nanos) {
+        timer("optimizer.solve.first.solution", "Time from dispatch to the first solution", tags)
+                .record(Duration.ofNanos(nanos));
+        recordFirstRequest(tags, nanos);
+    }
+
+    public void recordImprovement(Tags tags) {
+        Counter.builder("optimizer.solve.improvements")
+                .description("Solutions published after the first")
+                .tags(tags)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * @param outcome solved, cancelled or failed
+     * @param allocatedBytes bytes allocated by the worker during the solve, negative when the JVM does not tell
+     */
+    public void recordFinished(Tags tags, String outcome, long nanos, long allocatedBytes) {
+        timer("optimizer.solve.duration", "Time from dispatch to the end of the solve", tags.and("outcome", outcome))
+                .record(Duration.ofNanos(nanos));
+        if (allocatedBytes >= 0) {
+            DistributionSummary.builder("optimizer.solve.allocated")
+                    .description("Heap allocated by the worker during a solve")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry)
+                    .record(allocatedBytes);
+        }
+        if (!"solved".equals(outcome)) {
+            Counter.builder("optimizer.solve." + ("cancelled".equals(outcome) ? "cancellations" : "errors"))
+                    .tags(tags)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    /**
+     * Time to the first solution of the first solve of each problem type since startup, in milliseconds. It includes
+     * loading the engine's classes and native libraries and running its code interpreted, unless a warm-up paid for
+     * those.
+     */
+    public Map<String, Long> getFirstRequestMillis() {
+        Map<String, Long> millis = new TreeMap<>();
+        firstRequestNanos.forEach((problem, nanos) -> millis.put(problem, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return millis;
+    }
+
+    public void recordCancelledQueued(Tags tags) {
+        Counter.builder("optimizer.solve.cancellations")
+                .tags(tags)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordRejected(ProblemType problemType) {
+        Counter.builder("optimizer.solve.rejections")
+                .description("Solves turned away by a full queue")
+                .tag("problem", problemType.name())
+                .register(registry)
+                .increment();
+    }
+
+    public void recordOversized(ProblemType problemType) {
+        Counter.builder("optimizer.solve.oversized")
+                .description("Solves turned away because their model would not fit the memory budget")
+                .tag("problem", problemType.name())
+                .register(registry)
+                .increment();
+    }
+
+    private void recordFirstRequest(Tags tags, long nanos) {
+        String problem = tags.stream().filter(tag -> "problem".equals(tag.getKey())).map(Tag::getValue).findFirst()
+                .orElse("unknown");
+        if (firstRequestNanos.putIfAbsent(problem, nanos) == null) {
+            TimeGauge.builder("optimizer.solve.first.request", firstRequestNanos, TimeUnit.NANOSECONDS,
+                    first -> first.get(problem))
+                    .description("Time to the first solution of the first solve of the problem type since startup")
+                    .tag("problem", problem)
+                    .register(registry);
+        }
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private String sizeBucket(int size) {
+        int lower = 1;
+        for (int bound : sizeBuckets) {
+            if (size <= bound) {
+                return lower + "-" + bound;
+            }
+            lower = bound + 1;
+        }
+        return lower + "+";
+    }
+
+    private static int sizeOf(Input input) {
+        if (input instanceof TSPInput tspInput) {
+            return length(tspInput.getDistances());
+        }
+        if (input instanceof CVRPInput cvrpInput) {
+            return cvrpInput.getDemands() != null ? cvrpInput.getDemands().length : length(cvrpInput.getDistances());
+        }
+        if (input instanceof FLPInput flpInput) {
+            return flpInput.getDemands() != null ? flpInput.getDemands().length : length(flpInput.getDistances());
+        }
+        if (input instanceof BPPInput bppInput) {
+            return bppInput.getWeights() != null ? bppInput.getWeights().length : 0;
+        }
+        return 0;
+    }
+
+    private static int length(double[][] matrix) {
+        return matrix == null ? 0 : matrix.length;
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.seehiong.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.github.seehiong.SolvePhase")
+@Label("Solve Phase")
+@Category("Optimizer")
+@Description("A phase of a solve, from parsing its input to serializing its outputs")
+@StackTrace(false)
+class SolvePhaseEvent extends Event {
+
+    @Label("Solver Id")
+    String solverId;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
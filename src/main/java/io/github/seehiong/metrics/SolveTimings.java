@@ -0,0 +1,186 @@
+package io.github.seehiong.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.metric.PhaseTiming;
+
+/**
+ * Time and heap spent in each phase of one solve, from parsing its input to serializing its outputs.
+ * <p>
+ * The timings are bound to the thread working on the solve, so code that knows nothing about the solve, such as the
+ * distance matrix builders, records its phase through the static {@link #phase(String)}, which does nothing on an
+ * unbound thread. Engines mark their sequential phases with {@link #begin(String)} and {@link #end()}. Phases may
+ * nest, parsing includes building the distance matrix for instance. The same timings may be bound to several threads
+ * at once, the solve worker and the threads storing its outputs, but only the worker marks sequential phases. Every
+ * phase is also committed as a {@code io.github.seehiong.SolvePhase} JFR event.
+ */
+public class SolveTimings {
+
+    private static final ThreadLocal<SolveTimings> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = createThreads();
+
+    private final Map<String, PhaseTiming> phases = new LinkedHashMap<>(); // In order of first entry
+    private volatile UUID solverId;
+    private Phase lap; // Phase opened by begin, closed by the next begin or end
+
+    /**
+     * Parses an input on the calling thread as its {@code parse} phase, starting its timings.
+     */
+    public static <I extends Input> I parse(Parser<I> parser) throws IOException {
+        SolveTimings timings = new SolveTimings();
+        I input;
+        try (Scope scope = timings.bind(); Phase phase = timings.start("parse")) {
+            input = parser.parse();
+            if (input != null) {
+                timings.solverId = input.getSolverId(); // Known before the phase is committed
+            }
+        }
+        if (input != null) {
+            input.setTimings(timings);
+        }
+        return input;
+    }
+
+    /**
+     * Starts a phase of the solve bound to the calling thread, to be closed when it is over.
+     */
+    public static Phase phase(String name) {
+        SolveTimings timings = CURRENT.get();
+        return timings == null ? Phase.NONE : timings.start(name);
+    }
+
+    /**
+     * Ends the phase started by the previous call, if any, and starts the next one.
+     */
+    public static void begin(String name) {
+        SolveTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.endLap();
+            timings.lap = timings.start(name);
+        }
+    }
+
+    public static void end() {
+        SolveTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.endLap();
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread, or -1 when the JVM does not track it.
+     */
+    public static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Binds these timings to the calling thread until the returned scope is closed.
+     */
+    public Scope bind() {
+        SolveTimings previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public void setSolverId(UUID solverId) {
+        this.solverId = solverId;
+    }
+
+    public synchronized List<PhaseTiming> snapshot() {
+        List<PhaseTiming> snapshot = new ArrayList<>(phases.size());
+        for (PhaseTiming timing : phases.values()) {
+            snapshot.add(new PhaseTiming(timing.getPhase(), timing.getCount(), timing.getTime(),
+                    timing.getAllocatedBytes()));
+        }
+        return snapshot;
+    }
+
+    private Phase start(String name) {
+        return new Phase(this, name);
+    }
+
+    private void endLap() {
+        if (lap != null) {
+            lap.close();
+            lap = null;
+        }
+    }
+
+    private synchronized void record(String name, long nanos, long allocated) {
+        PhaseTiming timing = phases.computeIfAbsent(name, phase -> new PhaseTiming(phase, 0, 0, 0));
+        timing.setCount(timing.getCount() + 1);
+        timing.setTime(timing.getTime() + nanos / 1e6);
+        timing.setAllocatedBytes(timing.getAllocatedBytes() + Math.max(0, allocated));
+    }
+
+    private static com.sun.management.ThreadMXBean createThreads() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() ? threads : null;
+    }
+
+    @FunctionalInterface
+    public interface Parser<I extends Input> {
+
+        I parse() throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public static final class Phase implements AutoCloseable {
+
+        static final Phase NONE = new Phase(null, null);
+
+        private final SolveTimings timings;
+        private final String name;
+        private final long startedAt;
+        private final long allocatedAtStart;
+        private final SolvePhaseEvent event;
+
+        private Phase(SolveTimings timings, String name) {
+            this.timings = timings;
+            this.name = name;
+            this.startedAt = System.nanoTime();
+            this.allocatedAtStart = timings == null ? 0 : allocatedBytes();
+            this.event = timings == null ? null : new SolvePhaseEvent();
+            if (event != null) {
+                event.begin();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (timings == null) {
+                return;
+            }
+            long allocated = allocatedAtStart < 0 ? -1 : allocatedBytes() - allocatedAtStart;
+            timings.record(name, System.nanoTime() - startedAt, allocated);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.solverId = String.valueOf(timings.solverId);
+                event.phase = name;
+                event.allocatedBytes = allocated;
+                event.commit();
+            }
+        }
+    }
+}
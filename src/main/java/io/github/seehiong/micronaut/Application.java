@@ -1,15 +1,10 @@
 package io.github.seehiong.micronaut;
 
-import com.google.ortools.Loader;
-
 import io.micronaut.runtime.Micronaut;
 
 public class Application {
 
-    static {
-        // Load the OR-Tools native library
-        Loader.loadNativeLibraries();
-    }
+    // The OR-Tools native library is loaded by the first solve that needs it, see NativeLibraries
 
     public static void main(String[] args) {
         Micronaut.run(Application.class, args);
@@ -0,0 +1,22 @@
+package io.github.seehiong.model;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanceInfo {
+
+    private String instanceId;
+    private ProblemType problemType;
+    private long weight; // Estimated heap bytes held by the instance
+    private boolean spilled; // Evicted to disk, reloaded on next use
+
+}
@@ -0,0 +1,26 @@
+package io.github.seehiong.model;
+
+import java.util.UUID;
+
+import io.github.seehiong.model.output.Output;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobInfo {
+
+    private UUID solverId;
+    private ProblemType problemType;
+    private JobStatus status;
+    private long lastEventId; // Id of the latest event, resume the event stream after it
+    private String error; // Failure reason when FAILED
+
+}
@@ -0,0 +1,9 @@
+package io.github.seehiong.model;
+
+public enum JobStatus {
+    QUEUED, // Waiting for a worker
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
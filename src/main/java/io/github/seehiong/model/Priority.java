@@ -0,0 +1,7 @@
+package io.github.seehiong.model;
+
+public enum Priority {
+    HIGH, // Interactive solves, dispatched first
+    NORMAL,
+    LOW // Background and batch solves
+}
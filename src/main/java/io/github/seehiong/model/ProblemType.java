@@ -1,12 +1,22 @@
 package io.github.seehiong.model;
 
 public enum ProblemType {
-    TSP, // Travelling Salesman Problem
-    TSP_GA, // Travelling Salesman Problem with Genetic Algorithm
-    FLP, // Facility Location Problem
-    CVRP, // Capacitated Vehicle Routing Problem
-    CVRP_MIP, // Capacitated Vehicle Routing Problem with Mixed Integer Programming
-    BPP; // Bin Packing Problem
+    TSP(true), // Travelling Salesman Problem
+    TSP_GA(true), // Travelling Salesman Problem with Genetic Algorithm
+    FLP(true), // Facility Location Problem
+    CVRP(false), // Capacitated Vehicle Routing Problem, the routing search runs on one thread
+    CVRP_MIP(true), // Capacitated Vehicle Routing Problem with Mixed Integer Programming
+    BPP(true); // Bin Packing Problem
+
+    private final boolean multiThreaded; // Whether its engine can use more than one thread
+
+    ProblemType(boolean multiThreaded) {
+        this.multiThreaded = multiThreaded;
+    }
+
+    public boolean isMultiThreaded() {
+        return multiThreaded;
+    }
 
     public static ProblemType fromString(String problemType) {
         try {
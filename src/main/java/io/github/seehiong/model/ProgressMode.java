@@ -0,0 +1,6 @@
+package io.github.seehiong.model;
+
+public enum ProgressMode {
+    FULL, // Every event carries the whole solution
+    DELTA // Static metadata once, then only what changed since the previous event
+}
@@ -0,0 +1,24 @@
+package io.github.seehiong.model;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultStoreStats {
+
+    private int entries; // Results held on the heap
+    private long weight; // Serialized bytes held on the heap
+    private int spilled; // Results held on disk
+    private long hits;
+    private long misses;
+    private long evictions; // Removed for weight, spilled or dropped
+    private long expirations; // Removed for age
+
+}
@@ -0,0 +1,26 @@
+package io.github.seehiong.model;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerStats {
+
+    private int workers;
+    private int running;
+    private int threads; // Granted to the running solves, at most one per worker
+    private int queued;
+    private long reservedHeapBytes; // Estimated for the running solves' models
+    private long reservedNativeBytes;
+    private long cancelledQueued; // Solves dropped before they started
+    private long cancelledRunning; // Solves stopped mid-search
+    private double reclaimedCpuSeconds; // Unused solve time budget of the cancelled solves
+
+}
@@ -0,0 +1,23 @@
+package io.github.seehiong.model;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolutionCacheStats {
+
+    private int entries; // Solutions held
+    private int inFlight; // Solves identical requests can attach to
+    private long hits; // Answered from a stored solution
+    private long attached; // Attached to an identical solve in flight
+    private long misses;
+    private long expirations;
+
+}
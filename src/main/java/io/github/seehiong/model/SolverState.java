@@ -1,6 +1,8 @@
 package io.github.seehiong.model;
 
 public enum SolverState {
+    QUEUED,
     SOLVING,
-    SOLVED
+    SOLVED,
+    CANCELLED
 }
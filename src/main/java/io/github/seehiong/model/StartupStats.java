@@ -0,0 +1,25 @@
+package io.github.seehiong.model;
+
+import java.util.List;
+import java.util.Map;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartupStats {
+
+    private long serverStartedMillis; // From JVM start until the server listened
+    private Long readyMillis; // From JVM start until ready, after any warm-up; null while warming up
+    private boolean nativeLoaded; // Whether an engine has loaded the OR-Tools native library yet
+    private Map<ProblemType, List<Long>> warmupMillis; // Time to first solution of each warm-up round, by engine
+    private Map<String, Long> firstRequestMillis; // Time to first solution of the first solve of each engine
+
+}
@@ -1,6 +1,7 @@
 package io.github.seehiong.model.constraint;
 
 import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.serde.CoordinateArrayDeserializer;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -15,5 +16,6 @@ import io.micronaut.serde.annotation.Serdeable;
 @NoArgsConstructor
 public class CustomerCoordinateConstraint implements Constraint {
 
+    @Serdeable.Deserializable(using = CoordinateArrayDeserializer.class)
     private Coordinate[] coordinates; // coordinates of each customer
 }
@@ -1,5 +1,6 @@
 package io.github.seehiong.model.constraint;
 
+import io.github.seehiong.serde.IntArrayDeserializer;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.serde.annotation.Serdeable;
 import lombok.AllArgsConstructor;
@@ -14,5 +15,6 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class CustomerDemandConstraint implements Constraint {
 
+    @Serdeable.Deserializable(using = IntArrayDeserializer.class)
     private int[] demands; // demand of each customer
 }
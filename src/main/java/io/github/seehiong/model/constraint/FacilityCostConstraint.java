@@ -1,5 +1,6 @@
 package io.github.seehiong.model.constraint;
 
+import io.github.seehiong.serde.DoubleArrayDeserializer;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -14,5 +15,6 @@ import io.micronaut.serde.annotation.Serdeable;
 @NoArgsConstructor
 public class FacilityCostConstraint implements Constraint {
 
+    @Serdeable.Deserializable(using = DoubleArrayDeserializer.class)
     private double[] costs; // cost of each facility
 }
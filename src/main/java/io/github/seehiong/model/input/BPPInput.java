@@ -2,6 +2,7 @@ package io.github.seehiong.model.input;
 
 import io.github.seehiong.model.constraint.BinCapacityConstraint;
 import io.github.seehiong.model.constraint.ItemWeightConstraint;
+import io.github.seehiong.model.metric.BinMetric;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.serde.annotation.Serdeable;
 import lombok.Data;
@@ -18,6 +19,7 @@ public class BPPInput extends Input {
 
     private ItemWeightConstraint itemWeightConstraint; // Weight of each item
     private BinCapacityConstraint binCapacityConstraint; // Capacity of each bin
+    private BinMetric initialSolution; // Packing to start from, e.g. the binMetric of an earlier solve
 
     public BPPInput(ItemWeightConstraint itemWeightConstraint, BinCapacityConstraint binCapacityConstraint) {
         super();
@@ -38,4 +40,16 @@ public class BPPInput extends Input {
         }
         return binCapacityConstraint.getCapacity();
     }
+
+    @Override
+    public void applyInstance(Input instance) {
+        super.applyInstance(instance);
+        BPPInput bppInstance = (BPPInput) instance;
+        if (itemWeightConstraint == null) {
+            itemWeightConstraint = bppInstance.itemWeightConstraint;
+        }
+        if (binCapacityConstraint == null) {
+            binCapacityConstraint = bppInstance.binCapacityConstraint;
+        }
+    }
 }
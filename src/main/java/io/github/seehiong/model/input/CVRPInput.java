@@ -6,6 +6,7 @@ import io.github.seehiong.model.constraint.CustomerDemandConstraint;
 import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
 import io.github.seehiong.model.constraint.SolveTimeConstraint;
 import io.github.seehiong.model.constraint.VehicleConstraint;
+import io.github.seehiong.model.metric.VehicleRouteMetric;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.serde.annotation.Serdeable;
 import lombok.Data;
@@ -18,12 +19,13 @@ import lombok.experimental.SuperBuilder;
 @Data
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
-public class CVRPInput extends Input {
+public class CVRPInput extends Input implements DistanceMatrixInput {
 
     private VehicleConstraint vehicleConstraint; // Number of vehicles and their capacities
     private CustomerDemandConstraint customerDemandConstraint; // Demand of each customer
     private CustomerCoordinateConstraint customerCoordinateConstraint; // Coordinates of customers
     private DistanceMatrixConstraint distanceMatrixConstraint; // Distance matrix between customers and depot
+    private VehicleRouteMetric initialSolution; // Routes to start from, e.g. the vehicleRouteMetric of an earlier solve
 
     public CVRPInput(SolveTimeConstraint solveTimeConstraint, VehicleConstraint vehicleConstraint,
             CustomerDemandConstraint customerDemandConstraint, CustomerCoordinateConstraint customerCoordinateConstraint,
@@ -70,4 +72,22 @@ public class CVRPInput extends Input {
         }
         return distanceMatrixConstraint.getDistances();
     }
+
+    @Override
+    public void applyInstance(Input instance) {
+        super.applyInstance(instance);
+        CVRPInput cvrpInstance = (CVRPInput) instance;
+        if (vehicleConstraint == null) {
+            vehicleConstraint = cvrpInstance.vehicleConstraint;
+        }
+        if (customerDemandConstraint == null) {
+            customerDemandConstraint = cvrpInstance.customerDemandConstraint;
+        }
+        if (customerCoordinateConstraint == null) {
+            customerCoordinateConstraint = cvrpInstance.customerCoordinateConstraint;
+        }
+        if (distanceMatrixConstraint == null) {
+            distanceMatrixConstraint = cvrpInstance.distanceMatrixConstraint;
+        }
+    }
 }
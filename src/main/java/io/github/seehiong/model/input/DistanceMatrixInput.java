@@ -0,0 +1,13 @@
+package io.github.seehiong.model.input;
+
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+
+/**
+ * Input whose dominant payload is a distance matrix.
+ */
+public interface DistanceMatrixInput {
+
+    DistanceMatrixConstraint getDistanceMatrixConstraint();
+
+    void setDistanceMatrixConstraint(DistanceMatrixConstraint distanceMatrixConstraint);
+}
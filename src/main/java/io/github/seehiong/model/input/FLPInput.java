@@ -7,6 +7,7 @@ import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
 import io.github.seehiong.model.constraint.FacilityCapacityConstraint;
 import io.github.seehiong.model.constraint.FacilityCoordinateConstraint;
 import io.github.seehiong.model.constraint.FacilityCostConstraint;
+import io.github.seehiong.model.metric.AssignmentMetric;
 import io.github.seehiong.model.objective.MinMaxObjective;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.serde.annotation.Serdeable;
@@ -20,7 +21,7 @@ import lombok.experimental.SuperBuilder;
 @Data
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
-public class FLPInput extends Input {
+public class FLPInput extends Input implements DistanceMatrixInput {
 
     private FacilityCostConstraint facilityCostConstraint; // Setup cost of each facility
     private FacilityCapacityConstraint facilityCapacityConstraint; // Capacity of each facility
@@ -28,6 +29,7 @@ public class FLPInput extends Input {
     private CustomerDemandConstraint customerDemandConstraint; // Demand of each customer
     private CustomerCoordinateConstraint customerCoordinateConstraint; // Coordinates of customers
     private DistanceMatrixConstraint distanceMatrixConstraint; // Distance matrix between facilities and customers
+    private AssignmentMetric initialSolution; // Assignment to start from, e.g. the assignmentMetric of an earlier solve
 
     public FLPInput(MinMaxObjective minMaxObjective, FacilityCostConstraint facilityCostConstraint,
             FacilityCapacityConstraint facilityCapacityConstraint, FacilityCoordinateConstraint facilityCoordinateConstraint,
@@ -84,4 +86,28 @@ public class FLPInput extends Input {
         }
         return distanceMatrixConstraint.getDistances();
     }
+
+    @Override
+    public void applyInstance(Input instance) {
+        super.applyInstance(instance);
+        FLPInput flpInstance = (FLPInput) instance;
+        if (facilityCostConstraint == null) {
+            facilityCostConstraint = flpInstance.facilityCostConstraint;
+        }
+        if (facilityCapacityConstraint == null) {
+            facilityCapacityConstraint = flpInstance.facilityCapacityConstraint;
+        }
+        if (facilityCoordinateConstraint == null) {
+            facilityCoordinateConstraint = flpInstance.facilityCoordinateConstraint;
+        }
+        if (customerDemandConstraint == null) {
+            customerDemandConstraint = flpInstance.customerDemandConstraint;
+        }
+        if (customerCoordinateConstraint == null) {
+            customerCoordinateConstraint = flpInstance.customerCoordinateConstraint;
+        }
+        if (distanceMatrixConstraint == null) {
+            distanceMatrixConstraint = flpInstance.distanceMatrixConstraint;
+        }
+    }
 }
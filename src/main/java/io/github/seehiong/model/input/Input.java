@@ -2,6 +2,11 @@ package io.github.seehiong.model.input;
 
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.Priority;
+import io.github.seehiong.model.ProgressMode;
 import io.github.seehiong.model.constraint.SolveTimeConstraint;
 import io.github.seehiong.model.objective.MinMaxEnum;
 import io.github.seehiong.model.objective.MinMaxObjective;
@@ -25,6 +30,45 @@ public abstract class Input {
 
     protected MinMaxObjective minMaxObjective;
     protected SolveTimeConstraint solveTimeConstraint;
+    protected String instanceId; // registered instance supplying the constraints left empty
+    protected Priority priority; // scheduling class, NORMAL when absent
+    protected ProgressMode progressMode; // shape of progress events, FULL when absent
+    protected Integer threads; // threads asked for, 1 when absent; the scheduler may grant fewer
+
+    @JsonIgnore
+    private transient SolveTimings timings; // phases recorded so far, from parsing on
+
+    /**
+     * Fills every constraint left empty with the one of a registered instance. The instance is shared read-only
+     * across solves, so its arrays are referenced rather than copied.
+     *
+     * @param instance registered input of the same type
+     */
+    public void applyInstance(Input instance) {
+        if (minMaxObjective == null) {
+            minMaxObjective = instance.minMaxObjective;
+        }
+        if (solveTimeConstraint == null) {
+            solveTimeConstraint = instance.solveTimeConstraint;
+        }
+    }
+
+    @JsonIgnore
+    public SolveTimings getTimings() {
+        if (timings == null) {
+            timings = new SolveTimings();
+        }
+        timings.setSolverId(solverId);
+        return timings;
+    }
+
+    /**
+     * Threads asked for, at least one. The solver is handed those granted by the scheduler instead.
+     */
+    @JsonIgnore
+    public int getThreadCount() {
+        return threads == null ? 1 : Math.max(1, threads);
+    }
 
     public MinMaxEnum getMinMaxEnum() {
         if (minMaxObjective == null) {
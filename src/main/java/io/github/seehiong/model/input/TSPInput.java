@@ -3,6 +3,7 @@ package io.github.seehiong.model.input;
 import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
 import io.github.seehiong.model.constraint.SolveTimeConstraint;
 import io.github.seehiong.model.objective.MinMaxObjective;
+import io.github.seehiong.model.metric.TourMetric;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.serde.annotation.Serdeable;
 import lombok.Data;
@@ -15,9 +16,10 @@ import lombok.experimental.SuperBuilder;
 @Data
 @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
-public class TSPInput extends Input {
+public class TSPInput extends Input implements DistanceMatrixInput {
 
     private DistanceMatrixConstraint distanceMatrixConstraint;  // Distance matrix between locations
+    private TourMetric initialSolution; // Tour to start from, e.g. the tourMetric of an earlier solve
 
     public TSPInput(DistanceMatrixConstraint distanceMatrixConstraint, MinMaxObjective minMaxObjective,
             SolveTimeConstraint solveTimeConstraint) {
@@ -34,4 +36,12 @@ public class TSPInput extends Input {
         return distanceMatrixConstraint.getDistances();
     }
 
+    @Override
+    public void applyInstance(Input instance) {
+        super.applyInstance(instance);
+        TSPInput tspInstance = (TSPInput) instance;
+        if (distanceMatrixConstraint == null) {
+            distanceMatrixConstraint = tspInstance.distanceMatrixConstraint;
+        }
+    }
 }
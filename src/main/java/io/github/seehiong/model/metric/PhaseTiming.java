@@ -0,0 +1,22 @@
+package io.github.seehiong.model.metric;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhaseTiming {
+
+    private String phase; // parse, distance-matrix, mds, model, search or serialize
+    private int count; // times the phase was entered
+    private double time; // in milliseconds, summed over its entries
+    private long allocatedBytes; // allocated by the thread running the phase
+
+}
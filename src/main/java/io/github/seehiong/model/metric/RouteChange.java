@@ -0,0 +1,22 @@
+package io.github.seehiong.model.metric;
+
+import java.util.List;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteChange implements Metric {
+
+    private int vehicle; // Index of the vehicle whose route changed
+    private List<Integer> route; // Its complete new route, null when removed
+    private boolean removed; // The vehicle no longer has a route in this solution
+}
@@ -0,0 +1,19 @@
+package io.github.seehiong.model.metric;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourSegment implements Metric {
+
+    private int start; // Position in the tour of the first replaced city
+    private int[] cities; // Cities now at positions start, start + 1, ...
+}
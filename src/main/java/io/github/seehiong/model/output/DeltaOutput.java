@@ -0,0 +1,36 @@
+package io.github.seehiong.model.output;
+
+import java.util.List;
+
+import io.github.seehiong.model.metadata.CitiesMetadata;
+import io.github.seehiong.model.metadata.CustomerCoordinateMetadata;
+import io.github.seehiong.model.metric.CostMetric;
+import io.github.seehiong.model.metric.RouteChange;
+import io.github.seehiong.model.metric.TourSegment;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Progress event of a solve streamed in {@code DELTA} mode, holding only what changed since the event with the
+ * previous sequence. Metadata is only present the first time it is known.
+ */
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class DeltaOutput extends Output {
+
+    private CostMetric costMetric; // Cost of the whole solution
+    private List<TourSegment> tourSegments; // TSP: replaced parts of the tour
+    private List<RouteChange> routeChanges; // CVRP: routes of the vehicles that changed
+    private CitiesMetadata citiesMetadata; // TSP: coordinates of cities, sent once
+    private CustomerCoordinateMetadata customerCoordinateMetadata; // CVRP: coordinates of customers, sent once
+
+}
@@ -1,8 +1,10 @@
 package io.github.seehiong.model.output;
 
+import java.util.List;
 import java.util.UUID;
 
 import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.metric.PhaseTiming;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.serde.annotation.Serdeable;
 import lombok.AllArgsConstructor;
@@ -24,4 +26,6 @@ public abstract class Output {
     protected String message; // generic message
     protected int iteration; // number of iterations
     protected long elapsedTime; // in milliseconds
+    protected long sequence; // position in the solve's progress stream, a jump means events were skipped
+    protected List<PhaseTiming> timings; // time and heap per phase of the solve, on its final output only
 }
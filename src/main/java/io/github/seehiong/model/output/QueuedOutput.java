@@ -0,0 +1,22 @@
+package io.github.seehiong.model.output;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Introspected
+@Serdeable.Serializable
+@Serdeable.Deserializable
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class QueuedOutput extends Output {
+
+    private int queuePosition; // 1-based position in the admission queue, 0 once dispatched
+    private long waitTime; // time spent queued so far, in milliseconds
+
+}
@@ -0,0 +1,119 @@
+package io.github.seehiong.progress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.seehiong.model.metric.RouteChange;
+import io.github.seehiong.model.metric.TourSegment;
+import io.github.seehiong.model.output.CVRPOutput;
+import io.github.seehiong.model.output.DeltaOutput;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.TSPOutput;
+
+/**
+ * Turns the full outputs of one solve into {@link DeltaOutput}s against the previously published one. Outputs
+ * without a tour or routes pass through unchanged. A vehicle whose route disappears, because the solution no longer
+ * uses it or has fewer vehicles, is sent as an explicit removal.
+ */
+class DeltaEncoder {
+
+    private int[] tour;
+    private List<Integer>[] routes;
+    private boolean metadataSent;
+
+    Output encode(Output output) {
+        if (output instanceof TSPOutput tspOutput) {
+            return encodeTour(tspOutput);
+        }
+        if (output instanceof CVRPOutput cvrpOutput) {
+            return encodeRoutes(cvrpOutput);
+        }
+        return output;
+    }
+
+    private DeltaOutput encodeTour(TSPOutput output) {
+        DeltaOutput delta = createDelta(output);
+        delta.setCostMetric(output.getCostMetric());
+        if (!metadataSent && output.getCitiesMetadata() != null) {
+            delta.setCitiesMetadata(output.getCitiesMetadata());
+            metadataSent = true;
+        }
+
+        int[] next = output.getTours();
+        if (next != null) {
+            delta.setTourSegments(diff(tour, next));
+            tour = next.clone();
+        }
+        return delta;
+    }
+
+    private DeltaOutput encodeRoutes(CVRPOutput output) {
+        DeltaOutput delta = createDelta(output);
+        delta.setCostMetric(output.getCostMetric());
+        if (!metadataSent && output.getCustomerCoordinateMetadata() != null) {
+            delta.setCustomerCoordinateMetadata(output.getCustomerCoordinateMetadata());
+            metadataSent = true;
+        }
+
+        ArrayList<Integer>[] next = output.getRoutes();
+        if (next != null) {
+            List<RouteChange> changes = new ArrayList<>();
+            int vehicles = Math.max(next.length, routes == null ? 0 : routes.length);
+            for (int vehicle = 0; vehicle < vehicles; vehicle++) {
+                List<Integer> previous = routes != null && vehicle < routes.length ? routes[vehicle] : null;
+                List<Integer> current = vehicle < next.length ? next[vehicle] : null;
+                if (current == null) {
+                    if (previous != null) {
+                        changes.add(new RouteChange(vehicle, null, true));
+                    }
+                } else if (!current.equals(previous)) {
+                    changes.add(new RouteChange(vehicle, new ArrayList<>(current), false));
+                }
+            }
+            delta.setRouteChanges(changes);
+
+            routes = new List[next.length];
+            for (int vehicle = 0; vehicle < next.length; vehicle++) {
+                routes[vehicle] = next[vehicle] == null ? null : new ArrayList<>(next[vehicle]);
+            }
+        }
+        return delta;
+    }
+
+    // Runs of positions whose city changed, or the whole tour when its length did
+    private static List<TourSegment> diff(int[] previous, int[] next) {
+        List<TourSegment> segments = new ArrayList<>();
+        if (previous == null || previous.length != next.length) {
+            segments.add(new TourSegment(0, next.clone()));
+            return segments;
+        }
+
+        int i = 0;
+        while (i < next.length) {
+            if (previous[i] == next[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < next.length && previous[i] != next[i]) {
+                i++;
+            }
+            int[] cities = new int[i - start];
+            System.arraycopy(next, start, cities, 0, cities.length);
+            segments.add(new TourSegment(start, cities));
+        }
+        return segments;
+    }
+
+    private static DeltaOutput createDelta(Output output) {
+        return DeltaOutput.builder()
+                .solverId(output.getSolverId())
+                .solverState(output.getSolverState())
+                .message(output.getMessage())
+                .iteration(output.getIteration())
+                .elapsedTime(output.getElapsedTime())
+                .sequence(output.getSequence())
+                .timings(output.getTimings())
+                .build();
+    }
+}
@@ -0,0 +1,262 @@
+package io.github.seehiong.progress;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.ProgressMode;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.output.Output;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Events of a single solve, shared by everyone watching it.
+ * <p>
+ * Intermediate events arriving faster than the throttle are conflated, so only the newest one is published once the
+ * throttle has passed. New subscribers first receive the last published event, and each subscriber keeps only the
+ * newest few events it has not consumed yet, so memory stays flat however fast the solver improves.
+ * <p>
+ * Published outputs are numbered. In {@link ProgressMode#DELTA} mode subscribers receive them as differences from
+ * the previous one; a subscriber seeing a gap in the sequence resynchronises from the full output kept in the
+ * result store.
+ * <p>
+ * The solver thread only hands its events over: throttling, storing and fanning them out to subscribers happen on the
+ * orchestration scheduler, so a slow store or many subscribers never hold up the search. Events waiting for the
+ * scheduler are bounded in the same way as a subscriber's, so a busy scheduler does not make them pile up either. A
+ * solve the scheduler turns away fails the channel right away, so callers can answer the request with the rejection.
+ * <p>
+ * Storing outputs blocks on virtual threads, so the channel's state is guarded by a lock rather than its monitor,
+ * which would pin the carrier thread.
+ */
+public class ProgressChannel {
+
+    private final String solverId;
+    private final ProgressMode mode;
+    private final long throttleNanos;
+    private final int bufferSize;
+    private final Scheduler orchestration;
+    private final Consumer<Output> onOutput;
+    private final Consumer<ProgressChannel> onClose;
+    private final DeltaEncoder deltaEncoder; // Only in DELTA mode
+
+    private final Sinks.Many<Object> sink = Sinks.many().replay().latest();
+    private final Sinks.One<Output> result = Sinks.one();
+    private final ReentrantLock lock = new ReentrantLock();
+    private Output lastOutput;
+    private long publishedAt;
+    private long sequence;
+    private Object pending; // Newest intermediate event held back by the throttle
+    private Disposable flush;
+    private boolean closed;
+    private SolveTimings timings; // Of the solve driving the channel, recording the phases of its outputs
+    private Disposable driver; // Subscription to the solve, once driven
+    private int watchers; // Subscribers of watch(), the solve is cancelled when the last of them cancels
+
+    ProgressChannel(String solverId, ProgressMode mode, ProgressConfiguration configuration, Scheduler orchestration,
+            Consumer<Output> onOutput, Consumer<ProgressChannel> onClose) {
+        this.solverId = solverId;
+        this.mode = mode;
+        this.throttleNanos = configuration.getThrottle().toNanos();
+        this.bufferSize = configuration.getBufferSize();
+        this.orchestration = orchestration;
+        this.onOutput = onOutput;
+        this.onClose = onClose;
+        this.deltaEncoder = mode == ProgressMode.DELTA ? new DeltaEncoder() : null;
+        this.publishedAt = System.nanoTime() - throttleNanos;
+    }
+
+    public String getSolverId() {
+        return solverId;
+    }
+
+    public ProgressMode getMode() {
+        return mode;
+    }
+
+    /**
+     * The last output published, given once the channel closes, empty when the solve failed or published none.
+     */
+    public Mono<Output> result() {
+        return result.asMono();
+    }
+
+    /**
+     * Runs {@code solve} once subscribed, publishing its events to this channel and returning the channel's view of
+     * them, as {@link #watch()} does.
+     *
+     * @param timings of the solve, to which storing its outputs is added
+     */
+    public Flux<Object> drive(Flux<Object> solve, SolveTimings timings) {
+        return Flux.defer(() -> {
+            this.timings = timings;
+            // Rejection is signalled while subscribing, fail on the caller's thread rather than after the hop
+            Disposable subscription = solve
+                    .onErrorResume(RejectedExecutionException.class, rejected -> {
+                        fail(rejected);
+                        return Flux.empty();
+                    })
+                    // Events the orchestration scheduler has not taken yet are bounded, the oldest dropped first
+                    .onBackpressureBuffer(bufferSize, dropped -> {
+                    }, BufferOverflowStrategy.DROP_OLDEST)
+                    .publishOn(orchestration, bufferSize)
+                    .subscribe(this::publish, this::fail, this::complete);
+            lock.lock();
+            try {
+                driver = subscription;
+            } finally {
+                lock.unlock();
+            }
+            return watch();
+        });
+    }
+
+    /**
+     * The channel's events for a request that owns the solve, the one driving it or an identical one attached to it.
+     * The solve is cancelled once every such request has cancelled, whereas plain {@link #asFlux()} subscribers only
+     * observe it.
+     */
+    public Flux<Object> watch() {
+        return Flux.defer(() -> {
+            lock.lock();
+            try {
+                watchers++;
+            } finally {
+                lock.unlock();
+            }
+            return asFlux().doOnCancel(this::unwatch);
+        });
+    }
+
+    public Flux<Object> asFlux() {
+        return sink.asFlux().onBackpressureBuffer(bufferSize, dropped -> {
+        }, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public void publish(Object event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (isIntermediate(event)) {
+                long wait = publishedAt + throttleNanos - System.nanoTime();
+                if (wait > 0) {
+                    pending = event;
+                    if (flush == null) {
+                        // The orchestration executor cannot delay tasks, so the timer only hands the flush over
+                        flush = Schedulers.parallel().schedule(() -> orchestration.schedule(this::flush), wait,
+                                TimeUnit.NANOSECONDS);
+                    }
+                    return;
+                }
+            }
+            // Anything newer supersedes the held back event
+            discardPending();
+            emit(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void complete() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (pending != null) {
+                emit(pending);
+            }
+            discardPending();
+            closed = true;
+            sink.tryEmitComplete();
+            if (lastOutput != null) {
+                result.tryEmitValue(lastOutput);
+            } else {
+                result.tryEmitEmpty();
+            }
+            onClose.accept(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void fail(Throwable error) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            discardPending();
+            closed = true;
+            sink.tryEmitError(error);
+            result.tryEmitEmpty();
+            onClose.accept(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unwatch() {
+        lock.lock();
+        try {
+            if (--watchers > 0 || driver == null) {
+                return;
+            }
+            driver.dispose();
+            complete();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush() {
+        lock.lock();
+        try {
+            flush = null;
+            if (pending != null && !closed) {
+                Object event = pending;
+                pending = null;
+                emit(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void discardPending() {
+        pending = null;
+        if (flush != null) {
+            flush.dispose();
+            flush = null;
+        }
+    }
+
+    private void emit(Object event) {
+        publishedAt = System.nanoTime();
+        if (event instanceof Output output) {
+            output.setSequence(++sequence);
+            lastOutput = output;
+            try (SolveTimings.Scope scope = timings == null ? null : timings.bind()) {
+                onOutput.accept(output);
+            }
+            sink.tryEmitNext(deltaEncoder == null ? output : deltaEncoder.encode(output));
+        } else {
+            sink.tryEmitNext(event);
+        }
+    }
+
+    private static boolean isIntermediate(Object event) {
+        return event instanceof Output output
+                && (output.getSolverState() == SolverState.SOLVING || output.getSolverState() == SolverState.QUEUED);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.seehiong.progress;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.progress")
+public class ProgressConfiguration {
+
+    private Duration throttle = Duration.ofMillis(100); // Minimum gap between intermediate events, zero to publish all
+    private int bufferSize = 4; // Newest events kept for a slow subscriber, older ones are dropped
+
+}
@@ -0,0 +1,58 @@
+package io.github.seehiong.progress;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.seehiong.model.ProgressMode;
+import io.github.seehiong.scheduler.DuplicateSolveException;
+import io.github.seehiong.scheduler.OrchestrationFactory;
+import io.github.seehiong.store.ResultStore;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Progress channels of the solves in flight. A channel is registered when its solve is submitted and removed as soon
+ * as the solve finishes, after which its last output is only available from the {@link ResultStore}.
+ */
+@Singleton
+public class ProgressRegistry {
+
+    private final ProgressConfiguration configuration;
+    private final ResultStore resultStore;
+    private final Scheduler orchestration;
+    private final Map<String, ProgressChannel> channels = new ConcurrentHashMap<>();
+
+    public ProgressRegistry(ProgressConfiguration configuration, ResultStore resultStore,
+            @Named(OrchestrationFactory.ORCHESTRATION) Scheduler orchestration) {
+        this.configuration = configuration;
+        this.resultStore = resultStore;
+        this.orchestration = orchestration;
+    }
+
+    /**
+     * @throws DuplicateSolveException when a solve with the same id is still in flight
+     */
+    public ProgressChannel open(String solverId, ProgressMode mode) {
+        ProgressChannel channel = new ProgressChannel(solverId, mode, configuration, orchestration,
+                output -> resultStore.put(solverId, output), this::close);
+        if (channels.putIfAbsent(solverId, channel) != null) {
+            throw new DuplicateSolveException("Solve already in flight: " + solverId);
+        }
+        return channel;
+    }
+
+    public Optional<ProgressChannel> find(String solverId) {
+        return Optional.ofNullable(channels.get(solverId));
+    }
+
+    public int getActive() {
+        return channels.size();
+    }
+
+    private void close(ProgressChannel channel) {
+        channels.remove(channel.getSolverId(), channel);
+        resultStore.complete(channel.getSolverId());
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.seehiong.scheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown for a solve whose solver id is already taken by one in flight, whose progress and cancellation it would
+ * otherwise hijack.
+ */
+public class DuplicateSolveException extends RejectedExecutionException {
+
+    public DuplicateSolveException(String message) {
+        super(message);
+    }
+}
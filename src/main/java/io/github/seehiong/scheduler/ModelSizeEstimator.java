@@ -0,0 +1,106 @@
+package io.github.seehiong.scheduler;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.BPPInput;
+import io.github.seehiong.model.input.CVRPInput;
+import io.github.seehiong.model.input.FLPInput;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.input.TSPInput;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Heap and native memory a solve's model will take, predicted from the input dimensions before the model is built.
+ * <p>
+ * The MIP engines create one variable per arc, assignment or item and bin pair, n²·k for CVRP_MIP and n² for BPP,
+ * which OR-Tools keeps natively alongside the copy its backend solves. Choco's table constraints hold a support
+ * bitset per value, n³ bits for TSP, once per portfolio thread. The per element costs below are rough and err on the
+ * high side; the input itself is already on the heap and is not counted.
+ */
+@UtilityClass
+public class ModelSizeEstimator {
+
+    private static final long MB = 1024 * 1024;
+
+    // OR-Tools linear solver, names included
+    private static final long MP_VARIABLE_NATIVE = 160; // MPVariable and its column in the backend's copy
+    private static final long MP_CONSTRAINT_NATIVE = 160;
+    private static final long MP_NONZERO_NATIVE = 64; // Coefficient map entry and its row and column copies
+    private static final long MP_ELEMENT_HEAP = 48; // Java proxy of a variable or constraint
+    private static final long MP_SEARCH_FACTOR = 2; // Presolved copy, cuts and search tree of the backend
+
+    // OR-Tools routing
+    private static final long ROUTING_NODE_NATIVE = 4096; // Next, vehicle and cumul variables with their domains
+    private static final long ROUTING_ARC_NATIVE = 16; // Arc cost cache and neighbourhoods
+
+    // Choco
+    private static final long CHOCO_MODEL_HEAP = 2 * MB; // Solver, trail and search of an empty model
+    private static final long CHOCO_TUPLE_HEAP = 64;
+
+    // Genetic algorithm
+    private static final long GA_MEMO_HEAP = 16 * MB; // Fitness memo as filled in practice
+    private static final long GA_INDIVIDUALS = 200; // Old and new population
+
+    /**
+     * @param threads threads granted to the solve, the TSP portfolio builds a model per thread
+     */
+    public ModelSize estimate(ProblemType problemType, Input input, int threads) {
+        return switch (problemType) {
+            case TSP -> chocoTour(length(((TSPInput) input).getDistances()), threads);
+            case TSP_GA -> geneticTour(length(((TSPInput) input).getDistances()));
+            case CVRP -> routing((CVRPInput) input);
+            case CVRP_MIP -> cvrpMip((CVRPInput) input);
+            case FLP -> flp((FLPInput) input);
+            case BPP -> bpp((BPPInput) input);
+        };
+    }
+
+    private ModelSize chocoTour(long n, int threads) {
+        long words = (n + 63) / 64;
+        // n tables of n tuples, each with a bitset over its tuples for every value of its two variables
+        long perModel = CHOCO_MODEL_HEAP + n * n * CHOCO_TUPLE_HEAP + 2 * n * n * (words * Long.BYTES + 16);
+        return new ModelSize(Math.max(1, threads) * perModel, 0);
+    }
+
+    private ModelSize geneticTour(long n) {
+        return new ModelSize(GA_MEMO_HEAP + GA_INDIVIDUALS * (n * Integer.BYTES + 64), 0);
+    }
+
+    private ModelSize routing(CVRPInput input) {
+        long n = length(input.getDistances());
+        long k = input.getVehicleNumber();
+        return new ModelSize(n * Long.BYTES, (n + k) * ROUTING_NODE_NATIVE + n * n * ROUTING_ARC_NATIVE);
+    }
+
+    private ModelSize cvrpMip(CVRPInput input) {
+        long n = length(input.getDistances());
+        long k = input.getVehicleNumber();
+        long variables = n * n * k + n * k + n; // Arcs per vehicle, service and subtour orders
+        long constraints = n * n * k + n * k + n + 3 * k; // Subtours, flows, visits, depot and capacity
+        long nonzeros = 8 * n * n * k; // Each arc appears in the objective and in up to seven rows
+        return mip(variables, constraints, nonzeros);
+    }
+
+    private ModelSize flp(FLPInput input) {
+        long facilities = input.getCosts() == null ? 0 : input.getCosts().length;
+        long customers = input.getDemands() == null ? 0 : input.getDemands().length;
+        long assignments = facilities * customers;
+        return mip(assignments + facilities, customers + facilities, 2 * assignments + 2 * facilities);
+    }
+
+    private ModelSize bpp(BPPInput input) {
+        long n = input.getWeights() == null ? 0 : input.getWeights().length; // As many bins as items
+        return mip(n * n + n, 2 * n, 2 * n * n + 2 * n);
+    }
+
+    private ModelSize mip(long variables, long constraints, long nonzeros) {
+        long model = variables * MP_VARIABLE_NATIVE + constraints * MP_CONSTRAINT_NATIVE + nonzeros * MP_NONZERO_NATIVE;
+        return new ModelSize((variables + constraints) * MP_ELEMENT_HEAP, model * MP_SEARCH_FACTOR);
+    }
+
+    private static long length(double[][] matrix) {
+        return matrix == null ? 0 : matrix.length;
+    }
+
+    public record ModelSize(long heapBytes, long nativeBytes) {
+    }
+}
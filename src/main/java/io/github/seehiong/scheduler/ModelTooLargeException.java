@@ -0,0 +1,14 @@
+package io.github.seehiong.scheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown for a solve whose model is estimated to need more memory than the scheduler's budget allows even when
+ * nothing else runs, so that retrying it would not help.
+ */
+public class ModelTooLargeException extends RejectedExecutionException {
+
+    public ModelTooLargeException(String message) {
+        super(message);
+    }
+}
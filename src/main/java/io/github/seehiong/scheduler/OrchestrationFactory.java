@@ -0,0 +1,27 @@
+package io.github.seehiong.scheduler;
+
+import java.util.concurrent.ExecutorService;
+
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactor scheduler for the work around solves: decoding uploads, storing outputs and fanning progress out to
+ * subscribers. It runs on Micronaut's blocking executor, made of virtual threads on Java 21, so that waiting and
+ * streaming requests hold no platform thread while the searches keep the {@link SolveScheduler} workers.
+ */
+@Factory
+public class OrchestrationFactory {
+
+    public static final String ORCHESTRATION = "orchestration";
+
+    @Singleton
+    @Named(ORCHESTRATION)
+    public Scheduler orchestrationScheduler(@Named(TaskExecutors.BLOCKING) ExecutorService executor) {
+        return Schedulers.fromExecutorService(executor, ORCHESTRATION);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.seehiong.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.scheduler")
+public class SchedulerConfiguration {
+
+    private int workers = Runtime.getRuntime().availableProcessors(); // Solves running at once
+    private int maxThreads = 1; // Threads one solve may be granted, capped by the workers
+    private int queueCapacity = 256; // Solves waiting for a worker before new ones are rejected
+    private Map<String, Integer> limits = new HashMap<>(); // Solves running at once per problem type, e.g. limits.cvrp-mip=1
+    private long heapBudget = -1; // Heap the running models may reserve, -1 for three quarters of the max heap
+    private long nativeBudget = -1; // Native memory they may reserve, -1 for half of the memory beside the max heap
+
+}
@@ -0,0 +1,443 @@
+package io.github.seehiong.scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.IntFunction;
+
+import org.reactivestreams.Subscription;
+
+import io.github.seehiong.metrics.SolveMetrics;
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.Priority;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.SchedulerStats;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.CompletionOutput;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.QueuedOutput;
+import io.github.seehiong.scheduler.ModelSizeEstimator.ModelSize;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Admits solves into a bounded queue and runs them on a fixed pool of workers.
+ * <p>
+ * Queued solves are dispatched by priority, then arrival, skipping those whose problem type is at its concurrency
+ * limit. A solve's queue position and wait time are emitted as {@link QueuedOutput} events on its own stream
+ * whenever they change. Solvers run synchronously on the worker that dispatched them.
+ * <p>
+ * Each worker stands for a core. A solve is granted the threads its input asks for, up to
+ * {@code optimizer.scheduler.max-threads} and to the workers left free, and occupies that many workers until it ends,
+ * so engines searching on several threads never oversubscribe the cores. Engines of single-threaded problem types
+ * are always granted one.
+ * <p>
+ * The heap and native memory of each model are estimated by {@link ModelSizeEstimator} before it is built and
+ * reserved against the budgets while it runs. A solve that would not fit what is left waits in the queue, with one
+ * thread rather than several if that makes it fit, and one that would not fit even on an idle node is rejected with
+ * {@link ModelTooLargeException}.
+ * <p>
+ * A solve is cancelled when its subscriber goes away or through {@link #cancel(UUID)}: queued solves are dropped,
+ * running ones have their solver stream cancelled, which the solvers turn into an engine stop. The unused part of
+ * the cancelled solves' time budgets is tallied as reclaimed CPU-seconds.
+ * <p>
+ * Queue time, time to first solution, improvements, duration and the heap allocated by the worker are recorded per
+ * solve through {@link SolveMetrics}. The solve's {@link SolveTimings} are bound to the worker while it runs and
+ * attached to its final output.
+ */
+@Slf4j
+@Singleton
+public class SolveScheduler {
+
+    private static final long MB = 1024 * 1024;
+
+    private static final Comparator<Job> DISPATCH_ORDER = Comparator
+            .comparing(Job::getPriority)
+            .thenComparingLong(Job::getSequence);
+
+    private final int workers;
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final long heapBudget;
+    private final long nativeBudget;
+    private final Map<ProblemType, Integer> limits = new EnumMap<>(ProblemType.class);
+    private final ExecutorService executor;
+    private final SolveMetrics metrics;
+
+    private final TreeSet<Job> queue = new TreeSet<>(DISPATCH_ORDER);
+    private final Map<ProblemType, Integer> running = new EnumMap<>(ProblemType.class);
+    private final Map<UUID, Job> active = new ConcurrentHashMap<>(); // Queued and running, by solver id
+    private final AtomicLong sequence = new AtomicLong();
+    private int runningTotal;
+    private int threadsInUse; // Granted to the running solves
+    private long reservedHeap; // Estimated for the running solves' models
+    private long reservedNative;
+
+    private final AtomicLong cancelledQueued = new AtomicLong();
+    private final AtomicLong cancelledRunning = new AtomicLong();
+    private final DoubleAdder reclaimedCpuSeconds = new DoubleAdder();
+
+    public SolveScheduler(SchedulerConfiguration configuration, SolveMetrics metrics) {
+        this.metrics = metrics;
+        this.workers = Math.max(1, configuration.getWorkers());
+        this.maxThreads = Math.max(1, Math.min(workers, configuration.getMaxThreads()));
+        this.queueCapacity = Math.max(0, configuration.getQueueCapacity());
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        this.heapBudget = configuration.getHeapBudget() >= 0 ? configuration.getHeapBudget() : maxHeap / 4 * 3;
+        this.nativeBudget = configuration.getNativeBudget() >= 0 ? configuration.getNativeBudget()
+                : ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                        ? Math.max(0, os.getTotalMemorySize() - maxHeap) / 2
+                        : Long.MAX_VALUE;
+        for (ProblemType problemType : ProblemType.values()) {
+            limits.put(problemType, workers);
+            running.put(problemType, 0);
+        }
+        // Property keys arrive normalized (cvrp-mip), map them back onto the enum names
+        configuration.getLimits().forEach((key, limit) -> limits.put(
+                ProblemType.fromString(key.replace('-', '_')), Math.max(1, Math.min(workers, limit))));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "solve-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(workers, threadFactory);
+        log.info("solve scheduler started with {} workers, {} threads per solve at most, queue capacity {}, limits {}",
+                workers, maxThreads, queueCapacity, limits);
+        log.info("model memory budgets: {} MB heap, {} MB native", heapBudget / MB, nativeBudget / MB);
+    }
+
+    /**
+     * Queues a solve and returns its events, queue updates first, then the solver's own.
+     *
+     * @param problemType problem type the concurrency limit applies to
+     * @param input input being solved, supplies the solver id and priority
+     * @param solve creates the solver stream for the threads granted; subscribed on a worker once dispatched
+     * @return the solve events, failing with {@link RejectedExecutionException} when the queue is full and with
+     *         {@link DuplicateSolveException} when the solver id is already queued or running
+     */
+    public Flux<Object> schedule(ProblemType problemType, Input input, IntFunction<Flux<Object>> solve) {
+        return Flux.create(sink -> {
+            Priority priority = input.getPriority() == null ? Priority.NORMAL : input.getPriority();
+            Job job = new Job(problemType, input, priority, sequence.incrementAndGet(), solve, sink,
+                    metrics.tags(problemType, input));
+
+            if (!fits(problemType, input)) {
+                ModelSize size = ModelSizeEstimator.estimate(problemType, input, 1);
+                metrics.recordOversized(problemType);
+                sink.error(new ModelTooLargeException(String.format(
+                        "%s %s needs about %d MB of heap and %d MB of native memory, the budgets are %d MB and %d MB",
+                        problemType, input.getSolverId(), size.heapBytes() / MB, size.nativeBytes() / MB,
+                        heapBudget / MB, nativeBudget / MB)));
+                return;
+            }
+            synchronized (this) {
+                if (queue.size() >= queueCapacity) {
+                    metrics.recordRejected(problemType);
+                    sink.error(new RejectedExecutionException(
+                            String.format("Solve queue is full (%d), rejecting %s", queueCapacity, input.getSolverId())));
+                    return;
+                }
+                // Registered before the job can be dispatched, so the worker's removal always comes after
+                if (active.putIfAbsent(input.getSolverId(), job) != null) {
+                    sink.error(new DuplicateSolveException("Solve already in flight: " + input.getSolverId()));
+                    return;
+                }
+                queue.add(job);
+            }
+            sink.onCancel(() -> cancel(job));
+            dispatch();
+        });
+    }
+
+    /**
+     * Cancels a queued or running solve, ending its stream with a {@link SolverState#CANCELLED} event.
+     *
+     * @return false when no such solve is queued or running
+     */
+    public boolean cancel(UUID solverId) {
+        Job job = active.get(solverId);
+        if (job == null) {
+            return false;
+        }
+        cancel(job);
+
+        CompletionOutput cancelled = new CompletionOutput();
+        cancelled.setSolverId(solverId);
+        cancelled.setSolverState(SolverState.CANCELLED);
+        cancelled.setMessage("cancelled");
+        job.getSink().next(cancelled);
+        job.getSink().complete();
+        return true;
+    }
+
+    public SchedulerStats getStats() {
+        synchronized (this) {
+            return new SchedulerStats(workers, runningTotal, threadsInUse, queue.size(), reservedHeap, reservedNative,
+                    cancelledQueued.get(), cancelledRunning.get(), reclaimedCpuSeconds.sum());
+        }
+    }
+
+    /**
+     * Whether the model of a solve would fit the memory budgets on a node running nothing else.
+     */
+    public boolean fits(ProblemType problemType, Input input) {
+        ModelSize size = ModelSizeEstimator.estimate(problemType, input, 1);
+        return size.heapBytes() <= heapBudget && size.nativeBytes() <= nativeBudget;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    public synchronized int getRunning() {
+        return runningTotal;
+    }
+
+    private void cancel(Job job) {
+        if (!job.getCancelled().compareAndSet(false, true)) {
+            return;
+        }
+        boolean queued;
+        synchronized (this) {
+            queued = queue.remove(job);
+        }
+
+        long budgetSeconds = job.getInput().getTimeInSeconds();
+        if (queued) {
+            active.remove(job.getInput().getSolverId(), job);
+            cancelledQueued.incrementAndGet();
+            reclaimedCpuSeconds.add(budgetSeconds);
+            metrics.recordCancelledQueued(job.getTags());
+            log.info("queued solve {} cancelled", job.getInput().getSolverId());
+            dispatch();
+        } else {
+            double elapsedSeconds = (System.nanoTime() - job.getStartedAt()) / 1e9;
+            cancelledRunning.incrementAndGet();
+            reclaimedCpuSeconds.add(Math.max(0, budgetSeconds - elapsedSeconds));
+            log.info("running solve {} cancelled after {} s", job.getInput().getSolverId(), String.format("%.1f", elapsedSeconds));
+            Disposable upstream = job.getUpstream();
+            if (upstream != null) {
+                upstream.dispose();
+            }
+        }
+    }
+
+    // Starts every queued job a worker and its type limit allow, then tells the rest where they stand
+    private void dispatch() {
+        List<Job> started = new ArrayList<>();
+        List<Job> waiting;
+        synchronized (this) {
+            var iterator = queue.iterator();
+            while (threadsInUse < workers && iterator.hasNext()) {
+                Job job = iterator.next();
+                int runningOfType = running.get(job.getProblemType());
+                if (runningOfType < limits.get(job.getProblemType())) {
+                    int threads = grant(job);
+                    ModelSize size = ModelSizeEstimator.estimate(job.getProblemType(), job.getInput(), threads);
+                    if (!fitsRemaining(size) && threads > 1) {
+                        threads = 1;
+                        size = ModelSizeEstimator.estimate(job.getProblemType(), job.getInput(), threads);
+                    }
+                    if (!fitsRemaining(size)) {
+                        continue; // Until running models release their memory
+                    }
+                    iterator.remove();
+                    running.put(job.getProblemType(), runningOfType + 1);
+                    runningTotal++;
+                    job.setThreads(threads);
+                    threadsInUse += threads;
+                    job.setSize(size);
+                    reservedHeap += size.heapBytes();
+                    reservedNative += size.nativeBytes();
+                    job.setStartedAt(System.nanoTime());
+                    started.add(job);
+                }
+            }
+            waiting = new ArrayList<>(queue);
+        }
+
+        for (Job job : started) {
+            metrics.recordQueued(job.getTags(), job.getStartedAt() - job.getQueuedAt());
+            job.getSink().next(queuedOutput(job, 0));
+            executor.execute(() -> run(job));
+        }
+        for (int i = 0; i < waiting.size(); i++) {
+            Job job = waiting.get(i);
+            if (job.getLastPosition() != i + 1) {
+                job.setLastPosition(i + 1);
+                job.getSink().next(queuedOutput(job, i + 1));
+            }
+        }
+    }
+
+    private void run(Job job) {
+        FluxSink<Object> sink = job.getSink();
+        long allocatedAtStart = SolveTimings.allocatedBytes();
+        try (SolveTimings.Scope scope = job.getInput().getTimings().bind()) {
+            if (!job.getCancelled().get()) {
+                // Solver streams are synchronous, this returns once the solve has completed or stopped
+                job.getSolve().apply(job.getThreads()).subscribe(new BaseSubscriber<Object>() {
+
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        job.setUpstream(this);
+                        if (job.getCancelled().get()) {
+                            dispose();
+                        } else {
+                            requestUnbounded();
+                        }
+                    }
+
+                    @Override
+                    protected void hookOnNext(Object value) {
+                        if (value instanceof Output output) {
+                            if (output.getSolverState() == SolverState.SOLVED) {
+                                output.setTimings(job.getInput().getTimings().snapshot());
+                            }
+                            // The first output announces the start, solutions follow
+                            int solutions = job.nextOutput() - 1;
+                            if (solutions == 1) {
+                                metrics.recordFirstSolution(job.getTags(), System.nanoTime() - job.getStartedAt());
+                            } else if (solutions > 1) {
+                                metrics.recordImprovement(job.getTags());
+                            }
+                        }
+                        sink.next(value);
+                    }
+
+                    @Override
+                    protected void hookOnError(Throwable throwable) {
+                        job.setOutcome("failed");
+                        sink.error(throwable);
+                    }
+
+                    @Override
+                    protected void hookOnComplete() {
+                        if (!job.getCancelled().get()) {
+                            job.setOutcome("solved");
+                        }
+                        sink.complete();
+                    }
+                });
+                SolveTimings.end(); // Closes the last sequential phase the engine left open
+            }
+        } catch (RuntimeException e) {
+            log.error("solve {} failed", job.getInput().getSolverId(), e);
+            job.setOutcome("failed");
+            sink.error(e);
+        } finally {
+            long allocated = allocatedAtStart < 0 ? -1 : SolveTimings.allocatedBytes() - allocatedAtStart;
+            metrics.recordFinished(job.getTags(), job.getOutcome(), System.nanoTime() - job.getStartedAt(), allocated);
+            active.remove(job.getInput().getSolverId(), job);
+            synchronized (this) {
+                running.merge(job.getProblemType(), -1, Integer::sum);
+                runningTotal--;
+                threadsInUse -= job.getThreads();
+                reservedHeap -= job.getSize().heapBytes();
+                reservedNative -= job.getSize().nativeBytes();
+            }
+            dispatch();
+        }
+    }
+
+    // Threads for a job about to start: what it asks for, within the per-solve cap and the workers left free
+    private int grant(Job job) {
+        if (!job.getProblemType().isMultiThreaded()) {
+            return 1;
+        }
+        int requested = job.getInput().getThreadCount();
+        return Math.max(1, Math.min(requested, Math.min(maxThreads, workers - threadsInUse)));
+    }
+
+    private boolean fitsRemaining(ModelSize size) {
+        return reservedHeap + size.heapBytes() <= heapBudget && reservedNative + size.nativeBytes() <= nativeBudget;
+    }
+
+    private QueuedOutput queuedOutput(Job job, int position) {
+        long waitTime = (System.nanoTime() - job.getQueuedAt()) / 1_000_000;
+        return QueuedOutput.builder()
+                .solverId(job.getInput().getSolverId())
+                .solverState(SolverState.QUEUED)
+                .message(position == 0 ? String.format("dispatched after %d ms", waitTime) : String.format("queued at position %d", position))
+                .queuePosition(position)
+                .waitTime(waitTime)
+                .elapsedTime(waitTime)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Getter
+    private static class Job {
+
+        private final ProblemType problemType;
+        private final Input input;
+        private final Priority priority;
+        private final long sequence;
+        private final IntFunction<Flux<Object>> solve;
+        private final FluxSink<Object> sink;
+        private final Tags tags; // Of the solve's meters
+        private final long queuedAt = System.nanoTime();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        @Setter
+        private volatile int lastPosition; // Last position published, so unchanged ones are not repeated
+        @Setter
+        private volatile long startedAt;
+        @Setter
+        private volatile Disposable upstream; // Solver stream subscription while running
+        @Setter
+        private volatile int threads; // Granted on dispatch
+        @Setter
+        private volatile ModelSize size; // Reserved on dispatch
+        @Setter
+        private volatile String outcome = "cancelled"; // Until the solver stream completes or fails
+        private int outputs; // Solver outputs seen, touched by the worker only
+
+        Job(ProblemType problemType, Input input, Priority priority, long sequence, IntFunction<Flux<Object>> solve,
+                FluxSink<Object> sink, Tags tags) {
+            this.problemType = problemType;
+            this.input = input;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.solve = solve;
+            this.sink = sink;
+            this.tags = tags;
+        }
+
+        int nextOutput() {
+            return ++outputs;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.seehiong.serde;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.seehiong.model.Coordinate;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.type.Argument;
+import io.micronaut.serde.Decoder;
+import io.micronaut.serde.Deserializer;
+
+/**
+ * Reads a JSON array of {@code {"x": .., "y": ..}} objects straight into coordinates, without going through the
+ * introspected bean deserializer for every point. Unknown keys are skipped and null entries kept, as the bean
+ * deserializer would. Not a bean, so that it only applies to the input fields naming it in
+ * {@code @Serdeable.Deserializable(using = ...)}.
+ */
+@Introspected
+public class CoordinateArrayDeserializer implements Deserializer<Coordinate[]> {
+
+    @Override
+    public Coordinate[] deserialize(Decoder decoder, DecoderContext context, Argument<? super Coordinate[]> type) throws IOException {
+        List<Coordinate> coordinates = new ArrayList<>();
+
+        Decoder arrayDecoder = decoder.decodeArray();
+        while (arrayDecoder.hasNextArrayValue()) {
+            if (arrayDecoder.decodeNull()) {
+                coordinates.add(null);
+                continue;
+            }
+            coordinates.add(readCoordinate(arrayDecoder));
+        }
+        arrayDecoder.finishStructure();
+        return coordinates.toArray(new Coordinate[0]);
+    }
+
+    private static Coordinate readCoordinate(Decoder decoder) throws IOException {
+        Coordinate coordinate = new Coordinate();
+
+        Decoder objectDecoder = decoder.decodeObject();
+        String key;
+        while ((key = objectDecoder.decodeKey()) != null) {
+            switch (key) {
+                case "x" -> coordinate.setX(objectDecoder.decodeDouble());
+                case "y" -> coordinate.setY(objectDecoder.decodeDouble());
+                default -> objectDecoder.skipValue();
+            }
+        }
+        objectDecoder.finishStructure();
+        return coordinate;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.seehiong.serde;
+
+import java.io.IOException;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.type.Argument;
+import io.micronaut.serde.Decoder;
+import io.micronaut.serde.Deserializer;
+
+/**
+ * Reads a JSON array of numbers straight into a {@code double[]}.
+ * <p>
+ * Not a bean, so that it only applies to the input fields naming it in {@code @Serdeable.Deserializable(using = ...)}
+ * rather than to every {@code double[]} the application reads.
+ */
+@Introspected
+public class DoubleArrayDeserializer implements Deserializer<double[]> {
+
+    @Override
+    public double[] deserialize(Decoder decoder, DecoderContext context, Argument<? super double[]> type) throws IOException {
+        return NumericArrays.readDoubles(decoder, 0);
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.seehiong.serde;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.type.Argument;
+import io.micronaut.serde.Decoder;
+import io.micronaut.serde.Deserializer;
+
+/**
+ * Reads a JSON array of arrays straight into primitive rows.
+ * <p>
+ * The first row grows as its values are read; every following row is pre-sized from the previous row length, so a
+ * rectangular matrix is read without boxing, per-row lists or re-copying. Not a bean, so that it only applies to the
+ * input fields naming it in {@code @Serdeable.Deserializable(using = ...)}.
+ */
+@Introspected
+public class DoubleMatrixDeserializer implements Deserializer<double[][]> {
+
+    @Override
+    public double[][] deserialize(Decoder decoder, DecoderContext context, Argument<? super double[][]> type) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        int expectedLength = 0;
+
+        Decoder matrixDecoder = decoder.decodeArray();
+        while (matrixDecoder.hasNextArrayValue()) {
+            if (matrixDecoder.decodeNull()) {
+                rows.add(null);
+                continue;
+            }
+            double[] row = NumericArrays.readDoubles(matrixDecoder, expectedLength);
+            expectedLength = row.length;
+            rows.add(row);
+        }
+        matrixDecoder.finishStructure();
+        return rows.toArray(new double[rows.size()][]);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.seehiong.serde;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import io.micronaut.serde.Decoder;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class NumericArrays {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Reads the next JSON array token by token into a primitive array pre-sized to the expected length
+    double[] readDoubles(Decoder decoder, int expectedLength) throws IOException {
+        double[] values = new double[expectedLength > 0 ? expectedLength : INITIAL_CAPACITY];
+        int count = 0;
+
+        Decoder arrayDecoder = decoder.decodeArray();
+        while (arrayDecoder.hasNextArrayValue()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = arrayDecoder.decodeDouble();
+        }
+        arrayDecoder.finishStructure();
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    int[] readInts(Decoder decoder, int expectedLength) throws IOException {
+        int[] values = new int[expectedLength > 0 ? expectedLength : INITIAL_CAPACITY];
+        int count = 0;
+
+        Decoder arrayDecoder = decoder.decodeArray();
+        while (arrayDecoder.hasNextArrayValue()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = arrayDecoder.decodeInt();
+        }
+        arrayDecoder.finishStructure();
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+}
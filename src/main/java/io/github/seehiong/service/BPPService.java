@@ -1,22 +1,22 @@
 package io.github.seehiong.service;
 
 import java.io.IOException;
+import java.util.Arrays;
 
-import io.github.seehiong.controller.ProgressController;
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.constraint.ItemWeightConstraint;
 import io.github.seehiong.model.input.BPPInput;
 import io.github.seehiong.model.output.BPPOutput;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.service.base.BaseSolverService;
 import io.github.seehiong.solver.BPPSolver;
-import io.github.seehiong.solver.base.Solver;
-import io.github.seehiong.utils.DisposableUtil;
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.github.seehiong.utils.NumberTokenizer;
 import io.micronaut.serde.ObjectMapper;
-import io.reactivex.rxjava3.disposables.Disposable;
-import io.reactivex.rxjava3.subjects.PublishSubject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Flux;
 
 @Slf4j
 @Singleton
@@ -24,11 +24,11 @@ import reactor.core.publisher.Flux;
 public class BPPService extends BaseSolverService<BPPInput, BPPOutput> {
 
     private final ObjectMapper objectMapper;
-    private final Solver<BPPInput, BPPOutput> solver;
 
-    public BPPService(ObjectMapper objectMapper) {
+    public BPPService(ObjectMapper objectMapper, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache) {
+        super(ProblemType.BPP, scheduler, progressRegistry, solutionCache, BPPSolver::new);
         this.objectMapper = objectMapper;
-        this.solver = new BPPSolver();
     }
 
     @Override
@@ -38,24 +38,16 @@ public class BPPService extends BaseSolverService<BPPInput, BPPOutput> {
     }
 
     @Override
-    public BPPInput processFile(CompletedFileUpload file) throws IOException {
+    public BPPInput processFile(NumberTokenizer tokens) throws IOException {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
     @Override
-    public Flux<Object> solve(BPPInput input) throws IOException {
-        PublishSubject<BPPOutput> progressSubject = PublishSubject.create();
-        ProgressController.activeSolvers.put(input.getSolverId().toString(), progressSubject);
-
-        Disposable subscription;
-        subscription = progressSubject
-                .doOnComplete(() -> {
-                    ProgressController.activeSolvers.remove(input.getSolverId().toString());
-                    DisposableUtil.disposeSubscriptions();
-                })
-                .subscribe(output -> ProgressController.latestOutputs.put(input.getSolverId().toString(), output));
-        DisposableUtil.addDisposable(subscription);
-
-        return solver.solve(input, (PublishSubject<BPPOutput>) progressSubject);
+    public BPPInput processMatrix(String input, double[][] matrix) throws IOException {
+        // The matrix carries the item weights, row by row
+        int[] weights = Arrays.stream(matrix).flatMapToDouble(Arrays::stream).mapToInt(weight -> (int) Math.round(weight)).toArray();
+        BPPInput bppInput = processInput(input.isBlank() ? "{}" : input);
+        bppInput.setItemWeightConstraint(new ItemWeightConstraint(weights));
+        return bppInput;
     }
 }
@@ -1,6 +1,13 @@
 package io.github.seehiong.service;
 
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.CVRPInput;
+import io.github.seehiong.model.output.CVRPOutput;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.service.base.BaseCVRPService;
+import io.github.seehiong.service.base.BaseSolverService;
 import io.github.seehiong.solver.CVRPMipSolver;
 import io.micronaut.serde.ObjectMapper;
 import jakarta.inject.Named;
@@ -10,7 +17,16 @@ import jakarta.inject.Singleton;
 @Named("CVRP_MIP")
 public class CVRPMipService extends BaseCVRPService {
 
-    public CVRPMipService(ObjectMapper objectMapper) {
-        super(objectMapper, new CVRPMipSolver());
+    private final CVRPService routingService; // Takes the instances whose n²·k variables would not fit in memory
+
+    public CVRPMipService(ObjectMapper objectMapper, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache, CVRPService routingService) {
+        super(ProblemType.CVRP_MIP, objectMapper, scheduler, progressRegistry, solutionCache, CVRPMipSolver::new);
+        this.routingService = routingService;
+    }
+
+    @Override
+    protected BaseSolverService<CVRPInput, CVRPOutput> getCheaper() {
+        return routingService;
     }
 }
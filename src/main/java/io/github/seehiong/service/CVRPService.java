@@ -1,5 +1,9 @@
 package io.github.seehiong.service;
 
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.service.base.BaseCVRPService;
 import io.github.seehiong.solver.CVRPSolver;
 import io.micronaut.serde.ObjectMapper;
@@ -10,7 +14,8 @@ import jakarta.inject.Singleton;
 @Named("CVRP")
 public class CVRPService extends BaseCVRPService {
 
-    public CVRPService(ObjectMapper objectMapper) {
-        super(objectMapper, new CVRPSolver());
+    public CVRPService(ObjectMapper objectMapper, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache) {
+        super(ProblemType.CVRP, objectMapper, scheduler, progressRegistry, solutionCache, CVRPSolver::new);
     }
 }
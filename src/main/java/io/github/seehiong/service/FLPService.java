@@ -1,10 +1,10 @@
 package io.github.seehiong.service;
 
 import java.io.IOException;
-import java.util.List;
 
-import io.github.seehiong.controller.ProgressController;
+import io.github.seehiong.cache.SolutionCache;
 import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.ProblemType;
 import io.github.seehiong.model.constraint.CustomerCoordinateConstraint;
 import io.github.seehiong.model.constraint.CustomerDemandConstraint;
 import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
@@ -13,71 +13,77 @@ import io.github.seehiong.model.constraint.FacilityCoordinateConstraint;
 import io.github.seehiong.model.constraint.FacilityCostConstraint;
 import io.github.seehiong.model.input.FLPInput;
 import io.github.seehiong.model.output.FLPOutput;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.service.base.BaseSolverService;
 import io.github.seehiong.solver.FLPSolver;
-import io.github.seehiong.solver.base.Solver;
-import io.github.seehiong.utils.DisposableUtil;
-import io.github.seehiong.utils.FileUtil;
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.github.seehiong.utils.DistanceMatrixUtil;
+import io.github.seehiong.utils.NumberTokenizer;
 import io.micronaut.serde.ObjectMapper;
-import io.reactivex.rxjava3.disposables.Disposable;
-import io.reactivex.rxjava3.subjects.PublishSubject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
-import reactor.core.publisher.Flux;
 
 @Singleton
 @Named("FLP")
 public class FLPService extends BaseSolverService<FLPInput, FLPOutput> {
 
     private final ObjectMapper objectMapper;
-    private final Solver<FLPInput, FLPOutput> solver;
 
-    public FLPService(ObjectMapper objectMapper) {
+    public FLPService(ObjectMapper objectMapper, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache) {
+        super(ProblemType.FLP, scheduler, progressRegistry, solutionCache, FLPSolver::new);
         this.objectMapper = objectMapper;
-        this.solver = new FLPSolver();
     }
 
     @Override
     public FLPInput processInput(String input) throws IOException {
         FLPInput fLPInput = objectMapper.readValue(input, FLPInput.class);
-        if (fLPInput != null && fLPInput.getDistances() == null) {
-            int numCustomers = fLPInput.getCustomerCoordinates().length;
-            int numFacilities = fLPInput.getFacilityCoordinates().length;
+        // A referenced instance brings its own distances
+        if (fLPInput != null && fLPInput.getDistances() == null && fLPInput.getInstanceId() == null) {
             fLPInput.setDistanceMatrixConstraint(new DistanceMatrixConstraint(
-                    calculateDistances(numCustomers, numFacilities, fLPInput.getCustomerCoordinateConstraint(), fLPInput.getFacilityCoordinateConstraint())));
+                    calculateDistances(fLPInput.getCustomerCoordinateConstraint(), fLPInput.getFacilityCoordinateConstraint())));
         }
         return fLPInput;
     }
 
     @Override
-    public FLPInput processFile(CompletedFileUpload file) throws IOException {
-        List<String> lines = FileUtil.readFile(file);
-        return processLines(lines);
+    public FLPInput processFile(NumberTokenizer tokens) throws IOException {
+        return processTokens(tokens);
     }
 
     @Override
-    public Flux<Object> solve(FLPInput input) {
-        PublishSubject<FLPOutput> progressSubject = PublishSubject.create();
-        ProgressController.activeSolvers.put(input.getSolverId().toString(), progressSubject);
-
-        Disposable subscription;
-        subscription = progressSubject
-                .doOnComplete(() -> {
-                    ProgressController.activeSolvers.remove(input.getSolverId().toString());
-                    DisposableUtil.disposeSubscriptions();
-                })
-                .subscribe(output -> ProgressController.latestOutputs.put(input.getSolverId().toString(), output));
-        DisposableUtil.addDisposable(subscription);
-
-        return solver.solve(input, (PublishSubject<FLPOutput>) progressSubject);
+    public FLPInput processMatrix(String input, double[][] matrix) throws IOException {
+        // Rows are customers, columns are facilities, so no distances are derived from the coordinates
+        FLPInput fLPInput = objectMapper.readValue(input.isBlank() ? "{}" : input, FLPInput.class);
+        int customers = matrix.length;
+        checkLength("customer demands", fLPInput.getDemands() == null ? null : fLPInput.getDemands().length, customers);
+        checkLength("customer coordinates",
+                fLPInput.getCustomerCoordinates() == null ? null : fLPInput.getCustomerCoordinates().length, customers);
+        if (customers > 0) { // Without rows the matrix does not say how many facilities there are
+            int facilities = matrix[0].length;
+            checkLength("facility costs", fLPInput.getCosts() == null ? null : fLPInput.getCosts().length, facilities);
+            checkLength("facility capacities",
+                    fLPInput.getCapacities() == null ? null : fLPInput.getCapacities().length, facilities);
+            checkLength("facility coordinates",
+                    fLPInput.getFacilityCoordinates() == null ? null : fLPInput.getFacilityCoordinates().length,
+                    facilities);
+        }
+        fLPInput.setDistanceMatrixConstraint(new DistanceMatrixConstraint(matrix));
+        return fLPInput;
+    }
+
+    // Header arrays left out are taken from the referenced instance, those given must match the matrix
+    private static void checkLength(String name, Integer length, int expected) throws IOException {
+        if (length != null && length != expected) {
+            throw new IOException(String.format("FLP %s must have %d entries to match the distance matrix, got %d",
+                    name, expected, length));
+        }
     }
 
-    private FLPInput processLines(List<String> lines) {
+    private FLPInput processTokens(NumberTokenizer tokens) {
         // Extract the number of facilities and customers from the first line
-        String[] firstLine = lines.get(0).split(" ");
-        int numFacilities = Integer.parseInt(firstLine[0]);
-        int numCustomers = Integer.parseInt(firstLine[1]);
+        int numFacilities = tokens.nextInt();
+        int numCustomers = tokens.nextInt();
 
         // Setup the constraints
         FacilityCostConstraint facilityCostConstraint = new FacilityCostConstraint(new double[numFacilities]);
@@ -85,24 +91,22 @@ public class FLPService extends BaseSolverService<FLPInput, FLPOutput> {
         FacilityCoordinateConstraint facilityCoordinateConstraint = new FacilityCoordinateConstraint(new Coordinate[numFacilities]);
         CustomerDemandConstraint customerDemandConstraint = new CustomerDemandConstraint(new int[numCustomers]);
         CustomerCoordinateConstraint customerCoordinateConstraint = new CustomerCoordinateConstraint(new Coordinate[numCustomers]);
-        DistanceMatrixConstraint distanceMatrixConstraint = new DistanceMatrixConstraint(new double[numCustomers][numFacilities]);
 
         // Parse facility data
-        for (int l = 1, i = 0; i < numFacilities; l++, i++) {
-            String[] facilityData = lines.get(l).split(" ");
-            facilityCostConstraint.getCosts()[i] = Double.parseDouble(facilityData[0]);
-            facilityCapacityConstraint.getCapacities()[i] = Integer.parseInt(facilityData[1]);
-            facilityCoordinateConstraint.getCoordinates()[i] = new Coordinate(Double.parseDouble(facilityData[2]), Double.parseDouble(facilityData[3]));
+        for (int i = 0; i < numFacilities; i++) {
+            facilityCostConstraint.getCosts()[i] = tokens.nextDouble();
+            facilityCapacityConstraint.getCapacities()[i] = tokens.nextInt();
+            facilityCoordinateConstraint.getCoordinates()[i] = new Coordinate(tokens.nextDouble(), tokens.nextDouble());
         }
 
         // Parse customer data
-        for (int l = numFacilities + 1, i = 0; i < numCustomers; l++, i++) {
-            String[] customerData = lines.get(l).split(" ");
-            customerDemandConstraint.getDemands()[i] = Integer.parseInt(customerData[0]);
-            customerCoordinateConstraint.getCoordinates()[i] = new Coordinate(Double.parseDouble(customerData[1]), Double.parseDouble(customerData[2]));
+        for (int i = 0; i < numCustomers; i++) {
+            customerDemandConstraint.getDemands()[i] = tokens.nextInt();
+            customerCoordinateConstraint.getCoordinates()[i] = new Coordinate(tokens.nextDouble(), tokens.nextDouble());
         }
 
-        distanceMatrixConstraint.setDistances(calculateDistances(numCustomers, numFacilities, customerCoordinateConstraint, facilityCoordinateConstraint));
+        DistanceMatrixConstraint distanceMatrixConstraint = new DistanceMatrixConstraint(
+                calculateDistances(customerCoordinateConstraint, facilityCoordinateConstraint));
 
         return FLPInput.builder()
                 .facilityCapacityConstraint(facilityCapacityConstraint)
@@ -114,16 +118,9 @@ public class FLPService extends BaseSolverService<FLPInput, FLPOutput> {
                 .build();
     }
 
-    private double[][] calculateDistances(int numCustomers, int numFacilities,
-            CustomerCoordinateConstraint customerCoordinateConstraint, FacilityCoordinateConstraint facilityCoordinateConstraint) {
-        double[][] distances = new double[numCustomers][numFacilities];
-        // Calculate distances
-        for (int i = 0; i < numCustomers; i++) {
-            for (int j = 0; j < numFacilities; j++) {
-                distances[i][j]
-                        = calculateDistance(customerCoordinateConstraint.getCoordinates()[i], facilityCoordinateConstraint.getCoordinates()[j]);
-            }
-        }
-        return distances;
+    private double[][] calculateDistances(CustomerCoordinateConstraint customerCoordinateConstraint,
+            FacilityCoordinateConstraint facilityCoordinateConstraint) {
+        // Rows are customers, columns are facilities
+        return DistanceMatrixUtil.euclidean(customerCoordinateConstraint.getCoordinates(), facilityCoordinateConstraint.getCoordinates());
     }
 }
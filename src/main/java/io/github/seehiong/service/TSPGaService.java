@@ -1,5 +1,9 @@
 package io.github.seehiong.service;
 
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.service.base.BaseTSPService;
 import io.github.seehiong.solver.TSPGaSolver;
 import io.micronaut.serde.ObjectMapper;
@@ -10,7 +14,8 @@ import jakarta.inject.Singleton;
 @Named("TSP_GA")
 public class TSPGaService extends BaseTSPService {
 
-    public TSPGaService(ObjectMapper objectMapper) {
-        super(objectMapper, new TSPGaSolver());
+    public TSPGaService(ObjectMapper objectMapper, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache) {
+        super(ProblemType.TSP_GA, objectMapper, scheduler, progressRegistry, solutionCache, TSPGaSolver::new);
     }
 }
@@ -1,5 +1,12 @@
 package io.github.seehiong.service;
 
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.input.TSPInput;
+import io.github.seehiong.model.output.TSPOutput;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
+import io.github.seehiong.service.base.BaseSolverService;
 import io.github.seehiong.service.base.BaseTSPService;
 import io.github.seehiong.solver.TSPSolver;
 import io.micronaut.serde.ObjectMapper;
@@ -10,7 +17,16 @@ import jakarta.inject.Singleton;
 @Named("TSP")
 public class TSPService extends BaseTSPService {
 
-    public TSPService(ObjectMapper objectMapper) {
-        super(objectMapper, new TSPSolver());
+    private final TSPGaService gaService; // Takes the instances whose table constraints would not fit in memory
+
+    public TSPService(ObjectMapper objectMapper, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache, TSPGaService gaService) {
+        super(ProblemType.TSP, objectMapper, scheduler, progressRegistry, solutionCache, TSPSolver::new);
+        this.gaService = gaService;
+    }
+
+    @Override
+    protected BaseSolverService<TSPInput, TSPOutput> getCheaper() {
+        return gaService;
     }
 }
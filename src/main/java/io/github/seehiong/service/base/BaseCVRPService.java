@@ -1,33 +1,33 @@
 package io.github.seehiong.service.base;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.function.Supplier;
 
-import io.github.seehiong.controller.ProgressController;
+import io.github.seehiong.cache.SolutionCache;
 import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.ProblemType;
 import io.github.seehiong.model.constraint.CustomerCoordinateConstraint;
 import io.github.seehiong.model.constraint.CustomerDemandConstraint;
 import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
 import io.github.seehiong.model.constraint.VehicleConstraint;
 import io.github.seehiong.model.input.CVRPInput;
 import io.github.seehiong.model.output.CVRPOutput;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.solver.base.Solver;
-import io.github.seehiong.utils.DisposableUtil;
-import io.github.seehiong.utils.FileUtil;
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.github.seehiong.utils.DistanceMatrixUtil;
+import io.github.seehiong.utils.NumberTokenizer;
 import io.micronaut.serde.ObjectMapper;
-import io.reactivex.rxjava3.disposables.Disposable;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import reactor.core.publisher.Flux;
 
 public abstract class BaseCVRPService extends BaseSolverService<CVRPInput, CVRPOutput> {
 
     protected final ObjectMapper objectMapper;
-    protected final Solver<CVRPInput, CVRPOutput> solver;
 
-    public BaseCVRPService(ObjectMapper objectMapper, Solver<CVRPInput, CVRPOutput> solver) {
+    public BaseCVRPService(ProblemType problemType, ObjectMapper objectMapper, SolveScheduler scheduler,
+            ProgressRegistry progressRegistry, SolutionCache solutionCache,
+            Supplier<Solver<CVRPInput, CVRPOutput>> solverFactory) {
+        super(problemType, scheduler, progressRegistry, solutionCache, solverFactory);
         this.objectMapper = objectMapper;
-        this.solver = solver;
     }
 
     @Override
@@ -36,54 +36,41 @@ public abstract class BaseCVRPService extends BaseSolverService<CVRPInput, CVRPO
     }
 
     @Override
-    public CVRPInput processFile(CompletedFileUpload file) throws IOException {
-        List<String> lines = FileUtil.readFile(file);
-        return processLines(lines);
+    public CVRPInput processFile(NumberTokenizer tokens) throws IOException {
+        return processTokens(tokens);
     }
 
     @Override
-    public Flux<Object> solve(CVRPInput input) {
-        PublishSubject<CVRPOutput> progressSubject = PublishSubject.create();
-        ProgressController.activeSolvers.put(input.getSolverId().toString(), progressSubject);
-
-        Disposable subscription = progressSubject
-                .doOnComplete(() -> {
-                    ProgressController.activeSolvers.remove(input.getSolverId().toString());
-                    DisposableUtil.disposeSubscriptions();
-                })
-                .subscribe(output -> ProgressController.latestOutputs.put(input.getSolverId().toString(), output));
-        DisposableUtil.addDisposable(subscription);
-
-        return solver.solve(input, progressSubject);
+    public CVRPInput processMatrix(String input, double[][] matrix) throws IOException {
+        if (matrix.length > 0 && matrix[0].length != matrix.length) {
+            throw new IOException(String.format("CVRP distance matrix must be square, got %d x %d", matrix.length,
+                    matrix[0].length));
+        }
+        CVRPInput cvrpInput = processInput(input.isBlank() ? "{}" : input);
+        cvrpInput.setDistanceMatrixConstraint(new DistanceMatrixConstraint(matrix));
+        return cvrpInput;
     }
 
-    private CVRPInput processLines(List<String> lines) {
+    private CVRPInput processTokens(NumberTokenizer tokens) {
         // Extract the number of customers, vehicles and its capactiy from the first line
-        String[] firstLine = lines.get(0).split(" ");
-        int numCustomers = Integer.parseInt(firstLine[0]);
-        int numVehicles = Integer.parseInt(firstLine[1]);
-        long vehicleCapacity = Long.parseLong(firstLine[2]);
+        int numCustomers = tokens.nextInt();
+        int numVehicles = tokens.nextInt();
+        long vehicleCapacity = tokens.nextLong();
 
         // Setup the constraints
         VehicleConstraint vehicleConstraint = new VehicleConstraint(numVehicles, vehicleCapacity);
         CustomerDemandConstraint customerDemandConstraint = new CustomerDemandConstraint(new int[numCustomers]);
         CustomerCoordinateConstraint customerCoordinateConstraint = new CustomerCoordinateConstraint(new Coordinate[numCustomers]);
-        DistanceMatrixConstraint distanceMatrixConstraint = new DistanceMatrixConstraint(new double[numCustomers][numCustomers]);
 
         // Parse customer data
-        for (int l = 1, i = 0; i < numCustomers; l++, i++) {
-            String[] customerData = lines.get(l).split(" ");
-            customerDemandConstraint.getDemands()[i] = Integer.parseInt(customerData[0]);
-            customerCoordinateConstraint.getCoordinates()[i] = new Coordinate(Double.parseDouble(customerData[1]), Double.parseDouble(customerData[2]));
+        for (int i = 0; i < numCustomers; i++) {
+            customerDemandConstraint.getDemands()[i] = tokens.nextInt();
+            customerCoordinateConstraint.getCoordinates()[i] = new Coordinate(tokens.nextDouble(), tokens.nextDouble());
         }
 
         // Calculate distances
-        for (int i = 0; i < numCustomers; i++) {
-            for (int j = 0; j < numCustomers; j++) {
-                distanceMatrixConstraint.getDistances()[i][j]
-                        = calculateDistance(customerCoordinateConstraint.getCoordinates()[i], customerCoordinateConstraint.getCoordinates()[j]);
-            }
-        }
+        DistanceMatrixConstraint distanceMatrixConstraint
+                = new DistanceMatrixConstraint(DistanceMatrixUtil.euclidean(customerCoordinateConstraint.getCoordinates()));
 
         return CVRPInput.builder()
                 .vehicleConstraint(vehicleConstraint)
@@ -1,20 +1,85 @@
 package io.github.seehiong.service.base;
 
-import io.github.seehiong.model.Coordinate;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
 import io.github.seehiong.model.input.Input;
 import io.github.seehiong.model.output.Output;
+import io.github.seehiong.progress.ProgressChannel;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
+import io.github.seehiong.solver.base.Solver;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
+@Slf4j
 public abstract class BaseSolverService<I extends Input, O extends Output> implements SolverService<I, O> {
 
-    protected double calculateDistance(Coordinate from, Coordinate to) {
-        double dx = from.getX() - to.getX();
-        double dy = from.getY() - to.getY();
-        return Math.sqrt(dx * dx + dy * dy);
+    protected final ProblemType problemType; // Scheduling and cache key type, matching the service's @Named qualifier
+    protected final SolveScheduler scheduler;
+    protected final ProgressRegistry progressRegistry;
+    protected final SolutionCache solutionCache;
+    protected final Supplier<Solver<I, O>> solverFactory; // Solvers keep per-solve state, so each solve gets its own
+
+    protected BaseSolverService(ProblemType problemType, SolveScheduler scheduler, ProgressRegistry progressRegistry,
+            SolutionCache solutionCache, Supplier<Solver<I, O>> solverFactory) {
+        this.problemType = problemType;
+        this.scheduler = scheduler;
+        this.progressRegistry = progressRegistry;
+        this.solutionCache = solutionCache;
+        this.solverFactory = solverFactory;
+    }
+
+    @Override
+    public Flux<Object> solve(I input) {
+        if (!solutionCache.isEnabled()) {
+            return run(input, progressRegistry.open(input.getSolverId().toString(), input.getProgressMode()));
+        }
+
+        String key = solutionCache.key(getProblemType(), input);
+        Optional<Flux<Object>> cached = solutionCache.find(key, input);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        ProgressChannel channel = progressRegistry.open(input.getSolverId().toString(), input.getProgressMode());
+        Optional<ProgressChannel> running = solutionCache.attach(key, channel);
+        if (running.isPresent()) {
+            channel.complete(); // Never driven, the identical solve's events are streamed instead
+            return running.get().watch();
+        }
+        return run(input, channel);
+    }
+
+    /**
+     * Schedules the solve, on the cheaper engine when this one's model would not fit the memory budget and the
+     * cheaper one's would.
+     */
+    @Override
+    public Flux<Object> solveUntracked(I input) {
+        BaseSolverService<I, O> cheaper = getCheaper();
+        if (cheaper != null && !scheduler.fits(getProblemType(), input)
+                && scheduler.fits(cheaper.getProblemType(), input)) {
+            log.info("{} is too large for {}, solving it with {}", input.getSolverId(), getProblemType(),
+                    cheaper.getProblemType());
+            return cheaper.solveUntracked(input);
+        }
+        return scheduler.schedule(getProblemType(), input, threads -> solverFactory.get().solve(input, threads));
+    }
+
+    private Flux<Object> run(I input, ProgressChannel channel) {
+        return channel.drive(solveUntracked(input), input.getTimings());
+    }
+
+    /**
+     * Service solving the same inputs with a lighter model, null when there is none.
+     */
+    protected BaseSolverService<I, O> getCheaper() {
+        return null;
     }
 
-    protected double calculateDistance(double x1, double y1, double x2, double y2) {
-        double xDelta = (x1 - x2);
-        double yDelta = (y1 - y2);
-        return Math.sqrt((xDelta * xDelta) + (yDelta * yDelta));
+    public ProblemType getProblemType() {
+        return problemType;
     }
 }
@@ -1,29 +1,29 @@
 package io.github.seehiong.service.base;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.function.Supplier;
 
-import io.github.seehiong.controller.ProgressController;
+import io.github.seehiong.cache.SolutionCache;
+import io.github.seehiong.model.ProblemType;
 import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
 import io.github.seehiong.model.input.TSPInput;
 import io.github.seehiong.model.output.TSPOutput;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.scheduler.SolveScheduler;
 import io.github.seehiong.solver.base.Solver;
-import io.github.seehiong.utils.DisposableUtil;
-import io.github.seehiong.utils.FileUtil;
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.github.seehiong.utils.DistanceMatrixUtil;
+import io.github.seehiong.utils.NumberTokenizer;
 import io.micronaut.serde.ObjectMapper;
-import io.reactivex.rxjava3.disposables.Disposable;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import reactor.core.publisher.Flux;
 
 public abstract class BaseTSPService extends BaseSolverService<TSPInput, TSPOutput> {
 
     protected final ObjectMapper objectMapper;
-    protected final Solver<TSPInput, TSPOutput> solver;
 
-    public BaseTSPService(ObjectMapper objectMapper, Solver<TSPInput, TSPOutput> solver) {
+    public BaseTSPService(ProblemType problemType, ObjectMapper objectMapper, SolveScheduler scheduler,
+            ProgressRegistry progressRegistry, SolutionCache solutionCache,
+            Supplier<Solver<TSPInput, TSPOutput>> solverFactory) {
+        super(problemType, scheduler, progressRegistry, solutionCache, solverFactory);
         this.objectMapper = objectMapper;
-        this.solver = solver;
     }
 
     @Override
@@ -32,54 +32,32 @@ public abstract class BaseTSPService extends BaseSolverService<TSPInput, TSPOutp
     }
 
     @Override
-    public TSPInput processFile(CompletedFileUpload file) throws IOException {
-        List<String> lines = FileUtil.readFile(file);
-        return processLines(lines);
+    public TSPInput processFile(NumberTokenizer tokens) throws IOException {
+        return processTokens(tokens);
     }
 
     @Override
-    public Flux<Object> solve(TSPInput input) {
-        PublishSubject<TSPOutput> progressSubject = PublishSubject.create();
-        ProgressController.activeSolvers.put(input.getSolverId().toString(), progressSubject);
-
-        Disposable subscription = progressSubject
-                .doOnComplete(() -> {
-                    ProgressController.activeSolvers.remove(input.getSolverId().toString());
-                    DisposableUtil.disposeSubscriptions();
-                })
-                .subscribe(output -> ProgressController.latestOutputs.put(input.getSolverId().toString(), output));
-        DisposableUtil.addDisposable(subscription);
-
-        return solver.solve(input, progressSubject);
+    public TSPInput processMatrix(String input, double[][] matrix) throws IOException {
+        if (matrix.length > 0 && matrix[0].length != matrix.length) {
+            throw new IOException(String.format("TSP distance matrix must be square, got %d x %d", matrix.length,
+                    matrix[0].length));
+        }
+        TSPInput tspInput = processInput(input.isBlank() ? "{}" : input);
+        tspInput.setDistanceMatrixConstraint(new DistanceMatrixConstraint(matrix));
+        return tspInput;
     }
 
-    protected TSPInput processLines(List<String> lines) {
+    protected TSPInput processTokens(NumberTokenizer tokens) {
         // Parse the data in the file
-        String[] firstLine = lines.get(0).split("\\s+");
-        int cityCount = Integer.parseInt(firstLine[0]);
-
-        double[][] cities = new double[cityCount][2];
-        for (int i = 1; i < cityCount + 1; i++) {
-            String line = lines.get(i);
-            String[] parts = line.split("\\s+");
-            double x = Double.parseDouble(parts[0]);
-            double y = Double.parseDouble(parts[1]);
-            cities[i - 1] = new double[]{x, y};
-        }
+        int cityCount = tokens.nextInt();
 
-        double[][] cityDistances = new double[cityCount][cityCount];
+        double[] xs = new double[cityCount];
+        double[] ys = new double[cityCount];
         for (int i = 0; i < cityCount; i++) {
-            for (int j = 0; j < cityCount; j++) {
-                if (i == j) {
-                    continue;
-                }
-                double[] srcCity = cities[i];
-                double[] destCity = cities[j];
-                double distance = calculateDistance(srcCity[0], srcCity[1], destCity[0], destCity[1]);
-                cityDistances[i][j] = distance;
-                cityDistances[j][i] = distance;
-            }
+            xs[i] = tokens.nextDouble();
+            ys[i] = tokens.nextDouble();
         }
+        double[][] cityDistances = DistanceMatrixUtil.euclidean(xs, ys);
 
         return TSPInput.builder()
                 .distanceMatrixConstraint(new DistanceMatrixConstraint(cityDistances))
@@ -4,14 +4,22 @@ import java.io.IOException;
 
 import io.github.seehiong.model.input.Input;
 import io.github.seehiong.model.output.Output;
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.github.seehiong.utils.NumberTokenizer;
 import reactor.core.publisher.Flux;
 
 public interface SolverService<I extends Input, O extends Output> {
 
     I processInput(String input) throws IOException;
 
-    I processFile(CompletedFileUpload file) throws IOException;
+    I processFile(NumberTokenizer tokens) throws IOException;
+
+    I processMatrix(String input, double[][] matrix) throws IOException;
 
     Flux<Object> solve(I input) throws IOException;
+
+    /**
+     * Solves on the scheduler only, without a progress channel, result store entry or cache lookup, for callers that
+     * consume the events themselves.
+     */
+    Flux<Object> solveUntracked(I input);
 }
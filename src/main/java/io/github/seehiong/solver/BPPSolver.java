@@ -1,6 +1,7 @@
 package io.github.seehiong.solver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.google.ortools.linearsolver.MPConstraint;
@@ -8,130 +9,182 @@ import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPVariable;
 
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.SolverState;
 import io.github.seehiong.model.input.BPPInput;
 import io.github.seehiong.model.metric.BinMetric;
 import io.github.seehiong.model.output.BPPOutput;
 import io.github.seehiong.solver.base.BaseSolver;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import jakarta.inject.Singleton;
+import io.github.seehiong.solver.base.NativeLibraries;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
-@Singleton
 public class BPPSolver extends BaseSolver<BPPInput, BPPOutput> {
 
-    private static final MPSolver solver = MPSolver.createSolver("SCIP");
-
     @Override
     protected BPPOutput createOutput() {
         return BPPOutput.builder().build();
     }
 
     @Override
-    public Flux<Object> solve(BPPInput input, PublishSubject<BPPOutput> publisher) {
+    public Flux<Object> solve(BPPInput input, int threads) {
         return Flux.create(emitter -> {
-            BPPOutput output = super.startSolve(input);
-            super.publishNext(emitter, publisher, output);
-
-            int numItems = input.getWeights().length;
-            int numBins = numItems;
-
-            MPVariable[][] x = new MPVariable[numItems][numBins];
-            for (int i = 0; i < numItems; ++i) {
-                for (int j = 0; j < numBins; ++j) {
-                    x[i][j] = solver.makeIntVar(0, 1, "");
+            BPPOutput output = super.startSolve(input, emitter);
+            super.publishNext(emitter, output);
+
+            NativeLibraries.load();
+            SolveTimings.begin("model");
+            // Each solve builds its model in its own native solver, released once done
+            MPSolver solver = MPSolver.createSolver("SCIP");
+            try {
+                if (threads > 1 && !solver.setNumThreads(threads)) {
+                    log.info("{} searches on one thread, SCIP ignores the {} granted", input.getSolverId(),
+                            threads);
                 }
-            }
-            MPVariable[] y = new MPVariable[numBins];
-            for (int j = 0; j < numBins; ++j) {
-                y[j] = solver.makeIntVar(0, 1, "");
-            }
+                int numItems = input.getWeights().length;
+                int numBins = numItems;
 
-            double infinity = java.lang.Double.POSITIVE_INFINITY;
-            for (int i = 0; i < numItems; ++i) {
-                MPConstraint constraint = solver.makeConstraint(1, 1, "");
+                MPVariable[][] x = new MPVariable[numItems][numBins];
+                for (int i = 0; i < numItems; ++i) {
+                    for (int j = 0; j < numBins; ++j) {
+                        x[i][j] = solver.makeIntVar(0, 1, "");
+                    }
+                }
+                MPVariable[] y = new MPVariable[numBins];
                 for (int j = 0; j < numBins; ++j) {
-                    constraint.setCoefficient(x[i][j], 1);
+                    y[j] = solver.makeIntVar(0, 1, "");
                 }
-            }
-            // The bin capacity contraint for bin j is
-            //   sum_i w_i x_ij <= C*y_j
-            // To define this constraint, first subtract the left side from the right to get
-            //   0 <= C*y_j - sum_i w_i x_ij
-            //
-            // Note: Since sum_i w_i x_ij is positive (and y_j is 0 or 1), the right side must
-            // be less than or equal to C. But it's not necessary to add this constraint
-            // because it is forced by the other constraints.
-
-            for (int j = 0; j < numBins; ++j) {
-                MPConstraint constraint = solver.makeConstraint(0, infinity, "");
-                constraint.setCoefficient(y[j], input.getCapacity());
+
+                double infinity = java.lang.Double.POSITIVE_INFINITY;
                 for (int i = 0; i < numItems; ++i) {
-                    constraint.setCoefficient(x[i][j], -input.getWeights()[i]);
+                    MPConstraint constraint = solver.makeConstraint(1, 1, "");
+                    for (int j = 0; j < numBins; ++j) {
+                        constraint.setCoefficient(x[i][j], 1);
+                    }
                 }
-            }
-
-            MPObjective objective = solver.objective();
-            for (int j = 0; j < numBins; ++j) {
-                objective.setCoefficient(y[j], 1);
-            }
-            objective.setMinimization();
-
-            final MPSolver.ResultStatus resultStatus = solver.solve();
+                // The bin capacity contraint for bin j is
+                //   sum_i w_i x_ij <= C*y_j
+                // To define this constraint, first subtract the left side from the right to get
+                //   0 <= C*y_j - sum_i w_i x_ij
+                //
+                // Note: Since sum_i w_i x_ij is positive (and y_j is 0 or 1), the right side must
+                // be less than or equal to C. But it's not necessary to add this constraint
+                // because it is forced by the other constraints.
 
-            // Check that the problem has an optimal solution.
-            if (resultStatus == MPSolver.ResultStatus.OPTIMAL) {
-                log.info("number of bins used: {}", objective.value());
-                double totalWeight = 0;
-
-                // Use Lists to dynamically track used bins
-                List<Integer> usedWeights = new ArrayList<>();
-                List<List<Integer>> usedItems = new ArrayList<>();
+                for (int j = 0; j < numBins; ++j) {
+                    MPConstraint constraint = solver.makeConstraint(0, infinity, "");
+                    constraint.setCoefficient(y[j], input.getCapacity());
+                    for (int i = 0; i < numItems; ++i) {
+                        constraint.setCoefficient(x[i][j], -input.getWeights()[i]);
+                    }
+                }
 
+                MPObjective objective = solver.objective();
                 for (int j = 0; j < numBins; ++j) {
-                    if (y[j].solutionValue() == 1) {
-                        log.debug("bin {}", j);
-                        double binWeight = 0;
-                        List<Integer> items = new ArrayList<>();
-
-                        for (int i = 0; i < numItems; ++i) {
-                            if (x[i][j].solutionValue() == 1) {
-                                log.debug("- item {}, weight: {}", i, input.getWeights()[i]);
-                                binWeight += input.getWeights()[i];
-                                items.add(i);
+                    objective.setCoefficient(y[j], 1);
+                }
+                objective.setMinimization();
+
+                // Warm start: the given packing is passed to the solver as a hint
+                int[] initialBins = binOf(input.getInitialSolution(), numItems);
+                if (initialBins != null) {
+                    MPVariable[] hinted = new MPVariable[numBins + numItems * numBins];
+                    double[] values = new double[hinted.length];
+                    System.arraycopy(y, 0, hinted, 0, numBins);
+                    for (int i = 0; i < numItems; i++) {
+                        System.arraycopy(x[i], 0, hinted, numBins + i * numBins, numBins);
+                        values[initialBins[i]] = 1.0;
+                        values[numBins + i * numBins + initialBins[i]] = 1.0;
+                    }
+                    solver.setHint(hinted, values);
+                } else if (input.getInitialSolution() != null) {
+                    log.warn("ignoring initial solution of {}, it does not pack every item exactly once",
+                            input.getSolverId());
+                }
+
+                SolveTimings.begin("search");
+                cancellation.setHook(solver::interruptSolve);
+                final MPSolver.ResultStatus resultStatus = cancellation.isCancelled() ? MPSolver.ResultStatus.NOT_SOLVED : solver.solve();
+                SolveTimings.end();
+
+                // Check that the problem has an optimal solution.
+                if (resultStatus == MPSolver.ResultStatus.OPTIMAL) {
+                    log.info("number of bins used: {}", objective.value());
+                    double totalWeight = 0;
+
+                    // Use Lists to dynamically track used bins
+                    List<Integer> usedWeights = new ArrayList<>();
+                    List<List<Integer>> usedItems = new ArrayList<>();
+
+                    for (int j = 0; j < numBins; ++j) {
+                        if (y[j].solutionValue() == 1) {
+                            log.debug("bin {}", j);
+                            double binWeight = 0;
+                            List<Integer> items = new ArrayList<>();
+
+                            for (int i = 0; i < numItems; ++i) {
+                                if (x[i][j].solutionValue() == 1) {
+                                    log.debug("- item {}, weight: {}", i, input.getWeights()[i]);
+                                    binWeight += input.getWeights()[i];
+                                    items.add(i);
+                                }
                             }
-                        }
-                        log.info("packed bin {}, weight: {}", j, binWeight);
+                            log.info("packed bin {}, weight: {}", j, binWeight);
 
-                        // Add the weight and items for this bin
-                        usedWeights.add((int) binWeight);
-                        usedItems.add(items);
+                            // Add the weight and items for this bin
+                            usedWeights.add((int) binWeight);
+                            usedItems.add(items);
 
-                        totalWeight += binWeight;
+                            totalWeight += binWeight;
+                        }
                     }
-                }
-                log.info("total packed weight: {}", totalWeight);
+                    log.info("total packed weight: {}", totalWeight);
 
-                BinMetric binMetric = BinMetric.builder()
-                        .weight(usedWeights)
-                        .items(usedItems)
-                        .build();
+                    BinMetric binMetric = BinMetric.builder()
+                            .weight(usedWeights)
+                            .items(usedItems)
+                            .build();
 
-                super.publishNext(emitter, publisher, BPPOutput.builder()
-                        .solverId(input.getSolverId())
-                        .solverState(SolverState.SOLVED)
-                        .binMetric(binMetric)
-                        .build());
+                    super.publishNext(emitter, BPPOutput.builder()
+                            .solverId(input.getSolverId())
+                            .solverState(SolverState.SOLVED)
+                            .binMetric(binMetric)
+                            .build());
 
-            } else {
-                log.info("the problem does not have an optimal solution.");
+                } else {
+                    log.info("the problem does not have an optimal solution.");
+                }
+            } finally {
+                cancellation.clearHook();
+                solver.delete();
             }
 
-            super.publishComplete(emitter, publisher);
-        }).subscribeOn(Schedulers.boundedElastic());
+            super.publishComplete(emitter);
+        });
     }
 
+    // Bin of every item in the given packing, null unless each item is packed exactly once
+    static int[] binOf(BinMetric packing, int numItems) {
+        if (packing == null || packing.getItems() == null || packing.getItems().size() > numItems) {
+            return null;
+        }
+        int[] bins = new int[numItems];
+        Arrays.fill(bins, -1);
+        for (int bin = 0; bin < packing.getItems().size(); bin++) {
+            List<Integer> items = packing.getItems().get(bin);
+            for (Integer item : items == null ? List.<Integer>of() : items) {
+                if (item == null || item < 0 || item >= numItems || bins[item] >= 0) {
+                    return null;
+                }
+                bins[item] = bin;
+            }
+        }
+        for (int bin : bins) {
+            if (bin < 0) {
+                return null;
+            }
+        }
+        return bins;
+    }
 }
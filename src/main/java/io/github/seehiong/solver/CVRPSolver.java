@@ -1,6 +1,8 @@
 package io.github.seehiong.solver;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.google.ortools.constraintsolver.Assignment;
@@ -12,28 +14,28 @@ import com.google.ortools.constraintsolver.RoutingSearchParameters;
 import com.google.ortools.constraintsolver.main;
 import com.google.protobuf.Duration;
 
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.SolverState;
 import io.github.seehiong.model.input.CVRPInput;
 import io.github.seehiong.model.metric.CostMetric;
 import io.github.seehiong.model.metric.VehicleRouteMetric;
 import io.github.seehiong.model.output.CVRPOutput;
 import io.github.seehiong.solver.base.BaseCVRPSolver;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import jakarta.inject.Singleton;
+import io.github.seehiong.solver.base.NativeLibraries;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
-@Singleton
 public class CVRPSolver extends BaseCVRPSolver {
 
     @Override
-    public Flux<Object> solve(CVRPInput input, PublishSubject<CVRPOutput> publisher) {
+    public Flux<Object> solve(CVRPInput input, int threads) {
         return Flux.create(emitter -> {
-            CVRPOutput output = super.startSolve(input);
-            super.publishNext(emitter, publisher, output);
+            CVRPOutput output = super.startSolve(input, emitter);
+            super.publishNext(emitter, output);
 
+            NativeLibraries.load();
+            SolveTimings.begin("model");
             RoutingIndexManager manager = new RoutingIndexManager(input.getDistances().length, input.getVehicleNumber(), 0); //defaults to 0 for depot
             // Create Routing Model
             RoutingModel routing = new RoutingModel(manager);
@@ -70,8 +72,16 @@ public class CVRPSolver extends BaseCVRPSolver {
                     .setTimeLimit(Duration.newBuilder().setSeconds(input.getTimeInSeconds()).build())
                     .build();
 
-            // Solve the problem.
-            Assignment solution = routing.solveWithParameters(searchParameters);
+            // Stop the search as soon as the solve is cancelled
+            routing.addSearchMonitor(routing.solver().makeCustomLimit(cancellation::isCancelled));
+
+            SolveTimings.begin("search");
+            // Solve the problem, from the initial routes when they are given
+            Assignment initialAssignment = readInitialRoutes(input, manager, routing, searchParameters);
+            Assignment solution = initialAssignment != null
+                    ? routing.solveFromAssignmentWithParameters(initialAssignment, searchParameters)
+                    : routing.solveWithParameters(searchParameters);
+            SolveTimings.end();
             VehicleRouteMetric routes = new VehicleRouteMetric(input.getVehicleNumber());
 
             if (solution != null) {
@@ -95,7 +105,7 @@ public class CVRPSolver extends BaseCVRPSolver {
                 String message = String.format("vehicleMap: %s", vehicleMap.toString());
                 log.info(message);
 
-                super.publishNext(emitter, publisher, CVRPOutput.builder()
+                super.publishNext(emitter, CVRPOutput.builder()
                         .solverId(input.getSolverId())
                         .solverState(SolverState.SOLVED)
                         .message(message)
@@ -104,11 +114,38 @@ public class CVRPSolver extends BaseCVRPSolver {
                         .customerCoordinateMetadata(super.customerCoord)
                         .build());
 
-            } else {
+            } else if (!cancellation.isCancelled()) {
                 emitter.error(new RuntimeException("No solution found"));
             }
 
-            super.publishComplete(emitter, publisher);
-        }).subscribeOn(Schedulers.boundedElastic());
+            super.publishComplete(emitter);
+        });
+    }
+
+    private Assignment readInitialRoutes(CVRPInput input, RoutingIndexManager manager, RoutingModel routing,
+            RoutingSearchParameters searchParameters) {
+        VehicleRouteMetric initialSolution = input.getInitialSolution();
+        if (initialSolution == null || initialSolution.getRoutes() == null) {
+            return null;
+        }
+
+        // Routes are given as nodes with the depot at both ends, the routing model wants the indices in between
+        int numNodes = input.getDistances().length;
+        ArrayList<Integer>[] given = initialSolution.getRoutes();
+        long[][] routes = new long[input.getVehicleNumber()][];
+        for (int vehicle = 0; vehicle < routes.length; vehicle++) {
+            List<Integer> route = vehicle < given.length && given[vehicle] != null ? given[vehicle] : List.of();
+            routes[vehicle] = route.stream()
+                    .filter(node -> node > 0 && node < numNodes)
+                    .mapToLong(manager::nodeToIndex)
+                    .toArray();
+        }
+
+        routing.closeModelWithParameters(searchParameters);
+        Assignment assignment = routing.readAssignmentFromRoutes(routes, true);
+        if (assignment == null) {
+            log.warn("ignoring initial solution of {}, its routes are not feasible", input.getSolverId());
+        }
+        return assignment;
     }
 }
@@ -8,6 +8,7 @@ import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPVariable;
 
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.SolverState;
 import io.github.seehiong.model.input.FLPInput;
 import io.github.seehiong.model.metadata.CustomerCoordinateMetadata;
@@ -16,17 +17,14 @@ import io.github.seehiong.model.metric.AssignmentMetric;
 import io.github.seehiong.model.metric.CostMetric;
 import io.github.seehiong.model.output.FLPOutput;
 import io.github.seehiong.solver.base.BaseSolver;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import jakarta.inject.Singleton;
+import io.github.seehiong.solver.base.NativeLibraries;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
-@Singleton
 public class FLPSolver extends BaseSolver<FLPInput, FLPOutput> {
 
-    private static final MPSolver solver = MPSolver.createSolver("SCIP");
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 1200000; // Used when the input has no solve time
 
     @Override
     protected FLPOutput createOutput() {
@@ -34,95 +32,145 @@ public class FLPSolver extends BaseSolver<FLPInput, FLPOutput> {
     }
 
     @Override
-    public Flux<Object> solve(FLPInput input, PublishSubject<FLPOutput> publisher) {
+    public Flux<Object> solve(FLPInput input, int threads) {
         return Flux.create(emitter -> {
-            FLPOutput output = super.startSolve(input);
-            super.publishNext(emitter, publisher, output);
-
-            int numFacility = input.getFacilityCoordinates().length;
-            int numCustomer = input.getCustomerCoordinates().length;
-
-            // Decision Variables: f[j] is 1 if facility j is opened, otherwise 0
-            MPVariable[] f = solver.makeIntVarArray(numFacility, 0.0, 1.0, "f_");
+            FLPOutput output = super.startSolve(input, emitter);
+            super.publishNext(emitter, output);
+
+            NativeLibraries.load();
+            SolveTimings.begin("model");
+            // Each solve builds its model in its own native solver, released once done
+            MPSolver solver = MPSolver.createSolver("SCIP");
+            try {
+                if (threads > 1 && !solver.setNumThreads(threads)) {
+                    log.info("{} searches on one thread, SCIP ignores the {} granted", input.getSolverId(),
+                            threads);
+                }
+                // Rows are customers, columns are facilities; a matrix upload may come without coordinates
+                int numCustomer = input.getDistances().length;
+                int numFacility = numCustomer == 0 ? input.getCosts().length : input.getDistances()[0].length;
 
-            // Decision Variables: a[i][j] is 1 when customer i is assigned to facility j, otherwise 0
-            MPVariable[][] a = new MPVariable[numCustomer][numFacility];
-            for (int i = 0; i < numCustomer; i++) {
-                a[i] = solver.makeIntVarArray(numFacility, 0.0, 1.0, "a_" + i);
-            }
+                // Decision Variables: f[j] is 1 if facility j is opened, otherwise 0
+                MPVariable[] f = solver.makeIntVarArray(numFacility, 0.0, 1.0, "f_");
 
-            // Customer constraint: Each customer is assigned to exactly one facility
-            for (int i = 0; i < numCustomer; i++) {
-                MPConstraint constraint = solver.makeConstraint(1.0, 1.0, "customer_" + i);
-                for (int j = 0; j < numFacility; j++) {
-                    constraint.setCoefficient(a[i][j], 1.0);
+                // Decision Variables: a[i][j] is 1 when customer i is assigned to facility j, otherwise 0
+                MPVariable[][] a = new MPVariable[numCustomer][numFacility];
+                for (int i = 0; i < numCustomer; i++) {
+                    a[i] = solver.makeIntVarArray(numFacility, 0.0, 1.0, "a_" + i);
                 }
-            }
 
-            // Capacity constraint: Facility capacities
-            for (int j = 0; j < numFacility; j++) {
-                MPConstraint constraint = solver.makeConstraint(-MPSolver.infinity(), 0.0, "capacity_" + j);
+                // Customer constraint: Each customer is assigned to exactly one facility
                 for (int i = 0; i < numCustomer; i++) {
-                    constraint.setCoefficient(a[i][j], input.getDemands()[i]);
+                    MPConstraint constraint = solver.makeConstraint(1.0, 1.0, "customer_" + i);
+                    for (int j = 0; j < numFacility; j++) {
+                        constraint.setCoefficient(a[i][j], 1.0);
+                    }
                 }
-                constraint.setCoefficient(f[j], -input.getCapacities()[j]);
-            }
 
-            // Objective function: minimize total cost (including setup and delivery cost)
-            MPObjective objective = solver.objective();
-            for (int j = 0; j < numFacility; j++) {
-                objective.setCoefficient(f[j], input.getCosts()[j]);
-                for (int i = 0; i < numCustomer; i++) {
-                    objective.setCoefficient(a[i][j], input.getDistances()[i][j]);
+                // Capacity constraint: Facility capacities
+                for (int j = 0; j < numFacility; j++) {
+                    MPConstraint constraint = solver.makeConstraint(-MPSolver.infinity(), 0.0, "capacity_" + j);
+                    for (int i = 0; i < numCustomer; i++) {
+                        constraint.setCoefficient(a[i][j], input.getDemands()[i]);
+                    }
+                    constraint.setCoefficient(f[j], -input.getCapacities()[j]);
                 }
-            }
-            objective.setMinimization();
-
-            // Set solver parameters
-            solver.enableOutput();
-            solver.setTimeLimit(1200000);
-
-            // Solve the problem
-            MPSolver.ResultStatus resultStatus = solver.solve();
-
-            // Prepare the solution
-            Map<String, Double> variables = new HashMap<>();
-            AssignmentMetric assignmentMetric = new AssignmentMetric(new int[numCustomer]);
-            if (resultStatus == MPSolver.ResultStatus.OPTIMAL || resultStatus == MPSolver.ResultStatus.FEASIBLE) {
-                for (int j = 0; j < numFacility; ++j) {
-                    if (f[j].solutionValue() > 0.5) {
-                        for (int i = 0; i < numCustomer; ++i) {
-                            if (a[i][j].solutionValue() > 0.0) {
-                                variables.put("a_" + i + "_" + j, a[i][j].solutionValue());
-                            }
+
+                // Objective function: minimize total cost (including setup and delivery cost)
+                MPObjective objective = solver.objective();
+                for (int j = 0; j < numFacility; j++) {
+                    objective.setCoefficient(f[j], input.getCosts()[j]);
+                    for (int i = 0; i < numCustomer; i++) {
+                        objective.setCoefficient(a[i][j], input.getDistances()[i][j]);
+                    }
+                }
+                objective.setMinimization();
+
+                // Set solver parameters
+                solver.enableOutput();
+                solver.setTimeLimit(input.getTimeInSeconds() > 0 ? input.getTimeInSeconds() * 1000 : DEFAULT_TIME_LIMIT_MILLIS);
+
+                // Warm start: the given assignment is passed to the solver as a hint
+                int[] initialAssignment = input.getInitialSolution() == null
+                        ? null
+                        : input.getInitialSolution().getAssignments();
+                if (isAssignment(initialAssignment, numCustomer, numFacility)) {
+                    MPVariable[] hinted = new MPVariable[numFacility + numCustomer * numFacility];
+                    double[] values = new double[hinted.length];
+                    System.arraycopy(f, 0, hinted, 0, numFacility);
+                    for (int i = 0; i < numCustomer; i++) {
+                        for (int j = 0; j < numFacility; j++) {
+                            hinted[numFacility + i * numFacility + j] = a[i][j];
                         }
-                        variables.put("f_" + j, f[j].solutionValue());
+                        values[initialAssignment[i]] = 1.0;
+                        values[numFacility + i * numFacility + initialAssignment[i]] = 1.0;
                     }
+                    solver.setHint(hinted, values);
+                } else if (input.getInitialSolution() != null) {
+                    log.warn("ignoring initial solution of {}, it does not assign every customer a facility",
+                            input.getSolverId());
                 }
-                log.info("solution: {}", variables);
 
-                for (int i = 0; i < numCustomer; ++i) {
+                // Solve the problem, unless cancelled while building the model
+                SolveTimings.begin("search");
+                cancellation.setHook(solver::interruptSolve);
+                MPSolver.ResultStatus resultStatus = cancellation.isCancelled() ? MPSolver.ResultStatus.NOT_SOLVED : solver.solve();
+                SolveTimings.end();
+
+                // Prepare the solution
+                Map<String, Double> variables = new HashMap<>();
+                AssignmentMetric assignmentMetric = new AssignmentMetric(new int[numCustomer]);
+                if (resultStatus == MPSolver.ResultStatus.OPTIMAL || resultStatus == MPSolver.ResultStatus.FEASIBLE) {
                     for (int j = 0; j < numFacility; ++j) {
-                        if (a[i][j].solutionValue() > 0.0) {
-                            assignmentMetric.getAssignments()[i] = j;
-                            log.debug("customer {} assigned to facility {}", i, j);
+                        if (f[j].solutionValue() > 0.5) {
+                            for (int i = 0; i < numCustomer; ++i) {
+                                if (a[i][j].solutionValue() > 0.0) {
+                                    variables.put("a_" + i + "_" + j, a[i][j].solutionValue());
+                                }
+                            }
+                            variables.put("f_" + j, f[j].solutionValue());
+                        }
+                    }
+                    log.info("solution: {}", variables);
+
+                    for (int i = 0; i < numCustomer; ++i) {
+                        for (int j = 0; j < numFacility; ++j) {
+                            if (a[i][j].solutionValue() > 0.0) {
+                                assignmentMetric.getAssignments()[i] = j;
+                                log.debug("customer {} assigned to facility {}", i, j);
+                            }
                         }
                     }
+                    log.info("solverId: {}", input.getSolverId());
+
+                    super.publishNext(emitter, FLPOutput.builder()
+                            .solverId(input.getSolverId())
+                            .solverState(SolverState.SOLVED)
+                            .assignmentMetric(assignmentMetric)
+                            .iteration((int) solver.iterations())
+                            .costMetric(new CostMetric(objective.value()))
+                            .facilityCoordinateMetadata(new FacilityCoordinateMetadata(input.getFacilityCoordinates()))
+                            .customerCoordinateMetadata(new CustomerCoordinateMetadata(input.getCustomerCoordinates()))
+                            .build());
                 }
-                log.info("solverId: {}", input.getSolverId());
-
-                super.publishNext(emitter, publisher, FLPOutput.builder()
-                        .solverId(input.getSolverId())
-                        .solverState(SolverState.SOLVED)
-                        .assignmentMetric(assignmentMetric)
-                        .iteration((int) solver.iterations())
-                        .costMetric(new CostMetric(objective.value()))
-                        .facilityCoordinateMetadata(new FacilityCoordinateMetadata(input.getFacilityCoordinates()))
-                        .customerCoordinateMetadata(new CustomerCoordinateMetadata(input.getCustomerCoordinates()))
-                        .build());
+            } finally {
+                cancellation.clearHook();
+                solver.delete();
             }
 
-            super.publishComplete(emitter, publisher);
-        }).subscribeOn(Schedulers.boundedElastic());
+            super.publishComplete(emitter);
+        });
+    }
+
+    private boolean isAssignment(int[] assignments, int numCustomer, int numFacility) {
+        if (assignments == null || assignments.length != numCustomer) {
+            return false;
+        }
+        for (int facility : assignments) {
+            if (facility < 0 || facility >= numFacility) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -11,7 +11,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.SolverState;
 import io.github.seehiong.model.input.TSPInput;
 import io.github.seehiong.model.metadata.CitiesMetadata;
@@ -20,14 +24,11 @@ import io.github.seehiong.model.metric.TourMetric;
 import io.github.seehiong.model.output.TSPOutput;
 import io.github.seehiong.solver.base.BaseSolver;
 import io.github.seehiong.utils.CoordUtil;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import jakarta.inject.Singleton;
+import io.github.seehiong.utils.TourUtil;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
-@Singleton
 public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
 
     // Configuration
@@ -62,9 +63,9 @@ public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
                 .build();
     }
 
-    // Random number generator function
+    // Random number generator function, contention free when offspring are bred in parallel
     int randNumber(int start, int end) {
-        return (int) (Math.random() * (end - start)) + start;
+        return (int) (ThreadLocalRandom.current().nextDouble() * (end - start)) + start;
     }
 
     double calculateDistance(int[] genome) {
@@ -249,7 +250,8 @@ public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
             newFitness = calculateFitness(newGenome);
 
             if (newFitness < individual.getCostMetric().getCost()
-                    || Math.exp((individual.getCostMetric().getCost() - newFitness) / temperature) > Math.random()) {
+                    || Math.exp((individual.getCostMetric().getCost() - newFitness) / temperature)
+                            > ThreadLocalRandom.current().nextDouble()) {
                 return newGenome;
             }
         }
@@ -324,7 +326,9 @@ public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
         for (int i = 0; i < 100; i++) {  // Simulated annealing iterations
             int[] mutatedGenome = mutateGenome(individual.getTourMetric().getTours());
             double mutatedFitness = calculateFitness(mutatedGenome);
-            if (mutatedFitness < individual.getCostMetric().getCost() || Math.exp((individual.getCostMetric().getCost() - mutatedFitness) / temperature) > Math.random()) {
+            if (mutatedFitness < individual.getCostMetric().getCost()
+                    || Math.exp((individual.getCostMetric().getCost() - mutatedFitness) / temperature)
+                            > ThreadLocalRandom.current().nextDouble()) {
                 individual.getTourMetric().setTours(mutatedGenome);
                 individual.getCostMetric().setCost(mutatedFitness);
                 break;
@@ -332,23 +336,63 @@ public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
         }
     }
 
+    // One offspring, bred from the two best or mutated from the i-th individual; touches no shared state but the memo
+    TSPOutput breed(List<TSPOutput> population, int i, double temperature) {
+        int[] newGnome;
+        if (ThreadLocalRandom.current().nextDouble() < 0.5) {
+            newGnome = performCrossover(population.get(0).getTourMetric().getTours(),
+                    population.get(1).getTourMetric().getTours());
+        } else {
+            TSPOutput randomIndividual = population.get(i);
+            newGnome = performMutation(randomIndividual, temperature);
+        }
+
+        newGnome = localSearch(newGnome);
+        TSPOutput newIndividual = getIndividual(newGnome, calculateFitness(newGnome));
+        simulatedAnnealing(newIndividual, temperature); // Apply simulated annealing
+        return newIndividual;
+    }
+
+    // The offspring of a generation, bred in parallel on the pool when there is one
+    List<TSPOutput> breedAll(List<TSPOutput> population, double temperature, ForkJoinPool pool) {
+        if (pool == null) {
+            List<TSPOutput> offspring = new ArrayList<>(POPULATION_SIZE);
+            for (int i = 0; i < POPULATION_SIZE; i++) {
+                offspring.add(breed(population, i, temperature));
+            }
+            return offspring;
+        }
+        return pool.submit(() -> IntStream.range(0, POPULATION_SIZE).parallel()
+                .mapToObj(i -> breed(population, i, temperature))
+                .toList()).join();
+    }
+
     @Override
     protected TSPOutput createOutput() {
         return TSPOutput.builder().build();
     }
 
     @Override
-    public Flux<Object> solve(TSPInput input, PublishSubject<TSPOutput> publisher) {
+    public Flux<Object> solve(TSPInput input, int threads) {
         return Flux.create(emitter -> {
-            TSPOutput output = super.startSolve(input);
-            super.publishNext(emitter, publisher, output);
+            TSPOutput output = super.startSolve(input, emitter);
+            super.publishNext(emitter, output);
 
             Instant startTime = Instant.now(); // Record the start time
             fitnessMemo.clear();
             graph = input.getDistances();
             maxCities = graph.length;
 
+            SolveTimings.begin("model");
             List<TSPOutput> population = initialPopulation();
+            int[] seed = TourUtil.normalize(input.getInitialSolution(), maxCities);
+            if (seed != null) {
+                // Warm start: the given tour replaces a random individual and survives through elitism
+                population.set(0, getIndividual(seed));
+            } else if (input.getInitialSolution() != null) {
+                log.warn("ignoring initial solution of {}, it is not a tour of all {} cities", input.getSolverId(),
+                        maxCities);
+            }
             TSPOutput bestIndividual = null;
             double bestFitness = Double.MAX_VALUE;
             int stagnationCount = 0;
@@ -356,100 +400,99 @@ public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
             double temperature = INITIAL_TEMPERATURE;
 
             CitiesMetadata cities = new CitiesMetadata(CoordUtil.deriveCoordinates(graph));
+            // Offspring are independent, so each generation is bred on as many threads as were granted
+            ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+
+            SolveTimings.begin("search");
+            try {
+                while (temperature > FINAL_TEMPERATURE && generation < MAX_GENERATIONS
+                        && stagnationResetCount < maxStagnationRetry && !cancellation.isCancelled()) {
+                    // Sort the population by fitness
+                    Collections.sort(population, Comparator.comparingDouble(a -> a.getCostMetric().getCost()));
+
+                    // Retain the best two individuals for elitism and crossover
+                    TSPOutput bestCurrentIndividual = population.get(0);
+                    TSPOutput secondBestIndividual = population.get(1);
+                    List<TSPOutput> newPopulation = Collections.synchronizedList(new ArrayList<>());
+                    newPopulation.add(bestCurrentIndividual);
+                    newPopulation.add(secondBestIndividual);
+
+                    // Perform crossover and mutation
+                    newPopulation.addAll(breedAll(population, temperature, pool));
+
+                    // Ensure population is updated correctly
+                    if (!newPopulation.isEmpty()) {
+                        // Use a mix of old and new population to maintain diversity
+                        population = new ArrayList<>(newPopulation);
+                        while (population.size() < POPULATION_SIZE) {
+                            int[] genome = createGenome();
+                            population.add(getIndividual(genome, calculateFitness(genome)));
+                        }
 
-            while (temperature > FINAL_TEMPERATURE && generation < MAX_GENERATIONS && stagnationResetCount < maxStagnationRetry) {
-                // Sort the population by fitness
-                Collections.sort(population, Comparator.comparingDouble(a -> a.getCostMetric().getCost()));
-
-                // Retain the best two individuals for elitism and crossover
-                TSPOutput bestCurrentIndividual = population.get(0);
-                TSPOutput secondBestIndividual = population.get(1);
-                List<TSPOutput> newPopulation = Collections.synchronizedList(new ArrayList<>());
-                newPopulation.add(bestCurrentIndividual);
-                newPopulation.add(secondBestIndividual);
-
-                // Perform crossover and mutation
-                for (int i = 0; i < POPULATION_SIZE; i++) {
-                    int[] newGnome;
-                    if (Math.random() < 0.5) {
-                        newGnome = performCrossover(bestCurrentIndividual.getTourMetric().getTours(), secondBestIndividual.getTourMetric().getTours());
                     } else {
-                        TSPOutput randomIndividual = population.get(i);
-                        newGnome = performMutation(randomIndividual, temperature);
+                        for (int i = 0; i < POPULATION_SIZE; i++) {
+                            int[] genome = createGenome();
+                            population.add(getIndividual(genome, calculateFitness(genome)));
+                        }
                     }
 
-                    newGnome = localSearch(newGnome);
-                    TSPOutput newIndividual = getIndividual(newGnome, calculateFitness(newGnome));
-                    simulatedAnnealing(newIndividual, temperature); // Apply simulated annealing
-                    newPopulation.add(newIndividual);
-                }
+                    // Update temperature regardless of population changes
+                    temperature = adaptiveCooling(temperature, generation);
+
+                    // Check for stagnation
+                    TSPOutput currentBest = Collections.min(population, Comparator.comparingDouble(a -> a.getCostMetric().getCost()));
+                    if (currentBest.getCostMetric().getCost() == bestFitness) {
+                        optimalCount++;
+                        log.info("potentially an optimal solution! {}", bestFitness);
+                        if (optimalCount > 5) {
+                            log.info("optimal solution, existing {}", bestFitness);
+                            break;
+                        }
+
+                    } else if (currentBest.getCostMetric().getCost() < bestFitness) {
+                        optimalCount = 0;
+                        bestIndividual = currentBest;
+                        bestFitness = bestIndividual.getCostMetric().getCost();
+                        Duration elapsedDuration = Duration.between(startTime, Instant.now());
+                        log.debug("elapsed: {}, generation {}, fitness {}, fitnessMemo {}", elapsedDuration.toSeconds(), generation, df.format(bestFitness), fitnessMemo.size());
+                        stagnationCount = 0;
+
+                        // Publish progress update
+                        TSPOutput bestOutput = TSPOutput.builder()
+                                .solverState(SolverState.SOLVING)
+                                .elapsedTime(elapsedDuration.toSeconds())
+                                .iteration(generation)
+                                .tourMetric(bestIndividual.getTourMetric())
+                                .costMetric(bestIndividual.getCostMetric())
+                                .citiesMetadata(cities)
+                                .costMetric(bestIndividual.getCostMetric())
+                                .iteration(generation)
+                                .build();
+                        super.publishNext(emitter, bestOutput);
 
-                // Ensure population is updated correctly
-                if (!newPopulation.isEmpty()) {
-                    // Use a mix of old and new population to maintain diversity
-                    population = new ArrayList<>(newPopulation);
-                    while (population.size() < POPULATION_SIZE) {
-                        int[] genome = createGenome();
-                        population.add(getIndividual(genome, calculateFitness(genome)));
+                    } else {
+                        stagnationCount++;
+                        if (stagnationCount >= STAGNATION_THRESHOLD) {
+                            // Increase mutation rate to escape local optima
+                            Duration elapsedDuration = Duration.between(startTime, Instant.now());
+                            log.debug("elapsed: {}, stagnation detected: {}", elapsedDuration.toSeconds(), stagnationResetCount);
+
+                            reinitializePartOfPopulation(population);  // Reinitialize part of the population
+                            stagnationCount = 0;  // Reset stagnation count
+                            stagnationResetCount++;
+                        }
                     }
 
-                } else {
-                    for (int i = 0; i < POPULATION_SIZE; i++) {
-                        int[] genome = createGenome();
-                        population.add(getIndividual(genome, calculateFitness(genome)));
-                    }
+                    generation++;
                 }
-
-                // Update temperature regardless of population changes
-                temperature = adaptiveCooling(temperature, generation);
-
-                // Check for stagnation
-                TSPOutput currentBest = Collections.min(population, Comparator.comparingDouble(a -> a.getCostMetric().getCost()));
-                if (currentBest.getCostMetric().getCost() == bestFitness) {
-                    optimalCount++;
-                    log.info("potentially an optimal solution! {}", bestFitness);
-                    if (optimalCount > 5) {
-                        log.info("optimal solution, existing {}", bestFitness);
-                        break;
-                    }
-
-                } else if (currentBest.getCostMetric().getCost() < bestFitness) {
-                    optimalCount = 0;
-                    bestIndividual = currentBest;
-                    bestFitness = bestIndividual.getCostMetric().getCost();
-                    Duration elapsedDuration = Duration.between(startTime, Instant.now());
-                    log.debug("elapsed: {}, generation {}, fitness {}, fitnessMemo {}", elapsedDuration.toSeconds(), generation, df.format(bestFitness), fitnessMemo.size());
-                    stagnationCount = 0;
-
-                    // Publish progress update
-                    TSPOutput bestOutput = TSPOutput.builder()
-                            .solverState(SolverState.SOLVING)
-                            .elapsedTime(elapsedDuration.toSeconds())
-                            .iteration(generation)
-                            .tourMetric(bestIndividual.getTourMetric())
-                            .costMetric(bestIndividual.getCostMetric())
-                            .citiesMetadata(cities)
-                            .costMetric(bestIndividual.getCostMetric())
-                            .iteration(generation)
-                            .build();
-                    super.publishNext(emitter, publisher, bestOutput);
-
-                } else {
-                    stagnationCount++;
-                    if (stagnationCount >= STAGNATION_THRESHOLD) {
-                        // Increase mutation rate to escape local optima
-                        Duration elapsedDuration = Duration.between(startTime, Instant.now());
-                        log.debug("elapsed: {}, stagnation detected: {}", elapsedDuration.toSeconds(), stagnationResetCount);
-
-                        reinitializePartOfPopulation(population);  // Reinitialize part of the population
-                        stagnationCount = 0;  // Reset stagnation count
-                        stagnationResetCount++;
-                    }
+            } finally {
+                if (pool != null) {
+                    pool.shutdownNow(); // Also when breeding fails or the solve is cancelled
                 }
-
-                generation++;
             }
 
+            SolveTimings.end();
+
             // Find and print the most efficient path
             log.info("most efficient path after generations:{}, temperature: {}", generation, temperature);
             if (bestIndividual != null) {
@@ -459,10 +502,10 @@ public class TSPGaSolver extends BaseSolver<TSPInput, TSPOutput> {
                 bestIndividual.setSolverState(SolverState.SOLVED);
                 bestIndividual.setIteration(generation);
                 bestIndividual.setCitiesMetadata(cities);
-                super.publishNext(emitter, publisher, bestIndividual);
+                super.publishNext(emitter, bestIndividual);
             }
 
-            super.publishComplete(emitter, publisher);
-        }).subscribeOn(Schedulers.boundedElastic());
+            super.publishComplete(emitter);
+        });
     }
 }
@@ -2,16 +2,22 @@ package io.github.seehiong.solver;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ParallelPortfolio;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
 import org.chocosolver.solver.search.strategy.selectors.variables.FirstFail;
 import org.chocosolver.solver.variables.IntVar;
 
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.SolverState;
 import io.github.seehiong.model.input.TSPInput;
 import io.github.seehiong.model.metadata.CitiesMetadata;
@@ -21,14 +27,11 @@ import io.github.seehiong.model.objective.MinMaxEnum;
 import io.github.seehiong.model.output.TSPOutput;
 import io.github.seehiong.solver.base.BaseSolver;
 import io.github.seehiong.utils.CoordUtil;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import jakarta.inject.Singleton;
+import io.github.seehiong.utils.TourUtil;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 @Slf4j
-@Singleton
 public class TSPSolver extends BaseSolver<TSPInput, TSPOutput> {
 
     @Override
@@ -37,10 +40,10 @@ public class TSPSolver extends BaseSolver<TSPInput, TSPOutput> {
     }
 
     @Override
-    public Flux<Object> solve(TSPInput input, PublishSubject<TSPOutput> publisher) {
+    public Flux<Object> solve(TSPInput input, int threads) {
         return Flux.create(emitter -> {
-            TSPOutput output = super.startSolve(input);
-            super.publishNext(emitter, publisher, output);
+            TSPOutput output = super.startSolve(input, emitter);
+            super.publishNext(emitter, output);
 
             Instant startTime = Instant.now(); // Record the start time
             double[][] distances = input.getDistances();
@@ -49,91 +52,121 @@ public class TSPSolver extends BaseSolver<TSPInput, TSPOutput> {
             CostMetric bestDistance = new CostMetric(Double.MAX_VALUE);
             CitiesMetadata cities = new CitiesMetadata(CoordUtil.deriveCoordinates(distances));
 
+            SolveTimings.begin("model");
             int n = distances.length;
-            Model model = new Model("TSP");
-            if (input.getSolveTime() != null) {
-                model.getSolver().limitTime(input.getSolveTime());
-            }
 
-            // Variables
-            IntVar[] tour = model.intVarArray("tour", n, 0, n - 1); // Tour representing the order of cities visited
-            IntVar[] distance = model.intVarArray("distance", n, 0, 1000000); // Auxiliary variables for distances
-            IntVar totalDistance = model.intVar("totalDistance", 0, 1000000); // Total distance traveled
-
-            // Constraints
-            // Define the distances between cities using table constraints
-            for (int i = 0; i < n; i++) {
-                Tuples tuples = new Tuples(true); // Create tuples to represent valid combinations of city and distance
-                for (int j = 0; j < n; j++) {
-                    if (j != i) {
-                        tuples.add(j, (int) distances[i][j]); // Add valid combinations of city and distance to tuples
-                    }
+            // Warm start: only tours shorter than the given one are searched for
+            int[] initialTour = TourUtil.normalize(input.getInitialSolution(), n);
+            Integer initialCost = null;
+            if (initialTour != null) {
+                int[] closedTour = Arrays.copyOf(initialTour, n + 1); // Back to city 0
+                int cost = 0;
+                for (int i = 0; i < n; i++) {
+                    cost += (int) distances[closedTour[i]][closedTour[i + 1]];
                 }
-                model.table(tour[i], distance[i], tuples).post(); // Apply table constraint for each city
-            }
-
-            // Ensure that the tour forms a single circuit, visiting each city exactly once
-            model.subCircuit(tour, 0, model.intVar(n)).post();
+                initialCost = cost;
+                bestDistance.setCost(cost);
+                bestTour.setTours(closedTour);
+                optimalSolution.put(bestDistance, bestTour);
 
-            // Define the objective: minimize the total distance traveled
-            model.sum(distance, "=", totalDistance).post();
-
-            if (input.getMinMaxEnum() != null) {
-                MinMaxEnum minMaxEnum = input.getMinMaxEnum();
-                model.setObjective(minMaxEnum == MinMaxEnum.MAXIMIZE ? Model.MAXIMIZE : Model.MINIMIZE, totalDistance);
-            } else {
-                model.setObjective(Model.MINIMIZE, totalDistance);
+                super.publishNext(emitter, TSPOutput.builder()
+                        .solverId(input.getSolverId())
+                        .solverState(SolverState.SOLVING)
+                        .message("initial solution")
+                        .tourMetric(bestTour)
+                        .costMetric(bestDistance)
+                        .citiesMetadata(cities)
+                        .build());
+            } else if (input.getInitialSolution() != null) {
+                log.warn("ignoring initial solution of {}, it is not a tour of all {} cities", input.getSolverId(), n);
             }
 
-            // Solver setup
-            org.chocosolver.solver.Solver solver = model.getSolver();
-            solver.setSearch(
-                    Search.intVarSearch(
-                            new FirstFail(model), // Use FirstFail search strategy to select variables
-                            new IntDomainMin(), // Priorities smaller values from domain of integer variables during search
-                            distance));
-
-            while (solver.solve()) {
-                int[] optimalTour = new int[n + 1];
-                int current = 0; // Start from the first city
-                optimalTour[0] = current;
-                for (int i = 1; i <= n; i++) {
-                    int next = tour[current].getValue(); // Get the next city in the tour
-                    optimalTour[i] = next;
-                    log.debug("current: {}, next: {}", current, next); // Print the current and next city
-                    current = tour[current].getValue(); // Move to the next city
+            // With several threads granted, a portfolio races a copy of the model per thread, sharing the best bound
+            List<TourModel> models = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                models.add(buildModel(input, initialCost));
+            }
+            ParallelPortfolio portfolio = null;
+            ForkJoinPool pool = null;
+            if (threads > 1) {
+                portfolio = new ParallelPortfolio();
+                for (TourModel tourModel : models) {
+                    portfolio.addModel(tourModel.model());
                 }
+                pool = new ForkJoinPool(threads); // The portfolio's parallel stream runs on it, not the common pool
+            }
 
-                if (totalDistance.getValue() < bestDistance.getCost()) {
-                    bestDistance.setCost(totalDistance.getValue());
-                    bestTour.setTours(optimalTour);
-                    optimalSolution.put(bestDistance, bestTour);
-                    log.info("best tour distance: {}", bestDistance); // Print the new best distance
-
-                    Duration elapsedDuration = Duration.between(startTime, Instant.now());
-                    TSPOutput bestOutput = TSPOutput.builder()
-                            .solverId(input.getSolverId())
-                            .solverState(SolverState.SOLVING)
-                            .elapsedTime(elapsedDuration.toSeconds())
-                            .iteration((int) model.getSolver().getSolutionCount())
-                            .costMetric(bestDistance)
-                            .build();
-                    bestOutput.setCitiesMetadata(cities);
-                    bestOutput.setTourMetric(optimalSolution.get(bestDistance));
-                    super.publishNext(emitter, publisher, bestOutput);
+            SolveTimings.begin("search");
+            TourModel best = models.get(0);
+            int solutions = 0;
+            try {
+                while (solveNext(best, portfolio, pool)) {
+                    if (portfolio != null) {
+                        Model bestModel = portfolio.getBestModel();
+                        best = models.stream().filter(tourModel -> tourModel.model() == bestModel).findFirst()
+                                .orElse(best);
+                    }
+                    solutions++;
+                    IntVar[] tour = best.tour();
+                    IntVar totalDistance = best.totalDistance();
+
+                    int[] optimalTour = new int[n + 1];
+                    int current = 0; // Start from the first city
+                    optimalTour[0] = current;
+                    for (int i = 1; i <= n; i++) {
+                        int next = tour[current].getValue(); // Get the next city in the tour
+                        optimalTour[i] = next;
+                        log.debug("current: {}, next: {}", current, next); // Print the current and next city
+                        current = tour[current].getValue(); // Move to the next city
+                    }
+
+                    if (totalDistance.getValue() < bestDistance.getCost()) {
+                        bestDistance.setCost(totalDistance.getValue());
+                        bestTour.setTours(optimalTour);
+                        optimalSolution.put(bestDistance, bestTour);
+                        log.info("best tour distance: {}", bestDistance); // Print the new best distance
+
+                        Duration elapsedDuration = Duration.between(startTime, Instant.now());
+                        TSPOutput bestOutput = TSPOutput.builder()
+                                .solverId(input.getSolverId())
+                                .solverState(SolverState.SOLVING)
+                                .elapsedTime(elapsedDuration.toSeconds())
+                                .iteration(solutions)
+                                .costMetric(bestDistance)
+                                .build();
+                        bestOutput.setCitiesMetadata(cities);
+                        bestOutput.setTourMetric(optimalSolution.get(bestDistance));
+                        super.publishNext(emitter, bestOutput);
+                    }
+                }
+            } finally {
+                if (pool != null) {
+                    pool.shutdownNow(); // Also when the search fails or is cancelled
                 }
             }
 
-            if (model.getSolver().hasObjective()) {
-                bestDistance.setCost(model.getSolver().getBestSolutionValue().doubleValue());
+            SolveTimings.end();
+
+            if (initialTour != null && solutions == 0) {
+                // Nothing shorter than the initial tour was found
+                super.publishNext(emitter, TSPOutput.builder()
+                        .solverId(input.getSolverId())
+                        .solverState(SolverState.SOLVED)
+                        .elapsedTime(Duration.between(startTime, Instant.now()).toSeconds())
+                        .tourMetric(bestTour)
+                        .costMetric(bestDistance)
+                        .citiesMetadata(cities)
+                        .build());
+            } else if (best.model().getSolver().hasObjective()) {
+                bestDistance.setCost(best.model().getSolver().getBestSolutionValue().doubleValue());
                 log.info("optimal tour distance: {}", bestDistance);
 
                 Duration elapsedDuration = Duration.between(startTime, Instant.now());
-                super.publishNext(emitter, publisher, TSPOutput.builder()
+                super.publishNext(emitter, TSPOutput.builder()
                         .solverId(input.getSolverId())
                         .solverState(SolverState.SOLVED)
                         .elapsedTime(elapsedDuration.toSeconds())
-                        .iteration((int) model.getSolver().getSolutionCount())
+                        .iteration(solutions)
                         .tourMetric(optimalSolution.get(bestDistance))
                         .costMetric(bestDistance)
                         .citiesMetadata(cities)
@@ -141,7 +174,71 @@ public class TSPSolver extends BaseSolver<TSPInput, TSPOutput> {
                         .build());
             }
 
-            super.publishComplete(emitter, publisher);
-        }).subscribeOn(Schedulers.boundedElastic());
+            super.publishComplete(emitter);
+        });
+    }
+
+    // A model of the tour, each thread of a portfolio searching its own copy
+    private TourModel buildModel(TSPInput input, Integer initialCost) {
+        double[][] distances = input.getDistances();
+        int n = distances.length;
+        Model model = new Model("TSP");
+        if (input.getSolveTime() != null) {
+            model.getSolver().limitTime(input.getSolveTime());
+        }
+
+        // Variables
+        IntVar[] tour = model.intVarArray("tour", n, 0, n - 1); // Tour representing the order of cities visited
+        IntVar[] distance = model.intVarArray("distance", n, 0, 1000000); // Auxiliary variables for distances
+        IntVar totalDistance = model.intVar("totalDistance", 0, 1000000); // Total distance traveled
+
+        // Constraints
+        // Define the distances between cities using table constraints
+        for (int i = 0; i < n; i++) {
+            Tuples tuples = new Tuples(true); // Create tuples to represent valid combinations of city and distance
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    tuples.add(j, (int) distances[i][j]); // Add valid combinations of city and distance to tuples
+                }
+            }
+            model.table(tour[i], distance[i], tuples).post(); // Apply table constraint for each city
+        }
+
+        // Ensure that the tour forms a single circuit, visiting each city exactly once
+        model.subCircuit(tour, 0, model.intVar(n)).post();
+
+        // Define the objective: minimize the total distance traveled
+        model.sum(distance, "=", totalDistance).post();
+
+        if (input.getMinMaxEnum() != null) {
+            MinMaxEnum minMaxEnum = input.getMinMaxEnum();
+            model.setObjective(minMaxEnum == MinMaxEnum.MAXIMIZE ? Model.MAXIMIZE : Model.MINIMIZE, totalDistance);
+        } else {
+            model.setObjective(Model.MINIMIZE, totalDistance);
+        }
+        if (initialCost != null && input.getMinMaxEnum() != MinMaxEnum.MAXIMIZE) {
+            model.arithm(totalDistance, "<", initialCost).post();
+        }
+
+        // Solver setup
+        org.chocosolver.solver.Solver solver = model.getSolver();
+        solver.addStopCriterion(cancellation::isCancelled);
+        solver.setSearch(
+                Search.intVarSearch(
+                        new FirstFail(model), // Use FirstFail search strategy to select variables
+                        new IntDomainMin(), // Priorities smaller values from domain of integer variables during search
+                        distance));
+        return new TourModel(model, tour, totalDistance);
+    }
+
+    // Searches for the next better tour, on the single model or on every model of the portfolio
+    private static boolean solveNext(TourModel single, ParallelPortfolio portfolio, ForkJoinPool pool) {
+        if (portfolio == null) {
+            return single.model().getSolver().solve();
+        }
+        return pool.submit(portfolio::solve).join();
+    }
+
+    private record TourModel(Model model, IntVar[] tour, IntVar totalDistance) {
     }
 }
@@ -5,11 +5,10 @@ import io.github.seehiong.model.input.CVRPInput;
 import io.github.seehiong.model.metadata.CustomerCoordinateMetadata;
 import io.github.seehiong.model.output.CVRPOutput;
 import io.github.seehiong.utils.CoordUtil;
-import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.FluxSink;
 
 @Slf4j
-@Singleton
 public abstract class BaseCVRPSolver extends BaseSolver<CVRPInput, CVRPOutput> {
 
     protected CustomerCoordinateMetadata customerCoord;
@@ -20,8 +19,8 @@ public abstract class BaseCVRPSolver extends BaseSolver<CVRPInput, CVRPOutput> {
     }
 
     @Override
-    protected CVRPOutput startSolve(CVRPInput input) {
-        CVRPOutput output = super.startSolve(input);
+    protected CVRPOutput startSolve(CVRPInput input, FluxSink<Object> emitter) {
+        CVRPOutput output = super.startSolve(input, emitter);
         populateCustomerCoordinateMetadata(input);
         output.setCustomerCoordinateMetadata(customerCoord);
         return output;
@@ -3,19 +3,23 @@ package io.github.seehiong.solver.base;
 import io.github.seehiong.model.SolverState;
 import io.github.seehiong.model.input.Input;
 import io.github.seehiong.model.output.Output;
-import io.reactivex.rxjava3.subjects.PublishSubject;
-import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.FluxSink;
 
 @Slf4j
-@Singleton
 public abstract class BaseSolver<I extends Input, O extends Output> implements Solver<I, O> {
 
+    protected final Cancellation cancellation = new Cancellation(); // Solvers are created per solve
+
     protected abstract O createOutput();
 
-    protected O startSolve(I input) {
+    protected O startSolve(I input, FluxSink<Object> emitter) {
         log.info("start solving for {}", input.getSolverId());
+        // A sink accepts a single cancel callback, so it is registered here and nowhere else
+        emitter.onCancel(() -> {
+            log.info("cancelling solve {}", input.getSolverId());
+            cancellation.cancel();
+        });
 
         O output = createOutput();
         output.setMessage(String.format("start solving for %s", input.getSolverId()));
@@ -23,14 +27,12 @@ public abstract class BaseSolver<I extends Input, O extends Output> implements S
         return output;
     }
 
-    protected void publishNext(FluxSink<Object> emitter, PublishSubject<O> publisher, O output) {
+    protected void publishNext(FluxSink<Object> emitter, O output) {
         emitter.next(output);
-        publisher.onNext(output);
     }
 
-    protected void publishComplete(FluxSink<Object> emitter, PublishSubject<O> publisher) {
+    protected void publishComplete(FluxSink<Object> emitter) {
         emitter.next("complete");
         emitter.complete();
-        publisher.onComplete();
     }
 }
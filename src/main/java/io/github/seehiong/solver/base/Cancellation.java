@@ -0,0 +1,42 @@
+package io.github.seehiong.solver.base;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stop request of a single solve.
+ * <p>
+ * Search loops poll {@link #isCancelled()}; engines that block inside native code register an interrupt hook
+ * for the time they are solving, and must clear it before releasing the engine.
+ */
+@Slf4j
+public class Cancellation {
+
+    private volatile boolean cancelled;
+    private Runnable hook;
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (hook != null) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                log.warn("failed to interrupt solve", e);
+            }
+        }
+    }
+
+    public synchronized void setHook(Runnable hook) {
+        this.hook = hook;
+    }
+
+    public synchronized void clearHook() {
+        this.hook = null;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.seehiong.solver.base;
+
+import com.google.ortools.Loader;
+
+import io.github.seehiong.metrics.SolveTimings;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the OR-Tools native library, SCIP and CBC included, the first time an engine needs it rather than at startup,
+ * so that instances serving only the Java engines never pay for it. The solve that loads it records a
+ * {@code native-load} phase.
+ */
+@Slf4j
+@UtilityClass
+public class NativeLibraries {
+
+    private static volatile boolean loaded;
+
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (NativeLibraries.class) {
+            if (loaded) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            try (SolveTimings.Phase phase = SolveTimings.phase("native-load")) {
+                Loader.loadNativeLibraries();
+            }
+            loaded = true;
+            log.info("OR-Tools native libraries loaded in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
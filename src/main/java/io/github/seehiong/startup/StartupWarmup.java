@@ -0,0 +1,138 @@
+package io.github.seehiong.startup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.github.seehiong.metrics.SolveMetrics;
+import io.github.seehiong.model.Priority;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.StartupStats;
+import io.github.seehiong.model.constraint.SolveTimeConstraint;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.QueuedOutput;
+import io.github.seehiong.service.base.SolverService;
+import io.github.seehiong.solver.base.NativeLibraries;
+import io.github.seehiong.utils.InstanceGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optionally solves tiny synthetic instances of each engine once the server is up, so that class loading, native
+ * initialisation and the first JIT compilations are paid before real requests arrive. The instance is reported
+ * ready, see {@link WarmupReadinessIndicator}, only once the warm-up is over.
+ */
+@Slf4j
+@Singleton
+public class StartupWarmup implements ApplicationEventListener<ServerStartupEvent> {
+
+    private static final Duration GRACE = Duration.ofSeconds(30); // Beyond the time limit before a solve is abandoned
+
+    private final WarmupConfiguration configuration;
+    private final Map<ProblemType, SolverService<?, ?>> services;
+    private final SolveMetrics metrics;
+    private final Map<ProblemType, List<Long>> warmupMillis = new EnumMap<>(ProblemType.class);
+    private volatile long serverStartedMillis = -1;
+    private volatile long readyMillis = -1;
+
+    public StartupWarmup(WarmupConfiguration configuration, Map<ProblemType, SolverService<?, ?>> services,
+            SolveMetrics metrics, MeterRegistry registry) {
+        this.configuration = configuration;
+        this.services = services;
+        this.metrics = metrics;
+        TimeGauge.builder("optimizer.startup.ready", this, TimeUnit.MILLISECONDS, warmup -> warmup.readyMillis)
+                .description("Time from JVM start until ready to serve, after any warm-up; -1 while warming up")
+                .register(registry);
+    }
+
+    @Override
+    public void onApplicationEvent(ServerStartupEvent event) {
+        serverStartedMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("server started {} ms after JVM start", serverStartedMillis);
+        if (!configuration.isEnabled()) {
+            readyMillis = serverStartedMillis;
+            return;
+        }
+        // Off the startup thread, so that the server answers liveness probes meanwhile
+        Thread.ofPlatform().name("warmup").daemon().start(this::warmUp);
+    }
+
+    public boolean isReady() {
+        return readyMillis >= 0;
+    }
+
+    public StartupStats getStats() {
+        Map<ProblemType, List<Long>> warmup;
+        synchronized (warmupMillis) {
+            warmup = new EnumMap<>(ProblemType.class);
+            warmupMillis.forEach((problem, millis) -> warmup.put(problem, List.copyOf(millis)));
+        }
+        return new StartupStats(serverStartedMillis, isReady() ? readyMillis : null, NativeLibraries.isLoaded(),
+                warmup, metrics.getFirstRequestMillis());
+    }
+
+    private void warmUp() {
+        List<ProblemType> problems = configuration.getProblems().isEmpty() ? List.of(ProblemType.values())
+                : configuration.getProblems();
+        for (int round = 0; round < configuration.getRounds(); round++) {
+            for (ProblemType problem : problems) {
+                SolverService<Input, Output> service = (SolverService<Input, Output>) services.get(problem);
+                if (service != null) {
+                    warmUp(problem, service, new Random(round * 31L + problem.ordinal()));
+                }
+            }
+        }
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("warm-up of {} over, ready {} ms after JVM start: {}", problems, readyMillis, warmupMillis);
+    }
+
+    private void warmUp(ProblemType problem, SolverService<Input, Output> service, Random random) {
+        Input input = input(problem, random);
+        input.setPriority(Priority.HIGH);
+        input.setSolveTimeConstraint(new SolveTimeConstraint(configuration.getTimeInSeconds() + "s",
+                configuration.getTimeInSeconds()));
+
+        long startedAt = System.nanoTime();
+        long[] firstSolutionAt = {-1};
+        int[] outputs = {0};
+        try {
+            service.solveUntracked(input)
+                    .filter(event -> event instanceof Output && !(event instanceof QueuedOutput))
+                    .doOnNext(event -> {
+                        // The first output announces the start, the second carries the first solution
+                        if (++outputs[0] == 2) {
+                            firstSolutionAt[0] = System.nanoTime();
+                        }
+                    })
+                    .blockLast(Duration.ofSeconds(configuration.getTimeInSeconds()).plus(GRACE));
+        } catch (RuntimeException e) {
+            log.warn("warm-up solve of {} failed", problem, e);
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis((firstSolutionAt[0] < 0 ? System.nanoTime() : firstSolutionAt[0])
+                - startedAt);
+        synchronized (warmupMillis) {
+            warmupMillis.computeIfAbsent(problem, key -> new ArrayList<>()).add(millis);
+        }
+    }
+
+    private Input input(ProblemType problem, Random random) {
+        int size = configuration.getSize();
+        return switch (problem) {
+            case TSP, TSP_GA -> InstanceGenerator.tspInput(InstanceGenerator.uniform(size, random));
+            case CVRP, CVRP_MIP -> InstanceGenerator.cvrpInput(InstanceGenerator.uniform(size, random), random);
+            case FLP -> InstanceGenerator.flpInput(InstanceGenerator.uniform(size, random), random);
+            case BPP -> InstanceGenerator.bppInput(size, random);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.seehiong.startup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.seehiong.model.ProblemType;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.warmup")
+public class WarmupConfiguration {
+
+    private boolean enabled = false;
+    private List<ProblemType> problems = new ArrayList<>(); // Engines to warm up, all when empty
+    private int size = 10; // Cities, customers or items of the synthetic instances
+    private int rounds = 2; // Solves per engine, the first one pays for class loading and native initialisation
+    private long timeInSeconds = 1; // Time limit of each warm-up solve
+
+}
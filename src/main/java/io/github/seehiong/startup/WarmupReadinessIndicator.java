@@ -0,0 +1,30 @@
+package io.github.seehiong.startup;
+
+import org.reactivestreams.Publisher;
+
+import io.micronaut.health.HealthStatus;
+import io.micronaut.management.health.indicator.HealthIndicator;
+import io.micronaut.management.health.indicator.HealthResult;
+import io.micronaut.management.health.indicator.annotation.Readiness;
+import jakarta.inject.Singleton;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps {@code /health/readiness} down until the startup warm-up, if enabled, is over. Its details carry the startup
+ * and first request latencies.
+ */
+@Readiness
+@Singleton
+@RequiredArgsConstructor
+public class WarmupReadinessIndicator implements HealthIndicator {
+
+    private final StartupWarmup warmup;
+
+    @Override
+    public Publisher<HealthResult> getResult() {
+        return Mono.just(HealthResult.builder("warmup", warmup.isReady() ? HealthStatus.UP : HealthStatus.DOWN)
+                .details(warmup.getStats())
+                .build());
+    }
+}
@@ -0,0 +1,329 @@
+package io.github.seehiong.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.seehiong.model.InstanceInfo;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.input.DistanceMatrixInput;
+import io.github.seehiong.model.input.Input;
+import io.github.seehiong.service.base.SolverService;
+import io.github.seehiong.utils.MatrixCodec;
+import io.github.seehiong.utils.MatrixCodec.MatrixPayload;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parsed problem instances registered once and referenced by id from later inputs.
+ * <p>
+ * Instances are held on the heap up to {@code optimizer.instances.max-weight} bytes, least recently used first out.
+ * When {@code optimizer.instances.spill-directory} is set, evicted instances are written there in the
+ * {@link MatrixCodec} layout and parsed back on their next use. Stored inputs are shared read-only across solves.
+ */
+@Slf4j
+@Singleton
+public class InstanceStore {
+
+    private static final String SPILL_SUFFIX = ".optm";
+
+    private final InstanceStoreConfiguration configuration;
+    private final Map<ProblemType, SolverService<?, ?>> services;
+    private final ObjectMapper objectMapper;
+    private final Path spillDirectory;
+
+    private final ReentrantLock lock = new ReentrantLock(); // Not the monitor, which would pin callers' virtual threads
+    private final LinkedHashMap<String, Instance> instances = new LinkedHashMap<>(16, 0.75f, true); // Access order
+    private final Map<String, Instance> spilling = new ConcurrentHashMap<>();
+    private final Map<String, SpilledInstance> spilled = new ConcurrentHashMap<>();
+    private long weight;
+
+    public InstanceStore(InstanceStoreConfiguration configuration, Map<ProblemType, SolverService<?, ?>> services,
+            ObjectMapper objectMapper) throws IOException {
+        this.configuration = configuration;
+        this.services = services;
+        this.objectMapper = objectMapper;
+        this.spillDirectory = configuration.getSpillDirectory() == null ? null : Path.of(configuration.getSpillDirectory());
+
+        if (spillDirectory != null) {
+            // Spilled instances do not outlive the process, clear the leftovers of a previous run
+            Files.createDirectories(spillDirectory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spillDirectory, "*" + SPILL_SUFFIX)) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        }
+    }
+
+    public InstanceInfo register(ProblemType problemType, Input input) throws IOException {
+        input.setInstanceId(null);
+        String header = header(input);
+        Instance instance = new Instance(UUID.randomUUID().toString(), problemType, input, header, estimateWeight(input, header));
+
+        List<Instance> evicted;
+        lock.lock();
+        try {
+            instances.put(instance.getInstanceId(), instance);
+            weight += instance.getWeight();
+            evicted = evict();
+        } finally {
+            lock.unlock();
+        }
+        spill(evicted);
+
+        log.debug("Registered {} instance {} ({} bytes)", problemType, instance.getInstanceId(), instance.getWeight());
+        return new InstanceInfo(instance.getInstanceId(), problemType, instance.getWeight(), false);
+    }
+
+    public Optional<InstanceInfo> info(String instanceId) {
+        lock.lock();
+        try {
+            Instance instance = instances.get(instanceId);
+            if (instance != null) {
+                return Optional.of(new InstanceInfo(instanceId, instance.getProblemType(), instance.getWeight(), false));
+            }
+        } finally {
+            lock.unlock();
+        }
+        Instance pending = spilling.get(instanceId);
+        if (pending != null) {
+            return Optional.of(new InstanceInfo(instanceId, pending.getProblemType(), pending.getWeight(), true));
+        }
+        SpilledInstance spilledInstance = spilled.get(instanceId);
+        if (spilledInstance != null) {
+            return Optional.of(new InstanceInfo(instanceId, spilledInstance.getProblemType(), spilledInstance.getWeight(), true));
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Input> get(String instanceId) throws IOException {
+        return Optional.ofNullable(lookup(instanceId)).map(Instance::getInput);
+    }
+
+    /**
+     * Completes an input referencing a registered instance with the instance's constraints.
+     *
+     * @param input input whose {@code instanceId} is set
+     * @throws IllegalArgumentException when the instance is unknown or of another input type
+     */
+    public void resolve(Input input) throws IOException {
+        String instanceId = input.getInstanceId();
+        Input instance = get(instanceId).orElseThrow(() -> new IllegalArgumentException("Unknown instance: " + instanceId));
+        if (!instance.getClass().equals(input.getClass())) {
+            throw new IllegalArgumentException(String.format("Instance %s is not a %s", instanceId, input.getClass().getSimpleName()));
+        }
+        input.applyInstance(instance);
+    }
+
+    public boolean remove(String instanceId) throws IOException {
+        boolean removed;
+        SpilledInstance spilledInstance;
+        // Spills and reloads publish under the same lock, so neither can bring the instance back once this returns
+        lock.lock();
+        try {
+            Instance instance = instances.remove(instanceId);
+            removed = instance != null;
+            if (removed) {
+                weight -= instance.getWeight();
+            }
+            removed |= spilling.remove(instanceId) != null;
+            spilledInstance = spilled.remove(instanceId);
+        } finally {
+            lock.unlock();
+        }
+
+        if (spilledInstance != null) {
+            Files.deleteIfExists(spilledInstance.getPath());
+            removed = true;
+        }
+        return removed;
+    }
+
+    private Instance lookup(String instanceId) throws IOException {
+        lock.lock();
+        try {
+            Instance instance = instances.get(instanceId);
+            if (instance != null) {
+                return instance;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Instance pending = spilling.get(instanceId);
+        if (pending != null) {
+            return pending;
+        }
+        SpilledInstance spilledInstance = spilled.get(instanceId);
+        return spilledInstance == null ? null : reload(instanceId, spilledInstance);
+    }
+
+    private Instance reload(String instanceId, SpilledInstance spilledInstance) throws IOException {
+        // One reader parses the file, concurrent lookups of the same instance wait for it
+        spilledInstance.getReload().lock();
+        try {
+            if (spilled.get(instanceId) != spilledInstance) {
+                return lookup(instanceId);
+            }
+
+            MatrixPayload payload;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(spilledInstance.getPath()), 64 * 1024)) {
+                payload = MatrixCodec.decode(in, Integer.MAX_VALUE); // Written by this store
+            }
+            SolverService<?, ?> service = services.get(spilledInstance.getProblemType());
+            Input input = payload.getMatrix().length == 0
+                    ? (Input) service.processInput(payload.getHeader())
+                    : (Input) service.processMatrix(payload.getHeader(), payload.getMatrix());
+            input.setInstanceId(null);
+            Instance instance = new Instance(instanceId, spilledInstance.getProblemType(), input, payload.getHeader(),
+                    spilledInstance.getWeight());
+
+            List<Instance> evicted;
+            lock.lock();
+            try {
+                if (!spilled.remove(instanceId, spilledInstance)) {
+                    return null; // Removed while the file was read, and remove() has deleted it
+                }
+                instances.put(instanceId, instance);
+                weight += instance.getWeight();
+                evicted = evict();
+            } finally {
+                lock.unlock();
+            }
+            Files.deleteIfExists(spilledInstance.getPath());
+            spill(evicted);
+
+            log.debug("Reloaded instance {} from {}", instanceId, spilledInstance.getPath());
+            return instance;
+        } finally {
+            spilledInstance.getReload().unlock();
+        }
+    }
+
+    // Called with the lock held; the most recent instance always stays, even when it alone exceeds the budget
+    private List<Instance> evict() {
+        List<Instance> evicted = new ArrayList<>();
+        Iterator<Instance> eldest = instances.values().iterator();
+        while (weight > configuration.getMaxWeight() && instances.size() > 1) {
+            Instance instance = eldest.next();
+            eldest.remove();
+            weight -= instance.getWeight();
+            if (spillDirectory != null) {
+                spilling.put(instance.getInstanceId(), instance);
+                evicted.add(instance);
+            } else {
+                log.debug("Evicted instance {}", instance.getInstanceId());
+            }
+        }
+        return evicted;
+    }
+
+    private void spill(List<Instance> evicted) {
+        for (Instance instance : evicted) {
+            String instanceId = instance.getInstanceId();
+            Path path = spillDirectory.resolve(instanceId + SPILL_SUFFIX);
+            boolean published = false;
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024)) {
+                    MatrixCodec.encode(instance.getHeader(), matrix(instance.getInput()), out);
+                }
+                // Publish only if no remove() took the instance out of spilling while the file was written
+                lock.lock();
+                try {
+                    if (spilling.remove(instanceId, instance)) {
+                        spilled.put(instanceId, new SpilledInstance(instance.getProblemType(), path, instance.getWeight()));
+                        published = true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                log.debug(published ? "Spilled instance {} to {}" : "Instance {} removed while spilling to {}", instanceId, path);
+            } catch (IOException e) {
+                log.warn("Failed to spill instance {}, dropping it", instanceId, e);
+            } finally {
+                if (!published) {
+                    spilling.remove(instanceId, instance);
+                    deleteQuietly(path);
+                }
+            }
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", path, e);
+        }
+    }
+
+    // JSON of the input without its distance matrix, taken while the input is not shared yet
+    private String header(Input input) throws IOException {
+        if (input instanceof DistanceMatrixInput matrixInput) {
+            DistanceMatrixConstraint distanceMatrixConstraint = matrixInput.getDistanceMatrixConstraint();
+            matrixInput.setDistanceMatrixConstraint(null);
+            try {
+                return objectMapper.writeValueAsString(input);
+            } finally {
+                matrixInput.setDistanceMatrixConstraint(distanceMatrixConstraint);
+            }
+        }
+        return objectMapper.writeValueAsString(input);
+    }
+
+    private double[][] matrix(Input input) {
+        if (input instanceof DistanceMatrixInput matrixInput && matrixInput.getDistanceMatrixConstraint() != null
+                && matrixInput.getDistanceMatrixConstraint().getDistances() != null) {
+            return matrixInput.getDistanceMatrixConstraint().getDistances();
+        }
+        return new double[0][];
+    }
+
+    // Matrix rows plus a rough allowance for the remaining constraints, sized after their JSON
+    private long estimateWeight(Input input, String header) {
+        long matrixWeight = 0;
+        for (double[] row : matrix(input)) {
+            matrixWeight += 16L + (long) row.length * Double.BYTES;
+        }
+        return matrixWeight + 4L * header.length();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Instance {
+
+        private final String instanceId;
+        private final ProblemType problemType;
+        private final Input input;
+        private final String header;
+        private final long weight;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class SpilledInstance {
+
+        private final ProblemType problemType;
+        private final Path path;
+        private final long weight;
+        private final ReentrantLock reload = new ReentrantLock(); // Held while the file is parsed back
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.seehiong.store;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.instances")
+public class InstanceStoreConfiguration {
+
+    private long maxWeight = 1024L * 1024 * 1024; // Heap bytes kept before the least recently used instances are evicted
+    private String spillDirectory; // Evicted instances are written here when set, dropped otherwise
+
+}
@@ -0,0 +1,329 @@
+package io.github.seehiong.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.ResultStoreStats;
+import io.github.seehiong.model.output.Output;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Result store keeping completed outputs in an append-only log of memory-mapped segments under
+ * {@code optimizer.results.log-directory}, so they survive restarts and are read straight from the page cache.
+ * <p>
+ * Outputs of running solves stay on the heap; only the last one is appended once the solve completes. Each record
+ * is {@code [length][crc32][writtenAt][idLength][id][json]} and an in-memory index maps every solverId to its latest
+ * record, rebuilt by scanning the segments at startup. Compaction drops expired records, rewrites segments that are
+ * mostly superseded and deletes the oldest segments beyond {@code optimizer.results.max-log-size}.
+ */
+@Slf4j
+@Singleton
+@Requires(property = "optimizer.results.store", value = "log")
+public class LogResultStore implements ResultStore {
+
+    private static final String SEGMENT_PREFIX = "results-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES;
+
+    private final ResultStoreConfiguration configuration;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    private final Map<String, byte[]> running = new ConcurrentHashMap<>(); // Latest output of unfinished solves
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new ArrayList<>(); // Oldest first, appending to the last
+    private long nextSegmentId;
+
+    private final AtomicLong runningWeight = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public LogResultStore(ResultStoreConfiguration configuration, ObjectMapper objectMapper) throws IOException {
+        this.configuration = configuration;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(configuration.getLogDirectory());
+
+        Files.createDirectories(directory);
+        load();
+        roll(0);
+        log.info("result log opened with {} results in {} segments", index.size(), segments.size());
+    }
+
+    @Override
+    public void put(String solverId, Output output) {
+        byte[] json;
+        try (SolveTimings.Phase phase = SolveTimings.phase("serialize")) {
+            json = objectMapper.writeValueAsBytes(output);
+        } catch (IOException e) {
+            log.warn("failed to serialize result of {}", solverId, e);
+            return;
+        }
+        byte[] previous = running.put(solverId, json);
+        runningWeight.addAndGet(json.length - (previous == null ? 0 : previous.length));
+    }
+
+    @Override
+    public void complete(String solverId) {
+        byte[] json = running.remove(solverId);
+        if (json == null) {
+            return;
+        }
+        runningWeight.addAndGet(-json.length);
+        try {
+            index.put(solverId, append(solverId, json, System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.warn("failed to append result of {}, dropping it", solverId, e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> get(String solverId) {
+        byte[] json = running.get(solverId);
+        if (json != null) {
+            hits.incrementAndGet();
+            return Optional.of(json);
+        }
+
+        Location location = index.get(solverId);
+        if (location != null && isExpired(location.getWrittenAt(), System.currentTimeMillis())) {
+            if (index.remove(solverId, location)) {
+                expirations.incrementAndGet();
+            }
+            location = null;
+        }
+        if (location == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(read(location));
+    }
+
+    @Override
+    public ResultStoreStats getStats() {
+        return new ResultStoreStats(running.size(), runningWeight.get(), index.size(), hits.get(), misses.get(),
+                evictions.get(), expirations.get());
+    }
+
+    @Scheduled(fixedDelay = "${optimizer.results.compaction-interval:5m}")
+    public void compact() {
+        long now = System.currentTimeMillis();
+        index.forEach((solverId, location) -> {
+            if (isExpired(location.getWrittenAt(), now) && index.remove(solverId, location)) {
+                expirations.incrementAndGet();
+            }
+        });
+
+        List<Segment> sealed;
+        long logSize = 0;
+        synchronized (this) {
+            sealed = new ArrayList<>(segments.subList(0, segments.size() - 1));
+            for (Segment segment : segments) {
+                logSize += segment.position;
+            }
+        }
+        Map<Segment, Long> liveBytes = new HashMap<>();
+        for (Location location : index.values()) {
+            liveBytes.merge(location.getSegment(), (long) location.getRecordSize(), Long::sum);
+        }
+
+        for (Segment segment : sealed) {
+            long live = liveBytes.getOrDefault(segment, 0L);
+            if (logSize > configuration.getMaxLogSize()) {
+                // Over the size cap, the oldest results go first
+                index.forEach((solverId, location) -> {
+                    if (location.getSegment() == segment && index.remove(solverId, location)) {
+                        evictions.incrementAndGet();
+                    }
+                });
+            } else if (live > 0 && live * 2 >= segment.position) {
+                continue;
+            } else {
+                index.forEach((solverId, location) -> {
+                    if (location.getSegment() == segment) {
+                        try {
+                            Location moved = append(solverId, read(location), location.getWrittenAt());
+                            index.replace(solverId, location, moved);
+                        } catch (IOException e) {
+                            log.warn("failed to move result of {} while compacting, dropping it", solverId, e);
+                            index.remove(solverId, location);
+                        }
+                    }
+                });
+            }
+            logSize -= segment.position;
+            delete(segment);
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        segments.get(segments.size() - 1).buffer.force();
+    }
+
+    private synchronized Location append(String solverId, byte[] json, long writtenAt) throws IOException {
+        byte[] id = solverId.getBytes(StandardCharsets.UTF_8);
+        int recordSize = HEADER_BYTES + id.length + json.length;
+        Segment active = segments.get(segments.size() - 1);
+        if (active.remaining() < recordSize) {
+            active.buffer.force();
+            active = roll(recordSize);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(recordSize);
+        record.putInt(recordSize - Integer.BYTES);
+        record.putInt(0); // Checksum, filled in below
+        record.putLong(writtenAt);
+        record.putShort((short) id.length);
+        record.put(id);
+        record.put(json);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 2 * Integer.BYTES, recordSize - 2 * Integer.BYTES);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+
+        int offset = active.position;
+        active.buffer.put(offset, record.array());
+        active.position += recordSize;
+        return new Location(active, offset + recordSize - json.length, json.length, recordSize, writtenAt);
+    }
+
+    private byte[] read(Location location) {
+        byte[] json = new byte[location.getLength()];
+        location.getSegment().buffer.get(location.getOffset(), json);
+        return json;
+    }
+
+    private void load() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(paths::add);
+        }
+        paths.sort(Comparator.comparingLong(LogResultStore::segmentId));
+
+        long now = System.currentTimeMillis();
+        for (Path path : paths) {
+            Segment segment = Segment.map(path, (int) Files.size(path));
+            segments.add(segment);
+            nextSegmentId = Math.max(nextSegmentId, segmentId(path) + 1);
+
+            MappedByteBuffer buffer = segment.buffer;
+            int position = 0;
+            while (position + HEADER_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                int recordSize = Integer.BYTES + length;
+                if (length <= 0 || position + recordSize > buffer.capacity()) {
+                    break; // End of the written part
+                }
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(position + 2 * Integer.BYTES, recordSize - 2 * Integer.BYTES));
+                if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                    log.warn("corrupt record at {} of {}, ignoring the rest of the segment", position, path);
+                    break;
+                }
+
+                long writtenAt = buffer.getLong(position + 2 * Integer.BYTES);
+                short idLength = buffer.getShort(position + 2 * Integer.BYTES + Long.BYTES);
+                byte[] id = new byte[idLength];
+                buffer.get(position + HEADER_BYTES, id);
+                int jsonOffset = position + HEADER_BYTES + idLength;
+                int jsonLength = position + recordSize - jsonOffset;
+                if (!isExpired(writtenAt, now)) {
+                    index.put(new String(id, StandardCharsets.UTF_8),
+                            new Location(segment, jsonOffset, jsonLength, recordSize, writtenAt));
+                }
+                position += recordSize;
+            }
+            segment.position = position; // Sealed, nothing is appended to a loaded segment
+        }
+    }
+
+    private synchronized Segment roll(int minSize) throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX);
+        Segment segment = Segment.map(path, Math.max(configuration.getSegmentSize(), minSize));
+        segment.position = 0;
+        segments.add(segment);
+        return segment;
+    }
+
+    private void delete(Segment segment) {
+        synchronized (this) {
+            segments.remove(segment);
+        }
+        // Readers still holding the mapping keep reading it, the file is gone once it is unmapped
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("failed to delete result segment {}", segment.path, e);
+        }
+    }
+
+    private boolean isExpired(long writtenAt, long now) {
+        return now - writtenAt > configuration.getTtl().toMillis();
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Location {
+
+        private final Segment segment;
+        private final int offset; // Of the JSON within the segment
+        private final int length; // Of the JSON
+        private final int recordSize;
+        private final long writtenAt; // Epoch milliseconds, so it holds across restarts
+    }
+
+    private static class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position; // Next write offset, guarded by the store
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path path, int size) throws IOException {
+            // The mapping stays valid once the channel is closed
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+    }
+}
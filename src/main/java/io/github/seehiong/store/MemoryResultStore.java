@@ -0,0 +1,232 @@
+package io.github.seehiong.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.ResultStoreStats;
+import io.github.seehiong.model.output.Output;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latest output of every solve, kept on the heap as serialized JSON.
+ * <p>
+ * Results expire {@code optimizer.results.ttl} after their last update and the oldest are evicted once the stored
+ * bytes exceed {@code optimizer.results.max-weight}. Completed results evicted for weight are written, gzipped, to
+ * {@code optimizer.results.spill-directory} when it is set, and read back from there until they expire.
+ */
+@Slf4j
+@Singleton
+@Requires(property = "optimizer.results.store", value = "memory", defaultValue = "memory")
+public class MemoryResultStore implements ResultStore {
+
+    private static final String SPILL_SUFFIX = ".json.gz";
+
+    private final ResultStoreConfiguration configuration;
+    private final ObjectMapper objectMapper;
+    private final Path spillDirectory;
+
+    private final LinkedHashMap<String, Result> results = new LinkedHashMap<>(); // Write order, oldest first
+    private final Map<String, Result> spilling = new ConcurrentHashMap<>();
+    private final Map<String, SpilledResult> spilled = new ConcurrentHashMap<>();
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public MemoryResultStore(ResultStoreConfiguration configuration, ObjectMapper objectMapper) throws IOException {
+        this.configuration = configuration;
+        this.objectMapper = objectMapper;
+        this.spillDirectory = configuration.getSpillDirectory() == null ? null : Path.of(configuration.getSpillDirectory());
+
+        if (spillDirectory != null) {
+            Files.createDirectories(spillDirectory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spillDirectory, "*" + SPILL_SUFFIX)) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void put(String solverId, Output output) {
+        byte[] json;
+        try (SolveTimings.Phase phase = SolveTimings.phase("serialize")) {
+            json = objectMapper.writeValueAsBytes(output);
+        } catch (IOException e) {
+            log.warn("failed to serialize result of {}", solverId, e);
+            return;
+        }
+
+        long now = System.nanoTime();
+        List<Result> evicted;
+        synchronized (this) {
+            Result previous = results.remove(solverId);
+            if (previous != null) {
+                weight -= previous.getJson().length;
+            }
+            results.put(solverId, new Result(solverId, json, now, false));
+            weight += json.length;
+            evicted = evict(now);
+        }
+        spill(evicted);
+    }
+
+    @Override
+    public synchronized void complete(String solverId) {
+        Result result = results.get(solverId);
+        if (result != null) {
+            result.setCompleted(true);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> get(String solverId) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Result result = results.get(solverId);
+            if (result != null && !isExpired(result.getWrittenAt(), now)) {
+                hits.incrementAndGet();
+                return Optional.of(result.getJson());
+            }
+        }
+        Result pending = spilling.get(solverId);
+        if (pending != null) {
+            hits.incrementAndGet();
+            return Optional.of(pending.getJson());
+        }
+
+        SpilledResult spilledResult = spilled.get(solverId);
+        if (spilledResult != null) {
+            if (isExpired(spilledResult.getWrittenAt(), now)) {
+                expire(solverId, spilledResult);
+            } else {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(spilledResult.getPath()))) {
+                    byte[] json = in.readAllBytes();
+                    hits.incrementAndGet();
+                    return Optional.of(json);
+                } catch (IOException e) {
+                    log.warn("failed to read spilled result of {}", solverId, e);
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    @Override
+    public ResultStoreStats getStats() {
+        synchronized (this) {
+            return new ResultStoreStats(results.size(), weight, spilled.size(), hits.get(), misses.get(), evictions.get(),
+                    expirations.get());
+        }
+    }
+
+    // Called with the lock held. Results are in write order, so expired ones are all at the head
+    private List<Result> evict(long now) {
+        List<Result> evicted = new ArrayList<>();
+        Iterator<Result> eldest = results.values().iterator();
+        while (eldest.hasNext() && results.size() > 1) {
+            Result result = eldest.next();
+            boolean expired = isExpired(result.getWrittenAt(), now);
+            if (!expired && weight <= configuration.getMaxWeight()) {
+                break;
+            }
+            eldest.remove();
+            weight -= result.getJson().length;
+            if (expired) {
+                expirations.incrementAndGet();
+            } else {
+                evictions.incrementAndGet();
+                if (spillDirectory != null && result.isCompleted()) {
+                    spilling.put(result.getSolverId(), result);
+                    evicted.add(result);
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private void spill(List<Result> evicted) {
+        if (evicted.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        spilled.forEach((solverId, spilledResult) -> {
+            if (isExpired(spilledResult.getWrittenAt(), now)) {
+                expire(solverId, spilledResult);
+            }
+        });
+
+        for (Result result : evicted) {
+            Path path = spillDirectory.resolve(result.getSolverId() + SPILL_SUFFIX);
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+                    out.write(result.getJson());
+                }
+                spilled.put(result.getSolverId(), new SpilledResult(path, result.getWrittenAt()));
+            } catch (IOException e) {
+                log.warn("failed to spill result of {}, dropping it", result.getSolverId(), e);
+            } finally {
+                spilling.remove(result.getSolverId());
+            }
+        }
+    }
+
+    private void expire(String solverId, SpilledResult spilledResult) {
+        if (spilled.remove(solverId, spilledResult)) {
+            expirations.incrementAndGet();
+            try {
+                Files.deleteIfExists(spilledResult.getPath());
+            } catch (IOException e) {
+                log.warn("failed to delete spilled result {}", spilledResult.getPath(), e);
+            }
+        }
+    }
+
+    private boolean isExpired(long writtenAt, long now) {
+        return now - writtenAt > configuration.getTtl().toNanos();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Result {
+
+        private final String solverId;
+        private final byte[] json;
+        private final long writtenAt;
+        @Setter
+        private volatile boolean completed;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class SpilledResult {
+
+        private final Path path;
+        private final long writtenAt;
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.seehiong.store;
+
+import java.util.Optional;
+
+import io.github.seehiong.model.ResultStoreStats;
+import io.github.seehiong.model.output.Output;
+
+/**
+ * Latest output of every solve, served as serialized JSON. The implementation is picked with
+ * {@code optimizer.results.store}: {@code memory} (default) or {@code log}.
+ */
+public interface ResultStore {
+
+    /**
+     * Replaces the latest output of a solve.
+     */
+    void put(String solverId, Output output);
+
+    /**
+     * Marks the result of a finished solve, after which it no longer changes.
+     */
+    void complete(String solverId);
+
+    Optional<byte[]> get(String solverId);
+
+    ResultStoreStats getStats();
+}
@@ -0,0 +1,22 @@
+package io.github.seehiong.store;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("optimizer.results")
+public class ResultStoreConfiguration {
+
+    private Duration ttl = Duration.ofHours(1); // How long a result stays readable after its last update
+    private long maxWeight = 256L * 1024 * 1024; // Serialized bytes kept on the heap
+    private String spillDirectory; // Completed results evicted for weight are written here when set
+
+    private String store = "memory"; // memory, or log to keep completed results across restarts
+    private String logDirectory = "data/results"; // Segments of the log store
+    private int segmentSize = 64 * 1024 * 1024; // Bytes mapped per log segment
+    private long maxLogSize = 4L * 1024 * 1024 * 1024; // Log bytes kept on disk, oldest segments dropped first
+    private Duration compactionInterval = Duration.ofMinutes(5); // How often the log store drops superseded records
+
+}
@@ -5,6 +5,7 @@ import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealMatrix;
 
+import io.github.seehiong.metrics.SolveTimings;
 import io.github.seehiong.model.Coordinate;
 import lombok.experimental.UtilityClass;
 
@@ -21,6 +22,13 @@ public class CoordUtil {
     }
 
     public double[][] deriveCoordinates(double[][] distances) {
+        try (SolveTimings.Phase phase = SolveTimings.phase("mds")) {
+            return classicalScaling(distances);
+        }
+    }
+
+    // Classical multidimensional scaling onto the two largest eigenvectors
+    private double[][] classicalScaling(double[][] distances) {
         int n = distances.length;
         double[][] coordinates = new double[n][2];
 
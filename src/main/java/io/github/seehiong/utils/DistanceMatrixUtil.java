@@ -0,0 +1,145 @@
+package io.github.seehiong.utils;
+
+import java.util.stream.IntStream;
+
+import io.github.seehiong.metrics.SolveTimings;
+import io.github.seehiong.model.Coordinate;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds Euclidean distance matrices.
+ * <p>
+ * Symmetric matrices are split into upper-triangular tiles that are computed in parallel, each pair being
+ * evaluated once and mirrored. Rows are filled by the {@code jdk.incubator.vector} kernel when the module is
+ * available at runtime (started with {@code --add-modules jdk.incubator.vector}), otherwise by a scalar loop.
+ */
+@Slf4j
+@UtilityClass
+public class DistanceMatrixUtil {
+
+    private static final int TILE_SIZE = 256;
+    private static final int PARALLEL_THRESHOLD = 512; // Below this, forking costs more than it saves
+    private static final DistanceKernel KERNEL = createKernel();
+
+    public double[][] euclidean(Coordinate[] coordinates) {
+        return euclidean(xs(coordinates), ys(coordinates));
+    }
+
+    public double[][] euclidean(Coordinate[] from, Coordinate[] to) {
+        return euclidean(xs(from), ys(from), xs(to), ys(to));
+    }
+
+    public double[][] euclidean(double[] xs, double[] ys) {
+        try (SolveTimings.Phase phase = SolveTimings.phase("distance-matrix")) {
+            return symmetric(xs, ys);
+        }
+    }
+
+    public double[][] euclidean(double[] fromXs, double[] fromYs, double[] toXs, double[] toYs) {
+        try (SolveTimings.Phase phase = SolveTimings.phase("distance-matrix")) {
+            return rectangular(fromXs, fromYs, toXs, toYs);
+        }
+    }
+
+    private double[][] symmetric(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[][] distances = new double[n][n];
+
+        // Enumerate the upper-triangular tiles, diagonal included
+        int tiles = (n + TILE_SIZE - 1) / TILE_SIZE;
+        int[] tileRows = new int[tiles * (tiles + 1) / 2];
+        int[] tileCols = new int[tileRows.length];
+        for (int bi = 0, t = 0; bi < tiles; bi++) {
+            for (int bj = bi; bj < tiles; bj++, t++) {
+                tileRows[t] = bi;
+                tileCols[t] = bj;
+            }
+        }
+
+        IntStream range = IntStream.range(0, tileRows.length);
+        if (n >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(t -> fillSymmetricTile(xs, ys, distances, tileRows[t], tileCols[t]));
+        return distances;
+    }
+
+    private double[][] rectangular(double[] fromXs, double[] fromYs, double[] toXs, double[] toYs) {
+        int rows = fromXs.length;
+        int cols = toXs.length;
+        double[][] distances = new double[rows][cols];
+
+        IntStream range = IntStream.range(0, rows);
+        if ((long) rows * cols >= (long) PARALLEL_THRESHOLD * PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(i -> KERNEL.fillRow(fromXs[i], fromYs[i], toXs, toYs, distances[i], 0, cols));
+        return distances;
+    }
+
+    private void fillSymmetricTile(double[] xs, double[] ys, double[][] distances, int tileRow, int tileCol) {
+        int n = xs.length;
+        int rowStart = tileRow * TILE_SIZE;
+        int rowEnd = Math.min(n, rowStart + TILE_SIZE);
+        int colStart = tileCol * TILE_SIZE;
+        int colEnd = Math.min(n, colStart + TILE_SIZE);
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            int from = tileRow == tileCol ? i + 1 : colStart;
+            if (from >= colEnd) {
+                continue;
+            }
+            double[] row = distances[i];
+            KERNEL.fillRow(xs[i], ys[i], xs, ys, row, from, colEnd);
+            for (int j = from; j < colEnd; j++) {
+                distances[j][i] = row[j];
+            }
+        }
+    }
+
+    private double[] xs(Coordinate[] coordinates) {
+        double[] xs = new double[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            xs[i] = coordinates[i].getX();
+        }
+        return xs;
+    }
+
+    private double[] ys(Coordinate[] coordinates) {
+        double[] ys = new double[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            ys[i] = coordinates[i].getY();
+        }
+        return ys;
+    }
+
+    private DistanceKernel createKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorDistanceKernel();
+            } catch (LinkageError e) {
+                log.warn("vector distance kernel unavailable, using scalar fallback", e);
+            }
+        }
+        return new ScalarDistanceKernel();
+    }
+
+    interface DistanceKernel {
+
+        // Fills row[from, to) with the distances from (x, y) to every (xs[j], ys[j])
+        void fillRow(double x, double y, double[] xs, double[] ys, double[] row, int from, int to);
+    }
+
+    static class ScalarDistanceKernel implements DistanceKernel {
+
+        @Override
+        public void fillRow(double x, double y, double[] xs, double[] ys, double[] row, int from, int to) {
+            for (int j = from; j < to; j++) {
+                double dx = xs[j] - x;
+                double dy = ys[j] - y;
+                row[j] = Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+    }
+}
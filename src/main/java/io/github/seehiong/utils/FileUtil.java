@@ -1,28 +1,39 @@
 package io.github.seehiong.utils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.UncheckedIOException;
 
-import io.micronaut.http.multipart.CompletedFileUpload;
+import io.micronaut.http.multipart.PartData;
+import io.micronaut.http.multipart.StreamingFileUpload;
 import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @UtilityClass
 public class FileUtil {
 
-    public List<String> readFile(CompletedFileUpload file) throws IOException {
-        // Read the contents of the file into a List of Strings
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader input = new BufferedReader(new InputStreamReader(file.getInputStream(), Charset.forName("UTF-8")))) {
-            String line;
-            while ((line = input.readLine()) != null) {
-                lines.add(line);
-            }
+    /**
+     * @param scheduler where the chunks are parsed, off the event loop receiving them
+     */
+    public Mono<NumberTokenizer> tokenize(StreamingFileUpload file, Scheduler scheduler) {
+        // Parse every chunk as it arrives instead of buffering the whole upload into lines
+        return Flux.from(file)
+                .map(FileUtil::bytes) // Copied on the event loop, which releases the chunk once it returns
+                .publishOn(scheduler)
+                .reduceWith(NumberTokenizer::new, (tokenizer, bytes) -> {
+                    tokenizer.feed(bytes);
+                    return tokenizer;
+                })
+                .map(NumberTokenizer::finish);
+    }
+
+    private byte[] bytes(PartData part) {
+        try {
+            return part.getBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return lines;
     }
 
 }
@@ -0,0 +1,221 @@
+package io.github.seehiong.utils;
+
+import java.util.Random;
+
+import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.constraint.BinCapacityConstraint;
+import io.github.seehiong.model.constraint.CustomerCoordinateConstraint;
+import io.github.seehiong.model.constraint.CustomerDemandConstraint;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.constraint.FacilityCapacityConstraint;
+import io.github.seehiong.model.constraint.FacilityCoordinateConstraint;
+import io.github.seehiong.model.constraint.FacilityCostConstraint;
+import io.github.seehiong.model.constraint.ItemWeightConstraint;
+import io.github.seehiong.model.constraint.VehicleConstraint;
+import io.github.seehiong.model.input.BPPInput;
+import io.github.seehiong.model.input.CVRPInput;
+import io.github.seehiong.model.input.FLPInput;
+import io.github.seehiong.model.input.TSPInput;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reproducible instances for benchmarks: every method draws from the given {@link Random}, so the same seed always
+ * yields the same instance. Coordinates lie in a square of side {@link #SIDE}, scattered uniformly, in clusters or
+ * on a grid. Instances are built either as solver inputs or as instance files.
+ */
+@UtilityClass
+public class InstanceGenerator {
+
+    public static final double SIDE = 1000;
+    public static final int MAX_DEMAND = 10;
+    public static final int BIN_CAPACITY = 100;
+
+    public Coordinate[] uniform(int n, Random random) {
+        Coordinate[] coordinates = new Coordinate[n];
+        for (int i = 0; i < n; i++) {
+            coordinates[i] = new Coordinate(random.nextDouble() * SIDE, random.nextDouble() * SIDE);
+        }
+        return coordinates;
+    }
+
+    /**
+     * Points drawn around {@code clusters} uniformly placed centres, with a spread of a twentieth of the side.
+     */
+    public Coordinate[] clustered(int n, int clusters, Random random) {
+        Coordinate[] centres = uniform(Math.max(1, clusters), random);
+        double spread = SIDE / 20;
+        Coordinate[] coordinates = new Coordinate[n];
+        for (int i = 0; i < n; i++) {
+            Coordinate centre = centres[random.nextInt(centres.length)];
+            coordinates[i] = new Coordinate(clamp(centre.getX() + random.nextGaussian() * spread),
+                    clamp(centre.getY() + random.nextGaussian() * spread));
+        }
+        return coordinates;
+    }
+
+    /**
+     * Points on a square grid filled row by row, nudged by up to a hundredth of a cell so that distances tie less.
+     */
+    public Coordinate[] grid(int n, Random random) {
+        int columns = (int) Math.ceil(Math.sqrt(n));
+        double cell = SIDE / columns;
+        Coordinate[] coordinates = new Coordinate[n];
+        for (int i = 0; i < n; i++) {
+            double jitterX = (random.nextDouble() - 0.5) * cell / 100;
+            double jitterY = (random.nextDouble() - 0.5) * cell / 100;
+            coordinates[i] = new Coordinate((i % columns + 0.5) * cell + jitterX, (i / columns + 0.5) * cell + jitterY);
+        }
+        return coordinates;
+    }
+
+    /**
+     * Demands between 1 and {@code maxDemand}, except for location 0, the depot, which has none.
+     */
+    public int[] demands(int n, int maxDemand, Random random) {
+        int[] demands = new int[n];
+        for (int i = 1; i < n; i++) {
+            demands[i] = 1 + random.nextInt(maxDemand);
+        }
+        return demands;
+    }
+
+    /**
+     * A random tour of {@code n} cities starting at city 0.
+     */
+    public int[] tour(int n, Random random) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) {
+            tour[i] = i;
+        }
+        for (int i = n - 1; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            int swap = tour[i];
+            tour[i] = tour[j];
+            tour[j] = swap;
+        }
+        return tour;
+    }
+
+    /**
+     * TSP input over the euclidean distances between the cities.
+     */
+    public TSPInput tspInput(Coordinate[] cities) {
+        return TSPInput.builder()
+                .distanceMatrixConstraint(new DistanceMatrixConstraint(DistanceMatrixUtil.euclidean(cities)))
+                .build();
+    }
+
+    /**
+     * CVRP input with the first customer as depot, a vehicle per ten customers and a quarter of spare capacity.
+     */
+    public CVRPInput cvrpInput(Coordinate[] customers, Random random) {
+        int[] demands = demands(customers.length, MAX_DEMAND, random);
+        int vehicles = Math.max(2, customers.length / 10);
+        long totalDemand = 0;
+        for (int demand : demands) {
+            totalDemand += demand;
+        }
+        long capacity = Math.max(MAX_DEMAND, (long) Math.ceil(totalDemand * 1.25 / vehicles));
+
+        return CVRPInput.builder()
+                .vehicleConstraint(new VehicleConstraint(vehicles, capacity))
+                .customerDemandConstraint(new CustomerDemandConstraint(demands))
+                .customerCoordinateConstraint(new CustomerCoordinateConstraint(customers))
+                .distanceMatrixConstraint(new DistanceMatrixConstraint(DistanceMatrixUtil.euclidean(customers)))
+                .build();
+    }
+
+    /**
+     * FLP input with a uniformly placed facility per five customers and twice the capacity the demand needs.
+     */
+    public FLPInput flpInput(Coordinate[] customers, Random random) {
+        int customerCount = customers.length;
+        int facilityCount = Math.max(2, customerCount / 5);
+        Coordinate[] facilities = uniform(facilityCount, random);
+
+        int[] demands = new int[customerCount];
+        int totalDemand = 0;
+        for (int i = 0; i < customerCount; i++) {
+            demands[i] = 1 + random.nextInt(MAX_DEMAND);
+            totalDemand += demands[i];
+        }
+        double[] costs = new double[facilityCount];
+        int[] capacities = new int[facilityCount];
+        for (int i = 0; i < facilityCount; i++) {
+            costs[i] = 1000 + random.nextInt(9000);
+            capacities[i] = (int) Math.ceil(2.0 * totalDemand / facilityCount) + random.nextInt(MAX_DEMAND);
+        }
+
+        return FLPInput.builder()
+                .facilityCostConstraint(new FacilityCostConstraint(costs))
+                .facilityCapacityConstraint(new FacilityCapacityConstraint(capacities))
+                .facilityCoordinateConstraint(new FacilityCoordinateConstraint(facilities))
+                .customerDemandConstraint(new CustomerDemandConstraint(demands))
+                .customerCoordinateConstraint(new CustomerCoordinateConstraint(customers))
+                .distanceMatrixConstraint(
+                        new DistanceMatrixConstraint(DistanceMatrixUtil.euclidean(customers, facilities)))
+                .build();
+    }
+
+    /**
+     * BPP input of items weighing up to half the bin capacity.
+     */
+    public BPPInput bppInput(int items, Random random) {
+        int[] weights = new int[items];
+        for (int i = 0; i < items; i++) {
+            weights[i] = 1 + random.nextInt(BIN_CAPACITY / 2);
+        }
+        return BPPInput.builder()
+                .itemWeightConstraint(new ItemWeightConstraint(weights))
+                .binCapacityConstraint(new BinCapacityConstraint(BIN_CAPACITY))
+                .build();
+    }
+
+    /**
+     * TSP instance file: the number of cities, then one {@code x y} line per city.
+     */
+    public String tspFile(Coordinate[] cities) {
+        StringBuilder file = new StringBuilder().append(cities.length).append('\n');
+        for (Coordinate city : cities) {
+            file.append(city.getX()).append(' ').append(city.getY()).append('\n');
+        }
+        return file.toString();
+    }
+
+    /**
+     * CVRP instance file: {@code customers vehicles capacity}, then one {@code demand x y} line per customer, the
+     * depot first.
+     */
+    public String cvrpFile(Coordinate[] customers, int[] demands, int vehicles, long capacity) {
+        StringBuilder file = new StringBuilder()
+                .append(customers.length).append(' ').append(vehicles).append(' ').append(capacity).append('\n');
+        for (int i = 0; i < customers.length; i++) {
+            file.append(demands[i]).append(' ')
+                    .append(customers[i].getX()).append(' ').append(customers[i].getY()).append('\n');
+        }
+        return file.toString();
+    }
+
+    /**
+     * FLP instance file: {@code facilities customers}, one {@code cost capacity x y} line per facility, then one
+     * {@code demand x y} line per customer.
+     */
+    public String flpFile(Coordinate[] facilities, double[] costs, int[] capacities, Coordinate[] customers,
+            int[] demands) {
+        StringBuilder file = new StringBuilder().append(facilities.length).append(' ').append(customers.length)
+                .append('\n');
+        for (int i = 0; i < facilities.length; i++) {
+            file.append(costs[i]).append(' ').append(capacities[i]).append(' ')
+                    .append(facilities[i].getX()).append(' ').append(facilities[i].getY()).append('\n');
+        }
+        for (int i = 0; i < customers.length; i++) {
+            file.append(demands[i]).append(' ')
+                    .append(customers[i].getX()).append(' ').append(customers[i].getY()).append('\n');
+        }
+        return file.toString();
+    }
+
+    private double clamp(double value) {
+        return Math.max(0, Math.min(SIDE, value));
+    }
+}
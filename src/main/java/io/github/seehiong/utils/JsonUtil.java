@@ -0,0 +1,80 @@
+package io.github.seehiong.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class JsonUtil {
+
+    /**
+     * Splits a JSON array into the raw text of its elements without parsing them, so each can be deserialized on its
+     * own when it is needed.
+     *
+     * @throws IOException when the text is not an array or its brackets do not balance
+     */
+    public List<String> splitArray(String json) throws IOException {
+        int start = skipWhitespace(json, 0);
+        if (start == json.length() || json.charAt(start) != '[') {
+            throw new IOException("Expected a JSON array");
+        }
+
+        List<String> elements = new ArrayList<>();
+        int depth = 0;
+        int elementStart = start + 1;
+        boolean inString = false;
+        for (int i = start + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++; // Skip the escaped character
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> inString = true;
+                case '{', '[' -> depth++;
+                case '}', ']' -> {
+                    if (depth == 0) {
+                        // Closing bracket of the array itself
+                        addElement(json, elementStart, i, elements);
+                        if (skipWhitespace(json, i + 1) != json.length()) {
+                            throw new IOException("Unexpected content after the JSON array");
+                        }
+                        return elements;
+                    }
+                    depth--;
+                }
+                case ',' -> {
+                    if (depth == 0) {
+                        addElement(json, elementStart, i, elements);
+                        elementStart = i + 1;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        throw new IOException("Unterminated JSON array");
+    }
+
+    private void addElement(String json, int from, int to, List<String> elements) {
+        String element = json.substring(from, to).strip();
+        if (!element.isEmpty()) {
+            elements.add(element);
+        }
+    }
+
+    private int skipWhitespace(String json, int from) {
+        int i = from;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
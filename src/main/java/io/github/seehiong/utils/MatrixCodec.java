@@ -0,0 +1,176 @@
+package io.github.seehiong.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Codec for the {@value #MEDIA_TYPE} request body.
+ * <p>
+ * Layout, all integers little-endian, optionally wrapped in gzip as a whole:
+ * <pre>
+ * magic "OPTM" | version u8 | type u8 (1 = float64, 2 = float32) | reserved u16
+ * rows i32 | cols i32 | header length i32 | header (UTF-8 JSON of the remaining input fields)
+ * rows * cols values, row-major
+ * </pre>
+ * The dimensions come from the client, so they are checked against a maximum, the payload they imply against a byte
+ * budget and, for a plain body, against its length before anything is allocated. A gzip body could otherwise inflate
+ * a small request into a huge matrix.
+ */
+@UtilityClass
+public class MatrixCodec {
+
+    public static final String MEDIA_TYPE = "application/x-optimizer-matrix";
+
+    private static final byte[] MAGIC = {'O', 'P', 'T', 'M'};
+    private static final int VERSION = 1;
+    private static final int FLOAT64 = 1;
+    private static final int FLOAT32 = 2;
+    private static final int PREAMBLE_LENGTH = 20;
+    private static final int MAX_HEADER_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * @param maxDimension most rows or columns accepted
+     * @param maxBytes most bytes the payload may take once inflated
+     */
+    public MatrixPayload decode(byte[] body, int maxDimension, long maxBytes) throws IOException {
+        boolean gzip = body.length > 1 && (body[0] & 0xff) == 0x1f && (body[1] & 0xff) == 0x8b;
+        try (InputStream in = gzip
+                ? new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(body), 64 * 1024), 64 * 1024)
+                : new ByteArrayInputStream(body)) {
+            // The inflated length is unknown up front, rows are then only allocated once their bytes have arrived
+            return decode(in, maxDimension, maxBytes, gzip ? -1 : body.length);
+        }
+    }
+
+    /**
+     * @param maxDimension most rows or columns accepted
+     */
+    public MatrixPayload decode(InputStream in, int maxDimension) throws IOException {
+        return decode(in, maxDimension, Long.MAX_VALUE, -1);
+    }
+
+    // bodyLength: bytes of the whole payload, -1 when unknown
+    private MatrixPayload decode(InputStream in, int maxDimension, long maxBytes, long bodyLength)
+            throws IOException {
+        ByteBuffer preamble = ByteBuffer.wrap(readFully(in, PREAMBLE_LENGTH)).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte b : MAGIC) {
+            if (preamble.get() != b) {
+                throw new IOException("Not an optimizer matrix payload");
+            }
+        }
+        int version = preamble.get() & 0xff;
+        if (version != VERSION) {
+            throw new IOException("Unsupported matrix payload version: " + version);
+        }
+        int type = preamble.get() & 0xff;
+        if (type != FLOAT64 && type != FLOAT32) {
+            throw new IOException("Unsupported matrix value type: " + type);
+        }
+        preamble.getShort(); // reserved
+        int rows = preamble.getInt();
+        int cols = preamble.getInt();
+        int headerLength = preamble.getInt();
+        if (rows < 0 || cols < 0 || headerLength < 0 || headerLength > MAX_HEADER_LENGTH) {
+            throw new IOException(String.format("Invalid matrix payload dimensions: %d x %d, header %d", rows, cols, headerLength));
+        }
+        if (rows > maxDimension || cols > maxDimension) {
+            throw new IOException(String.format("Matrix of %d x %d exceeds the maximum dimension of %d", rows, cols,
+                    maxDimension));
+        }
+        int width = type == FLOAT64 ? Double.BYTES : Float.BYTES;
+        long expectedLength = PREAMBLE_LENGTH + (long) headerLength + (long) rows * cols * width;
+        if (expectedLength > maxBytes) {
+            throw new IOException(String.format("Matrix payload of %d x %d needs %d bytes, more than the %d allowed",
+                    rows, cols, expectedLength, maxBytes));
+        }
+        if (bodyLength >= 0 && bodyLength != expectedLength) {
+            throw new IOException(String.format("Matrix payload of %d bytes does not match its %d x %d dimensions",
+                    bodyLength, rows, cols));
+        }
+
+        String header = new String(readFully(in, headerLength), StandardCharsets.UTF_8);
+
+        // Decode row by row through a reusable buffer straight into the primitive rows
+        byte[] buffer = new byte[Math.multiplyExact(cols, width)];
+        double[][] matrix = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            readFully(in, buffer);
+            ByteBuffer bytes = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+            double[] row = new double[cols];
+            if (type == FLOAT64) {
+                bytes.asDoubleBuffer().get(row);
+            } else {
+                FloatBuffer floats = bytes.asFloatBuffer();
+                for (int j = 0; j < cols; j++) {
+                    row[j] = floats.get(j);
+                }
+            }
+            matrix[i] = row;
+        }
+        if (in.read() != -1) {
+            throw new IOException("Unexpected bytes after the matrix payload");
+        }
+        return new MatrixPayload(header, matrix);
+    }
+
+    public void encode(String header, double[][] matrix, OutputStream out) throws IOException {
+        int rows = matrix.length;
+        int cols = rows == 0 ? 0 : matrix[0].length;
+        byte[] headerBytes = header == null ? new byte[0] : header.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        preamble.put(MAGIC).put((byte) VERSION).put((byte) FLOAT64).putShort((short) 0);
+        preamble.putInt(rows).putInt(cols).putInt(headerBytes.length);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(preamble.array());
+        data.write(headerBytes);
+
+        ByteBuffer buffer = ByteBuffer.allocate(cols * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        DoubleBuffer values = buffer.asDoubleBuffer();
+        for (double[] row : matrix) {
+            if (row.length != cols) {
+                throw new IllegalArgumentException("Matrix rows must have the same length");
+            }
+            values.clear();
+            values.put(row);
+            data.write(buffer.array());
+        }
+        data.flush();
+    }
+
+    private byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        readFully(in, bytes);
+        return bytes;
+    }
+
+    private void readFully(InputStream in, byte[] bytes) throws IOException {
+        if (in.readNBytes(bytes, 0, bytes.length) != bytes.length) {
+            throw new EOFException("Truncated matrix payload");
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MatrixPayload {
+
+        private final String header; // JSON of the input without the matrix, may be empty
+        private final double[][] matrix;
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.seehiong.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Incremental, byte-level number tokenizer for instance files.
+ * <p>
+ * Bytes are fed chunk by chunk as they arrive; every whitespace/comma separated token is parsed straight into a
+ * growable {@code double[]} without creating intermediate strings, so parsing overlaps with the upload. Once
+ * {@link #finish()} has been called the numbers are read back sequentially with {@link #nextInt()},
+ * {@link #nextLong()} and {@link #nextDouble()}.
+ */
+public class NumberTokenizer {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_FAST_DIGITS = 15; // Mantissa stays exact in a double
+    private static final double MAX_EXACT_LONG = 0x1p53; // Largest magnitude below which doubles hold every integer
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+    private int tokenLength;
+
+    private double[] values = new double[1024];
+    private int count;
+    private int position;
+
+    public void feed(byte[] bytes) {
+        feed(bytes, 0, bytes.length);
+    }
+
+    public void feed(byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = bytes[i];
+            if (isNumberByte(b)) {
+                if (tokenLength == MAX_TOKEN_LENGTH) {
+                    throw new IllegalArgumentException("Number token exceeds " + MAX_TOKEN_LENGTH + " bytes");
+                }
+                token[tokenLength++] = b;
+            } else if (tokenLength > 0) {
+                endToken();
+            }
+        }
+    }
+
+    public NumberTokenizer finish() {
+        if (tokenLength > 0) {
+            endToken();
+        }
+        return this;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean hasNext() {
+        return position < count;
+    }
+
+    public double nextDouble() {
+        if (position >= count) {
+            throw new IllegalStateException(String.format("Unexpected end of input after %d numbers", count));
+        }
+        return values[position++];
+    }
+
+    /**
+     * @throws NumberFormatException when the number is not integral or does not fit an {@code int}
+     */
+    public int nextInt() {
+        double value = nextDouble();
+        if (value != Math.rint(value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw notIntegral(value, "an int");
+        }
+        return (int) value;
+    }
+
+    /**
+     * @throws NumberFormatException when the number is not integral or lies beyond ±2^53, where doubles skip integers
+     */
+    public long nextLong() {
+        double value = nextDouble();
+        if (value != Math.rint(value) || Math.abs(value) > MAX_EXACT_LONG) {
+            throw notIntegral(value, "a long");
+        }
+        return (long) value;
+    }
+
+    private NumberFormatException notIntegral(double value, String type) {
+        return new NumberFormatException(String.format("Number %d is %s, not %s", position, value, type));
+    }
+
+    private static boolean isNumberByte(byte b) {
+        return (b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+' || b == 'e' || b == 'E';
+    }
+
+    private void endToken() {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count + (count >> 1));
+        }
+        values[count++] = parseToken();
+        tokenLength = 0;
+    }
+
+    // Exact fast path for plain decimals (at most 15 significant digits, small exponents); anything else
+    // falls back to Double.parseDouble on the token bytes
+    private double parseToken() {
+        int i = 0;
+        boolean negative = false;
+        if (token[0] == '-' || token[0] == '+') {
+            negative = token[0] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenDot = false;
+        for (; i < tokenLength; i++) {
+            byte b = token[i];
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    if (seenDot) {
+                        scale--;
+                    }
+                    continue;
+                }
+                if (++digits > MAX_FAST_DIGITS) {
+                    return parseSlow();
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenDot) {
+                    scale--;
+                }
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else if ((b == 'e' || b == 'E') && seenDigit) {
+                break;
+            } else {
+                return parseSlow();
+            }
+        }
+        if (!seenDigit) {
+            return parseSlow();
+        }
+
+        if (i < tokenLength) {
+            // Exponent part
+            i++;
+            boolean negativeExponent = false;
+            if (i < tokenLength && (token[i] == '-' || token[i] == '+')) {
+                negativeExponent = token[i] == '-';
+                i++;
+            }
+            if (i == tokenLength) {
+                return parseSlow();
+            }
+            int exponent = 0;
+            for (; i < tokenLength; i++) {
+                byte b = token[i];
+                if (b < '0' || b > '9' || exponent > 1000) {
+                    return parseSlow();
+                }
+                exponent = exponent * 10 + (b - '0');
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+
+        double value = mantissa;
+        if (mantissa != 0) {
+            if (scale < -22 || scale > 22) {
+                return parseSlow();
+            }
+            value = scale < 0 ? value / POWERS_OF_TEN[-scale] : value * POWERS_OF_TEN[scale];
+        }
+        return negative ? -value : value;
+    }
+
+    private double parseSlow() {
+        return Double.parseDouble(new String(token, 0, tokenLength, StandardCharsets.US_ASCII));
+    }
+}
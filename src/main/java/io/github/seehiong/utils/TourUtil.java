@@ -0,0 +1,44 @@
+package io.github.seehiong.utils;
+
+import io.github.seehiong.model.metric.TourMetric;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class TourUtil {
+
+    /**
+     * Turns a tour given as a warm start into a permutation of all cities starting at city 0. The tour may be closed
+     * (ending where it started) and may start anywhere.
+     *
+     * @return the permutation, or null when the tour does not visit each of the {@code cities} exactly once
+     */
+    public int[] normalize(TourMetric tourMetric, int cities) {
+        if (tourMetric == null || tourMetric.getTours() == null) {
+            return null;
+        }
+        int[] tour = tourMetric.getTours();
+        int length = tour.length > 1 && tour[0] == tour[tour.length - 1] ? tour.length - 1 : tour.length;
+        if (length != cities) {
+            return null;
+        }
+
+        boolean[] seen = new boolean[cities];
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            int city = tour[i];
+            if (city < 0 || city >= cities || seen[city]) {
+                return null;
+            }
+            seen[city] = true;
+            if (city == 0) {
+                start = i;
+            }
+        }
+
+        int[] permutation = new int[cities];
+        for (int i = 0; i < cities; i++) {
+            permutation[i] = tour[(start + i) % length];
+        }
+        return permutation;
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.seehiong.utils;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Only loaded when the jdk.incubator.vector module is resolved, see DistanceMatrixUtil#createKernel
+class VectorDistanceKernel implements DistanceMatrixUtil.DistanceKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void fillRow(double x, double y, double[] xs, double[] ys, double[] row, int from, int to) {
+        int j = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; j < upper; j += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, j).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, j).sub(y);
+            dx.mul(dx).add(dy.mul(dy)).sqrt().intoArray(row, j);
+        }
+
+        // Scalar tail
+        for (; j < to; j++) {
+            double dx = xs[j] - x;
+            double dy = ys[j] - y;
+            row[j] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+}
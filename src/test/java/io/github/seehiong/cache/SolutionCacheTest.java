@@ -0,0 +1,113 @@
+package io.github.seehiong.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.Priority;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.ProgressMode;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.constraint.SolveTimeConstraint;
+import io.github.seehiong.model.input.TSPInput;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.TSPOutput;
+import io.github.seehiong.progress.ProgressChannel;
+import io.github.seehiong.progress.ProgressRegistry;
+import io.github.seehiong.store.ResultStore;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class SolutionCacheTest {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ResultStore resultStore;
+
+    @Inject
+    ProgressRegistry progressRegistry;
+
+    @Test
+    void keyIgnoresRequestFieldsWithoutTouchingInput() {
+        SolutionCache cache = cache();
+        DistanceMatrixConstraint matrix = new DistanceMatrixConstraint(new double[][] { { 0, 1 }, { 1, 0 } });
+        TSPInput input = input(matrix);
+        UUID solverId = input.getSolverId();
+        input.setPriority(Priority.HIGH);
+        input.setProgressMode(ProgressMode.DELTA);
+        input.setThreads(4);
+        input.setInstanceId("instance");
+
+        String key = cache.key(ProblemType.TSP, input);
+
+        assertEquals(solverId, input.getSolverId());
+        assertEquals(Priority.HIGH, input.getPriority());
+        assertEquals(ProgressMode.DELTA, input.getProgressMode());
+        assertEquals(4, input.getThreads());
+        assertEquals("instance", input.getInstanceId());
+        assertSame(matrix, input.getDistanceMatrixConstraint());
+
+        assertEquals(key, cache.key(ProblemType.TSP, input(matrix)));
+        assertNotEquals(key, cache.key(ProblemType.TSP_GA, input(matrix)));
+        assertNotEquals(key, cache.key(ProblemType.TSP,
+                input(new DistanceMatrixConstraint(new double[][] { { 0, 2 }, { 2, 0 } }))));
+
+        TSPInput longer = input(matrix);
+        longer.setSolveTimeConstraint(new SolveTimeConstraint("30s", 30));
+        assertNotEquals(key, cache.key(ProblemType.TSP, longer));
+    }
+
+    @Test
+    void attachesIdenticalSolvesInSameMode() {
+        SolutionCache cache = cache();
+        ProgressChannel original = progressRegistry.open(UUID.randomUUID().toString(), ProgressMode.FULL);
+
+        assertTrue(cache.attach("key", original).isEmpty());
+        assertSame(original, cache.attach("key", channel(ProgressMode.FULL)).orElseThrow());
+        assertTrue(cache.attach("key", channel(ProgressMode.DELTA)).isEmpty());
+        assertEquals(1, cache.getStats().getAttached());
+        original.complete();
+    }
+
+    @Test
+    void replaysStoredSolutionUnderNewSolverId() {
+        SolutionCache cache = cache();
+        ProgressChannel original = progressRegistry.open(UUID.randomUUID().toString(), ProgressMode.FULL);
+        cache.attach("key", original);
+        original.publish(TSPOutput.builder().solverState(SolverState.SOLVED).message("solved").build());
+        original.complete();
+
+        TSPInput input = input(null);
+        List<Object> events = cache.find("key", input).orElseThrow().collectList().block(Duration.ofSeconds(10));
+
+        Output output = (Output) events.get(0);
+        assertEquals(input.getSolverId(), output.getSolverId());
+        assertEquals("solved", output.getMessage());
+        assertTrue(resultStore.get(input.getSolverId().toString()).isPresent());
+        assertTrue(cache.find("other", input).isEmpty());
+    }
+
+    private SolutionCache cache() {
+        return new SolutionCache(new SolutionCacheConfiguration(), objectMapper, resultStore);
+    }
+
+    private ProgressChannel channel(ProgressMode mode) {
+        return progressRegistry.open(UUID.randomUUID().toString(), mode);
+    }
+
+    private static TSPInput input(DistanceMatrixConstraint matrix) {
+        return TSPInput.builder().distanceMatrixConstraint(matrix).build();
+    }
+}
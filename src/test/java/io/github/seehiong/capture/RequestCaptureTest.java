@@ -0,0 +1,104 @@
+package io.github.seehiong.capture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.input.TSPInput;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class RequestCaptureTest {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path captureDirectory;
+
+    @Test
+    void keepsRawBodiesAsReceived() throws Exception {
+        RequestCapture capture = capture(1024);
+        String body = "{\"distanceMatrixConstraint\":{\"distances\":[[0,1],[1,0]]}}";
+        capture.capture(ProblemType.TSP, input(2), body);
+        capture.close();
+
+        List<Path> captures = captures();
+        assertEquals(1, captures.size());
+        assertEquals(body, read(captures.get(0)));
+    }
+
+    @Test
+    void serializesResolvedInputsBeforeReturning() throws Exception {
+        RequestCapture capture = capture(1024);
+        TSPInput input = input(2);
+        capture.capture(ProblemType.TSP, input, null);
+        input.setThreads(8); // Changes made once the solve is under way are not captured
+        capture.close();
+
+        List<Path> captures = captures();
+        assertEquals(1, captures.size());
+        String json = read(captures.get(0));
+        assertEquals(input.getSolverId(), objectMapper.readValue(json, TSPInput.class).getSolverId());
+        assertFalse(json.contains("\"threads\""));
+    }
+
+    @Test
+    void skipsOversizedInputsBeforeQueueing() throws Exception {
+        RequestCapture capture = capture(1024);
+        capture.capture(ProblemType.TSP, input(32), null); // At least 2 KB of JSON, ruled out without serializing
+        capture.capture(ProblemType.TSP, input(20), null); // Under the estimate, cut off while serializing
+        capture.capture(ProblemType.TSP, input(2), "x".repeat(2048));
+        capture.close();
+
+        assertTrue(captures().isEmpty());
+        assertEquals(0, capture.getDropped());
+    }
+
+    private RequestCapture capture(long maxInputSize) throws IOException {
+        CaptureConfiguration configuration = new CaptureConfiguration();
+        configuration.setEnabled(true);
+        configuration.setDirectory(captureDirectory.toString());
+        configuration.setSampleRate(1);
+        configuration.setMaxInputSize(maxInputSize);
+        return new RequestCapture(configuration, objectMapper);
+    }
+
+    private List<Path> captures() throws IOException {
+        try (Stream<Path> files = Files.list(captureDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(RequestCapture.SUFFIX)).toList();
+        }
+    }
+
+    private static String read(Path capture) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(capture))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static TSPInput input(int n) {
+        double[][] distances = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                distances[i][j] = 100 + i + j;
+            }
+        }
+        return TSPInput.builder().distanceMatrixConstraint(new DistanceMatrixConstraint(distances)).build();
+    }
+}
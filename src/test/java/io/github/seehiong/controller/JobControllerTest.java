@@ -0,0 +1,73 @@
+package io.github.seehiong.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+@Property(name = "optimizer.scheduler.queue-capacity", value = "0") // Every solve finds the queue full unless raised
+class JobControllerTest {
+
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Test
+    void fullQueueRejectsJobWith503() {
+        UUID solverId = UUID.randomUUID();
+        String body = "{\"solverId\":\"" + solverId + "\",\"distanceMatrixConstraint\":{\"distances\":[[0,1],[1,0]]}}";
+
+        HttpClientResponseException rejected = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.POST("/jobs/tsp", body)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+        assertEquals("5", rejected.getResponse().getHeaders().get("Retry-After"));
+
+        // The rejected job is not kept
+        HttpClientResponseException unknown = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/jobs/" + solverId)));
+        assertEquals(HttpStatus.NOT_FOUND, unknown.getStatus());
+    }
+
+    @Test
+    @Property(name = "optimizer.scheduler.queue-capacity", value = "4")
+    void unparseableLastEventIdReplaysFromTheStart() {
+        UUID solverId = UUID.randomUUID();
+        String body = "{\"solverId\":\"" + solverId + "\",\"distanceMatrixConstraint\":{\"distances\":[[0,1],[1,0]]}}";
+        client.toBlocking().exchange(HttpRequest.POST("/jobs/tsp", body));
+
+        HttpResponse<String> events = client.toBlocking().exchange(HttpRequest.GET("/jobs/" + solverId + "/events")
+                .accept(MediaType.TEXT_EVENT_STREAM).header("Last-Event-ID", "not-a-number"), String.class);
+        assertEquals(HttpStatus.OK, events.getStatus());
+        assertTrue(events.body().contains("id: 1"));
+    }
+
+    @Test
+    @Property(name = "optimizer.scheduler.queue-capacity", value = "4")
+    void duplicateSolverIdIsRejectedWith409() {
+        UUID solverId = UUID.randomUUID();
+        String body = "{\"solverId\":\"" + solverId + "\",\"distanceMatrixConstraint\":{\"distances\":[[0,1],[1,0]]}}";
+        HttpResponse<?> accepted = client.toBlocking().exchange(HttpRequest.POST("/jobs/tsp", body));
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatus());
+
+        // Whether the first is still running or already kept as finished, its id is taken
+        HttpClientResponseException duplicate = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.POST("/jobs/tsp", body)));
+        assertEquals(HttpStatus.CONFLICT, duplicate.getStatus());
+        assertEquals(HttpStatus.OK, client.toBlocking().exchange(HttpRequest.GET("/jobs/" + solverId)).getStatus());
+    }
+}
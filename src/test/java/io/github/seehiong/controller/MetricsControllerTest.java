@@ -0,0 +1,41 @@
+package io.github.seehiong.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.metrics.SolveMetrics;
+import io.github.seehiong.model.ProblemType;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class MetricsControllerTest {
+
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Inject
+    SolveMetrics metrics;
+
+    @Test
+    void scrapesSolveMetersInPrometheusFormat() {
+        metrics.recordRejected(ProblemType.TSP);
+
+        HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET("/metrics")
+                .header("Accept", "text/plain;version=0.0.4;q=1,*/*;q=0.1"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getContentType().orElseThrow().toString().startsWith("text/plain"));
+        String body = response.body();
+        assertTrue(body.contains("optimizer_solve_rejections_total{"), body);
+        assertTrue(body.contains("problem=\"TSP\""), body);
+    }
+}
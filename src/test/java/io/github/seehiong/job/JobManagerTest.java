@@ -0,0 +1,59 @@
+package io.github.seehiong.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.JobStatus;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.output.TSPOutput;
+import io.github.seehiong.scheduler.DuplicateSolveException;
+import reactor.core.publisher.Flux;
+
+class JobManagerTest {
+
+    private final JobManager jobManager = new JobManager(new JobConfiguration());
+
+    @Test
+    void rejectedSubmissionIsThrownAndForgotten() {
+        UUID solverId = UUID.randomUUID();
+
+        assertThrows(RejectedExecutionException.class, () -> jobManager.submit(solverId, ProblemType.TSP,
+                () -> Flux.error(new RejectedExecutionException("full"))));
+        assertTrue(jobManager.info(solverId).isEmpty());
+    }
+
+    @Test
+    void rejectsDuplicateBeforeOpeningItsSolve() {
+        UUID solverId = UUID.randomUUID();
+        jobManager.submit(solverId, ProblemType.TSP, Flux::never);
+        AtomicBoolean opened = new AtomicBoolean();
+
+        assertThrows(DuplicateSolveException.class, () -> jobManager.submit(solverId, ProblemType.TSP, () -> {
+            opened.set(true);
+            return Flux.never();
+        }));
+        assertFalse(opened.get());
+        assertEquals(JobStatus.QUEUED, jobManager.info(solverId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void replaysEventsAfterLastEventId() {
+        UUID solverId = UUID.randomUUID();
+        TSPOutput solved = TSPOutput.builder().solverState(SolverState.SOLVED).build();
+        jobManager.submit(solverId, ProblemType.TSP, () -> Flux.just(solved, "complete"));
+
+        assertEquals(JobStatus.COMPLETED, jobManager.info(solverId).orElseThrow().getStatus());
+        assertEquals(2, jobManager.events(solverId, 0).orElseThrow().count().block(Duration.ofSeconds(10)));
+        assertEquals(1, jobManager.events(solverId, 1).orElseThrow().count().block(Duration.ofSeconds(10)));
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.seehiong.progress;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.metadata.CustomerCoordinateMetadata;
+import io.github.seehiong.model.metric.CostMetric;
+import io.github.seehiong.model.metric.RouteChange;
+import io.github.seehiong.model.metric.TourMetric;
+import io.github.seehiong.model.metric.TourSegment;
+import io.github.seehiong.model.metric.VehicleRouteMetric;
+import io.github.seehiong.model.output.BPPOutput;
+import io.github.seehiong.model.output.CVRPOutput;
+import io.github.seehiong.model.output.DeltaOutput;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.TSPOutput;
+
+class DeltaEncoderTest {
+
+    private final DeltaEncoder encoder = new DeltaEncoder();
+
+    @Test
+    void sendsWholeTourFirstThenChangedRuns() {
+        List<TourSegment> first = encode(tour(0, 1, 2, 3, 4)).getTourSegments();
+        assertEquals(1, first.size());
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, first.get(0).getCities());
+
+        List<TourSegment> changed = encode(tour(0, 2, 1, 3, 4)).getTourSegments();
+        assertEquals(1, changed.size());
+        assertEquals(1, changed.get(0).getStart());
+        assertArrayEquals(new int[] { 2, 1 }, changed.get(0).getCities());
+
+        assertTrue(encode(tour(0, 2, 1, 3, 4)).getTourSegments().isEmpty());
+        assertEquals(0, encode(tour(4, 3)).getTourSegments().get(0).getStart()); // Length changed, sent whole
+    }
+
+    @Test
+    void sendsChangedRoutesOnly() {
+        encode(routes(List.of(0, 1, 0), List.of(0, 2, 0)));
+
+        List<RouteChange> changes = encode(routes(List.of(0, 1, 0), List.of(0, 3, 2, 0))).getRouteChanges();
+        assertEquals(List.of(new RouteChange(1, List.of(0, 3, 2, 0), false)), changes);
+    }
+
+    @Test
+    void sendsRemovalsForVanishedRoutes() {
+        encode(routes(List.of(0, 1, 0), List.of(0, 2, 0), List.of(0, 3, 0)));
+
+        // Vehicle 1 left unused, vehicle 2 gone from a solution with fewer vehicles
+        List<RouteChange> changes = encode(routes(List.of(0, 1, 2, 3, 0), null)).getRouteChanges();
+        assertEquals(List.of(
+                new RouteChange(0, List.of(0, 1, 2, 3, 0), false),
+                new RouteChange(1, null, true),
+                new RouteChange(2, null, true)), changes);
+
+        // A vehicle used again after its removal is sent whole
+        changes = encode(routes(List.of(0, 1, 2, 3, 0), List.of(0, 4, 0))).getRouteChanges();
+        assertEquals(List.of(new RouteChange(1, List.of(0, 4, 0), false)), changes);
+    }
+
+    @Test
+    void sendsMetadataOnce() {
+        CustomerCoordinateMetadata metadata = new CustomerCoordinateMetadata(new Coordinate[] { new Coordinate(1, 2) });
+        CVRPOutput output = routes(List.of(0, 0));
+        output.setCustomerCoordinateMetadata(metadata);
+
+        assertSame(metadata, encode(output).getCustomerCoordinateMetadata());
+        assertNull(encode(output).getCustomerCoordinateMetadata());
+    }
+
+    @Test
+    void passesOtherOutputsThrough() {
+        Output output = BPPOutput.builder().build();
+        assertSame(output, encoder.encode(output));
+    }
+
+    private DeltaOutput encode(Output output) {
+        return (DeltaOutput) encoder.encode(output);
+    }
+
+    private static TSPOutput tour(int... cities) {
+        return TSPOutput.builder().tourMetric(new TourMetric(cities)).costMetric(new CostMetric(1)).build();
+    }
+
+    @SafeVarargs
+    private static CVRPOutput routes(List<Integer>... routes) {
+        ArrayList<Integer>[] vehicleRoutes = new ArrayList[routes.length];
+        for (int vehicle = 0; vehicle < routes.length; vehicle++) {
+            vehicleRoutes[vehicle] = routes[vehicle] == null ? null : new ArrayList<>(routes[vehicle]);
+        }
+        return CVRPOutput.builder()
+                .vehicleRouteMetric(new VehicleRouteMetric(vehicleRoutes))
+                .costMetric(new CostMetric(1))
+                .build();
+    }
+}
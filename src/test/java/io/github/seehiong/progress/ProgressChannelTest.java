@@ -0,0 +1,133 @@
+package io.github.seehiong.progress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.ProgressMode;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.TSPOutput;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+class ProgressChannelTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final Scheduler orchestration = Schedulers.newSingle("orchestration");
+    private final List<Output> stored = new CopyOnWriteArrayList<>();
+    private final List<ProgressChannel> closed = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void dispose() {
+        orchestration.dispose();
+    }
+
+    @Test
+    void failsRejectedSolveBeforeReturning() {
+        ProgressChannel channel = channel(Duration.ZERO);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        channel.drive(Flux.error(new RejectedExecutionException("queue is full")), null)
+                .subscribe(event -> { }, failure::set);
+
+        // Seen on the subscribing thread, without waiting for the orchestration scheduler
+        assertTrue(failure.get() instanceof RejectedExecutionException);
+        assertEquals(List.of(channel), closed);
+        assertNull(channel.result().block(TIMEOUT));
+    }
+
+    @Test
+    void storesAndStreamsOutputsInOrder() {
+        ProgressChannel channel = channel(Duration.ZERO);
+        Flux<Object> solve = Flux.just(output(SolverState.SOLVING), output(SolverState.SOLVED), "complete");
+
+        List<Object> events = channel.drive(solve, null).collectList().block(TIMEOUT);
+
+        assertEquals("complete", events.get(events.size() - 1)); // Earlier ones may precede the subscription
+        assertEquals(List.of(1L, 2L), stored.stream().map(Output::getSequence).toList());
+        assertEquals(SolverState.SOLVED, channel.result().block(TIMEOUT).getSolverState());
+        assertEquals(List.of(channel), closed);
+    }
+
+    @Test
+    void conflatesIntermediateOutputsWithinThrottle() {
+        ProgressChannel channel = channel(Duration.ofHours(1));
+        channel.publish(output(SolverState.SOLVING)); // Published at once, the throttle starts here
+        channel.publish(output(SolverState.SOLVING));
+        Output newest = output(SolverState.SOLVING);
+        channel.publish(newest);
+        channel.complete();
+
+        assertEquals(2, stored.size());
+        assertSame(newest, stored.get(1));
+    }
+
+    @Test
+    void cancelsSolveOnlyWhenLastWatcherLeaves() {
+        ProgressChannel channel = channel(Duration.ZERO);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Object> solve = Flux.never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable original = channel.drive(solve, null).subscribe();
+        Disposable attached = channel.watch().subscribe();
+        Disposable observer = channel.asFlux().subscribe();
+
+        original.dispose();
+        assertFalse(cancelled.get());
+        assertTrue(closed.isEmpty());
+
+        attached.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(List.of(channel), closed);
+        assertTrue(observer.isDisposed()); // Completed along with the channel
+    }
+
+    @Test
+    void boundsEventsWaitingForOrchestration() throws InterruptedException {
+        ProgressChannel channel = channel(Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        orchestration.schedule(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Flux<Object> solve = Flux.range(0, 10_000).<Object>map(i -> output(SolverState.SOLVING))
+                .concatWith(Flux.just(output(SolverState.SOLVED), "complete"));
+        channel.drive(solve, null).subscribe();
+        release.countDown();
+
+        assertEquals(SolverState.SOLVED, channel.result().block(TIMEOUT).getSolverState());
+        assertTrue(stored.size() < 20, "stored " + stored.size() + " outputs");
+        assertEquals(SolverState.SOLVED, stored.get(stored.size() - 1).getSolverState());
+    }
+
+    private ProgressChannel channel(Duration throttle) {
+        ProgressConfiguration configuration = new ProgressConfiguration();
+        configuration.setThrottle(throttle);
+        return new ProgressChannel("solver", ProgressMode.FULL, configuration, orchestration, stored::add, closed::add);
+    }
+
+    private static Output output(SolverState solverState) {
+        return TSPOutput.builder().solverState(solverState).build();
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.seehiong.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.metrics.MetricsConfiguration;
+import io.github.seehiong.metrics.SolveMetrics;
+import io.github.seehiong.model.Priority;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.SolverState;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.input.TSPInput;
+import io.github.seehiong.model.output.CompletionOutput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class SolveSchedulerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final SchedulerConfiguration configuration = new SchedulerConfiguration();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SolveScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        scheduler = scheduler(1, 1);
+        scheduler.schedule(ProblemType.TSP, input(Priority.NORMAL), blocked(release)).subscribe();
+        scheduler.schedule(ProblemType.TSP, input(Priority.NORMAL), blocked(release)).subscribe();
+
+        assertEquals(1, scheduler.getRunning());
+        assertEquals(1, scheduler.getQueueSize());
+        assertThrows(RejectedExecutionException.class,
+                () -> scheduler.schedule(ProblemType.TSP, input(Priority.NORMAL), blocked(release)).blockLast(TIMEOUT));
+    }
+
+    @Test
+    void rejectsModelsLargerThanBudget() {
+        configuration.setHeapBudget(1);
+        scheduler = scheduler(1, 1);
+
+        assertThrows(ModelTooLargeException.class,
+                () -> scheduler.schedule(ProblemType.TSP, input(Priority.NORMAL), blocked(release)).blockLast(TIMEOUT));
+        assertEquals(0, scheduler.getQueueSize());
+    }
+
+    @Test
+    void dispatchesByPriorityThenArrival() throws InterruptedException {
+        scheduler = scheduler(1, 4);
+        List<String> started = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(4);
+
+        for (String name : List.of("first", "low", "normal", "high")) {
+            Priority priority = switch (name) {
+                case "low" -> Priority.LOW;
+                case "high" -> Priority.HIGH;
+                default -> Priority.NORMAL;
+            };
+            IntFunction<Flux<Object>> solve = blocked(release);
+            scheduler.schedule(ProblemType.TSP, input(priority), threads -> {
+                started.add(name);
+                return solve.apply(threads);
+            }).subscribe(event -> { }, error -> { }, finished::countDown);
+        }
+        release.countDown();
+
+        assertTrue(finished.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+        assertEquals(List.of("first", "high", "normal", "low"), started);
+    }
+
+    @Test
+    void cancelsQueuedSolve() {
+        scheduler = scheduler(1, 1);
+        scheduler.schedule(ProblemType.TSP, input(Priority.NORMAL), blocked(release)).subscribe();
+        TSPInput queued = input(Priority.NORMAL);
+        List<Object> events = new CopyOnWriteArrayList<>();
+        scheduler.schedule(ProblemType.TSP, queued, blocked(release)).subscribe(events::add);
+
+        assertTrue(scheduler.cancel(queued.getSolverId()));
+        assertFalse(scheduler.cancel(queued.getSolverId()));
+        assertEquals(0, scheduler.getQueueSize());
+        assertEquals(1, scheduler.getStats().getCancelledQueued());
+        assertTrue(events.get(events.size() - 1) instanceof CompletionOutput completion
+                && completion.getSolverState() == SolverState.CANCELLED);
+    }
+
+    @Test
+    void forgetsFinishedSolves() throws InterruptedException {
+        scheduler = scheduler(2, 1);
+        TSPInput input = input(Priority.NORMAL);
+        release.countDown();
+
+        List<Object> events = scheduler.schedule(ProblemType.TSP, input, blocked(release)).collectList().block(TIMEOUT);
+
+        assertEquals("solved", events.get(events.size() - 1));
+        awaitIdle(); // The worker releases the solve just after completing its stream
+        assertFalse(scheduler.cancel(input.getSolverId()));
+        assertEquals(0, scheduler.getStats().getThreads());
+    }
+
+    @Test
+    void rejectsDuplicateSolverIdWithoutTouchingTheFirst() {
+        scheduler = scheduler(1, 1);
+        TSPInput first = input(Priority.NORMAL);
+        List<Object> events = new CopyOnWriteArrayList<>();
+        scheduler.schedule(ProblemType.TSP, first, blocked(release)).subscribe(events::add);
+        TSPInput duplicate = input(Priority.NORMAL);
+        duplicate.setSolverId(first.getSolverId());
+
+        assertThrows(DuplicateSolveException.class,
+                () -> scheduler.schedule(ProblemType.TSP, duplicate, blocked(release)).blockLast(TIMEOUT));
+        assertEquals(1, scheduler.getRunning());
+        assertTrue(scheduler.cancel(first.getSolverId())); // Still registered under its id
+        assertTrue(events.get(events.size() - 1) instanceof CompletionOutput completion
+                && completion.getSolverState() == SolverState.CANCELLED);
+    }
+
+    @Test
+    void handsGrantToSolverWithoutChangingInput() {
+        configuration.setMaxThreads(2);
+        scheduler = scheduler(4, 1);
+        TSPInput input = input(Priority.NORMAL);
+        input.setThreads(8);
+        AtomicInteger granted = new AtomicInteger();
+        release.countDown();
+
+        scheduler.schedule(ProblemType.TSP, input, threads -> {
+            granted.set(threads);
+            return blocked(release).apply(threads);
+        }).blockLast(TIMEOUT);
+
+        assertEquals(2, granted.get());
+        assertEquals(8, input.getThreads()); // Still what was asked for, as hashed and captured
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (scheduler.getRunning() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.getRunning());
+    }
+
+    private SolveScheduler scheduler(int workers, int queueCapacity) {
+        configuration.setWorkers(workers);
+        configuration.setQueueCapacity(queueCapacity);
+        return new SolveScheduler(configuration, new SolveMetrics(new SimpleMeterRegistry(), new MetricsConfiguration()));
+    }
+
+    private static TSPInput input(Priority priority) {
+        TSPInput input = TSPInput.builder()
+                .distanceMatrixConstraint(new DistanceMatrixConstraint(new double[][] { { 0, 1 }, { 1, 0 } }))
+                .build();
+        input.setPriority(priority);
+        return input;
+    }
+
+    // A solve that holds its worker until released
+    private static IntFunction<Flux<Object>> blocked(CountDownLatch release) {
+        return threads -> Flux.create(sink -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sink.next("solved");
+            sink.complete();
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.seehiong.serde;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.Coordinate;
+import io.github.seehiong.model.constraint.CustomerCoordinateConstraint;
+import io.github.seehiong.model.constraint.CustomerDemandConstraint;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.constraint.FacilityCoordinateConstraint;
+import io.github.seehiong.model.constraint.FacilityCostConstraint;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class NumericDeserializersTest {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Test
+    void readsRaggedMatrixWithNullRows() throws IOException {
+        DistanceMatrixConstraint constraint = objectMapper.readValue(
+                "{\"distances\":[[0,1.5],[2,0,7],null,[]]}", DistanceMatrixConstraint.class);
+
+        double[][] distances = constraint.getDistances();
+        assertEquals(4, distances.length);
+        assertArrayEquals(new double[] { 0, 1.5 }, distances[0]);
+        assertArrayEquals(new double[] { 2, 0, 7 }, distances[1]);
+        assertNull(distances[2]);
+        assertArrayEquals(new double[0], distances[3]);
+    }
+
+    @Test
+    void readsArraysLongerThanInitialCapacity() throws IOException {
+        StringBuilder json = new StringBuilder("{\"demands\":[");
+        int[] expected = new int[40];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * 3;
+            json.append(i == 0 ? "" : ",").append(expected[i]);
+        }
+        json.append("]}");
+
+        assertArrayEquals(expected, objectMapper.readValue(json.toString(), CustomerDemandConstraint.class).getDemands());
+        assertArrayEquals(new double[] { 1.25, 3 },
+                objectMapper.readValue("{\"costs\":[1.25,3]}", FacilityCostConstraint.class).getCosts());
+    }
+
+    @Test
+    void readsCoordinatesSkippingUnknownKeys() throws IOException {
+        CustomerCoordinateConstraint customers = objectMapper.readValue(
+                "{\"coordinates\":[{\"x\":1.5,\"y\":-2},{\"label\":\"b\",\"y\":4,\"x\":3,\"tags\":[1,{\"z\":0}]},null]}",
+                CustomerCoordinateConstraint.class);
+
+        Coordinate[] coordinates = customers.getCoordinates();
+        assertEquals(3, coordinates.length);
+        assertEquals(new Coordinate(1.5, -2), coordinates[0]);
+        assertEquals(new Coordinate(3, 4), coordinates[1]);
+        assertNull(coordinates[2]);
+
+        FacilityCoordinateConstraint facilities = objectMapper.readValue(
+                "{\"coordinates\":[{\"y\":1}]}", FacilityCoordinateConstraint.class);
+        assertEquals(new Coordinate(0, 1), facilities.getCoordinates()[0]);
+    }
+
+    @Test
+    void leavesOtherArraysToDefaultSerde() throws IOException {
+        assertFalse(applicationContext.containsBean(DoubleArrayDeserializer.class));
+        assertFalse(applicationContext.containsBean(DoubleMatrixDeserializer.class));
+        assertFalse(applicationContext.containsBean(IntArrayDeserializer.class));
+        assertFalse(applicationContext.containsBean(CoordinateArrayDeserializer.class));
+
+        assertArrayEquals(new double[] { 1, 2.5 }, objectMapper.readValue("[1,2.5]", double[].class));
+        assertArrayEquals(new int[] { 4, 5 }, objectMapper.readValue("[4,5]", int[].class));
+    }
+}
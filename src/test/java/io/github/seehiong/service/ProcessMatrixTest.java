@@ -0,0 +1,60 @@
+package io.github.seehiong.service;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.input.FLPInput;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class ProcessMatrixTest {
+
+    // Only the matrix shape is checked before the header is parsed, so no collaborators are needed
+    private final TSPService tspService = new TSPService(null, null, null, null, null);
+    private final CVRPService cvrpService = new CVRPService(null, null, null, null);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    void rejectsNonSquareTspMatrix() {
+        Assertions.assertThrows(IOException.class, () -> tspService.processMatrix("", new double[3][4]));
+    }
+
+    @Test
+    void rejectsNonSquareCvrpMatrix() {
+        Assertions.assertThrows(IOException.class, () -> cvrpService.processMatrix("", new double[4][3]));
+    }
+
+    @Test
+    void acceptsFlpMatrixWithoutCoordinates() throws IOException {
+        String header = """
+                {"facilityCostConstraint": {"costs": [1, 2]}, "facilityCapacityConstraint": {"capacities": [5, 5]},
+                 "customerDemandConstraint": {"demands": [1, 1, 1]}}""";
+        FLPInput input = flpService().processMatrix(header, new double[3][2]);
+
+        Assertions.assertEquals(3, input.getDistances().length);
+        Assertions.assertNull(input.getFacilityCoordinates());
+    }
+
+    @Test
+    void rejectsFlpHeaderNotMatchingMatrix() {
+        FLPService flpService = flpService();
+        Assertions.assertThrows(IOException.class, () -> flpService.processMatrix(
+                "{\"facilityCostConstraint\": {\"costs\": [1, 2, 3]}}", new double[3][2]));
+        Assertions.assertThrows(IOException.class, () -> flpService.processMatrix(
+                "{\"facilityCapacityConstraint\": {\"capacities\": [5]}}", new double[3][2]));
+        Assertions.assertThrows(IOException.class, () -> flpService.processMatrix(
+                "{\"customerDemandConstraint\": {\"demands\": [1, 1]}}", new double[3][2]));
+        Assertions.assertThrows(IOException.class, () -> flpService.processMatrix(
+                "{\"customerCoordinateConstraint\": {\"coordinates\": [{\"x\": 0, \"y\": 0}]}}", new double[3][2]));
+    }
+
+    private FLPService flpService() {
+        return new FLPService(objectMapper, null, null, null);
+    }
+}
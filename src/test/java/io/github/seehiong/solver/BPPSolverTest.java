@@ -0,0 +1,40 @@
+package io.github.seehiong.solver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.metric.BinMetric;
+
+class BPPSolverTest {
+
+    @Test
+    void mapsEveryItemToItsBin() {
+        Assertions.assertArrayEquals(new int[] { 1, 0, 1, 2 },
+                BPPSolver.binOf(packing(List.of(1), List.of(0, 2), List.of(3)), 4));
+        Assertions.assertArrayEquals(new int[] { 0, 0 }, BPPSolver.binOf(packing(List.of(0, 1), List.of()), 2));
+    }
+
+    @Test
+    void rejectsItemsPackedTwiceOrMissing() {
+        Assertions.assertNull(BPPSolver.binOf(packing(List.of(0, 1), List.of(1)), 2));
+        Assertions.assertNull(BPPSolver.binOf(packing(List.of(0), List.of(2)), 3));
+    }
+
+    @Test
+    void rejectsUnknownItemsAndTooManyBins() {
+        Assertions.assertNull(BPPSolver.binOf(packing(List.of(0, 2)), 2));
+        Assertions.assertNull(BPPSolver.binOf(packing(List.of(-1, 0, 1)), 2));
+        Assertions.assertNull(BPPSolver.binOf(packing(Arrays.asList(0, null), List.of(1)), 2));
+        Assertions.assertNull(BPPSolver.binOf(packing(List.of(0), List.of(1), List.of()), 2));
+        Assertions.assertNull(BPPSolver.binOf(null, 2));
+        Assertions.assertNull(BPPSolver.binOf(BinMetric.builder().build(), 2));
+    }
+
+    @SafeVarargs
+    private static BinMetric packing(List<Integer>... bins) {
+        return BinMetric.builder().items(List.of(bins)).build();
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.seehiong.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.metric.VehicleRouteMetric;
+import io.github.seehiong.solver.CVRPMipSolver.RouteHint;
+
+class CVRPMipSolverTest {
+
+    @Test
+    void hintsRoutesWithOrWithoutTheDepot() {
+        RouteHint hint = CVRPMipSolver.routeHint(routes(List.of(0, 2, 1, 0), List.of(3)), 4, 2);
+
+        Assertions.assertNotNull(hint);
+        Assertions.assertTrue(hint.travelled()[0][2][0]);
+        Assertions.assertTrue(hint.travelled()[2][1][0]);
+        Assertions.assertTrue(hint.travelled()[1][0][0]);
+        Assertions.assertTrue(hint.travelled()[0][3][1]);
+        Assertions.assertTrue(hint.travelled()[3][0][1]);
+        Assertions.assertFalse(hint.travelled()[0][1][0]);
+        Assertions.assertArrayEquals(new int[] { 0, 2, 1, 1 }, hint.position());
+    }
+
+    @Test
+    void leavesSpareVehiclesIdle() {
+        RouteHint hint = CVRPMipSolver.routeHint(routes(List.of(1, 2)), 3, 3);
+
+        Assertions.assertNotNull(hint);
+        Assertions.assertTrue(hint.travelled()[2][0][0]);
+        Assertions.assertFalse(hint.travelled()[0][1][1]);
+    }
+
+    @Test
+    void rejectsMoreRoutesThanVehicles() {
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(List.of(1), List.of(2), List.of(3)), 4, 2));
+    }
+
+    @Test
+    void rejectsCustomersVisitedTwiceOrNever() {
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(List.of(1, 2), List.of(2, 3)), 4, 2));
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(List.of(1, 2)), 4, 2));
+    }
+
+    @Test
+    void rejectsUnknownNodesAndSelfLoops() {
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(List.of(1, 4), List.of(2, 3)), 4, 2));
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(List.of(1, -1), List.of(2, 3)), 4, 2));
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(List.of(1, 1, 2, 3)), 4, 1));
+        Assertions.assertNull(CVRPMipSolver.routeHint(routes(Arrays.asList(1, null, 2)), 3, 1));
+        Assertions.assertNull(CVRPMipSolver.routeHint(null, 3, 1));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static VehicleRouteMetric routes(List<Integer>... routes) {
+        ArrayList<Integer>[] lists = new ArrayList[routes.length];
+        for (int k = 0; k < routes.length; k++) {
+            lists[k] = new ArrayList<>(routes[k]);
+        }
+        return new VehicleRouteMetric(lists);
+    }
+}
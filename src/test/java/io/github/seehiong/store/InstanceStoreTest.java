@@ -0,0 +1,147 @@
+package io.github.seehiong.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.seehiong.model.InstanceInfo;
+import io.github.seehiong.model.ProblemType;
+import io.github.seehiong.model.constraint.DistanceMatrixConstraint;
+import io.github.seehiong.model.input.TSPInput;
+import io.github.seehiong.service.base.SolverService;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class InstanceStoreTest {
+
+    private static final double[][] MATRIX = { { 0, 1, 2 }, { 1, 0, 3 }, { 2, 3, 0 } };
+
+    @Inject
+    Map<ProblemType, SolverService<?, ?>> services;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void evictsLeastRecentlyUsedWithoutSpillDirectory() throws IOException {
+        InstanceStore store = store(null);
+        InstanceInfo first = store.register(ProblemType.TSP, input(MATRIX));
+        InstanceInfo second = store.register(ProblemType.TSP, input(MATRIX));
+
+        assertTrue(store.get(first.getInstanceId()).isEmpty());
+        assertTrue(store.get(second.getInstanceId()).isPresent());
+        assertFalse(store.remove(first.getInstanceId()));
+    }
+
+    @Test
+    void spillsAndReloadsEvictedInstances() throws IOException {
+        InstanceStore store = store(spillDirectory);
+        InstanceInfo first = store.register(ProblemType.TSP, input(MATRIX));
+        store.register(ProblemType.TSP, input(MATRIX));
+
+        assertTrue(store.info(first.getInstanceId()).orElseThrow().isSpilled());
+        assertTrue(Files.exists(spillFile(first)));
+
+        TSPInput reloaded = (TSPInput) store.get(first.getInstanceId()).orElseThrow();
+        assertArrayEquals(MATRIX, reloaded.getDistances());
+        assertFalse(store.info(first.getInstanceId()).orElseThrow().isSpilled());
+        assertFalse(Files.exists(spillFile(first)));
+    }
+
+    @Test
+    void removeDeletesSpilledFile() throws IOException {
+        InstanceStore store = store(spillDirectory);
+        InstanceInfo first = store.register(ProblemType.TSP, input(MATRIX));
+        store.register(ProblemType.TSP, input(MATRIX));
+
+        assertTrue(store.remove(first.getInstanceId()));
+        assertTrue(store.info(first.getInstanceId()).isEmpty());
+        assertFalse(Files.exists(spillFile(first)));
+        assertFalse(store.remove(first.getInstanceId()));
+    }
+
+    @Test
+    void removeDuringSpillIsNotUndone() throws IOException {
+        InstanceStore store = store(spillDirectory);
+        RemovingMatrixConstraint constraint = new RemovingMatrixConstraint(MATRIX);
+        InstanceInfo first = store.register(ProblemType.TSP, TSPInput.builder().distanceMatrixConstraint(constraint).build());
+
+        // The eviction below spills the first instance, which is removed while its matrix is being written
+        constraint.arm(store, first.getInstanceId());
+        store.register(ProblemType.TSP, input(MATRIX));
+
+        assertTrue(constraint.removed);
+        assertTrue(store.info(first.getInstanceId()).isEmpty());
+        assertTrue(store.get(first.getInstanceId()).isEmpty());
+        assertFalse(Files.exists(spillFile(first)));
+    }
+
+    @Test
+    void clearsLeftoversOfPreviousRun() throws IOException {
+        Path leftover = Files.createFile(spillDirectory.resolve("stale.optm"));
+        store(spillDirectory);
+
+        assertFalse(Files.exists(leftover));
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertTrue(files.findAny().isEmpty());
+        }
+    }
+
+    private InstanceStore store(Path spillDirectory) throws IOException {
+        InstanceStoreConfiguration configuration = new InstanceStoreConfiguration();
+        configuration.setMaxWeight(1); // Only the most recent instance stays on the heap
+        configuration.setSpillDirectory(spillDirectory == null ? null : spillDirectory.toString());
+        return new InstanceStore(configuration, services, objectMapper);
+    }
+
+    private Path spillFile(InstanceInfo info) {
+        return spillDirectory.resolve(info.getInstanceId() + ".optm");
+    }
+
+    private static TSPInput input(double[][] matrix) {
+        return TSPInput.builder().distanceMatrixConstraint(new DistanceMatrixConstraint(matrix)).build();
+    }
+
+    // Removes its instance from the store the first time the spill reads the matrix
+    private static class RemovingMatrixConstraint extends DistanceMatrixConstraint {
+
+        private InstanceStore store;
+        private String instanceId;
+        private boolean removed;
+
+        RemovingMatrixConstraint(double[][] distances) {
+            super(distances);
+        }
+
+        void arm(InstanceStore store, String instanceId) {
+            this.store = store;
+            this.instanceId = instanceId;
+        }
+
+        @Override
+        public double[][] getDistances() {
+            if (store != null && !removed) {
+                try {
+                    removed = store.remove(instanceId);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return super.getDistances();
+        }
+    }
+}
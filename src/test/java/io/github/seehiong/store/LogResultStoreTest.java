@@ -0,0 +1,135 @@
+package io.github.seehiong.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.TSPOutput;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class LogResultStoreTest {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path logDirectory;
+
+    private final ResultStoreConfiguration configuration = new ResultStoreConfiguration();
+
+    @Test
+    void servesRunningThenCompletedResults() throws IOException {
+        LogResultStore store = store();
+        store.put("a", output("running"));
+        assertArrayEquals(json("running"), store.get("a").orElseThrow());
+        assertEquals(1, store.getStats().getEntries());
+
+        store.put("a", output("solved"));
+        store.complete("a");
+        assertArrayEquals(json("solved"), store.get("a").orElseThrow());
+        assertEquals(0, store.getStats().getEntries());
+        assertEquals(1, store.getStats().getSpilled());
+        assertTrue(store.get("unknown").isEmpty());
+    }
+
+    @Test
+    void reloadsCompletedResultsAfterRestart() throws IOException {
+        LogResultStore store = store();
+        store.put("a", output("a"));
+        store.complete("a");
+        store.put("b", output("b")); // Never completed, lost with the heap
+        store.close();
+
+        LogResultStore reopened = store();
+        assertArrayEquals(json("a"), reopened.get("a").orElseThrow());
+        assertTrue(reopened.get("b").isEmpty());
+    }
+
+    @Test
+    void rollsSegmentsAndCompactsSupersededOnes() throws IOException {
+        configuration.setSegmentSize(256);
+        LogResultStore store = store();
+        for (int i = 0; i < 20; i++) {
+            store.put("a", output("attempt " + i));
+            store.complete("a");
+        }
+        long segments = segmentCount();
+        assertTrue(segments > 2, segments + " segments");
+
+        store.compact();
+
+        assertTrue(segmentCount() < segments);
+        assertArrayEquals(json("attempt 19"), store.get("a").orElseThrow());
+    }
+
+    @Test
+    void expiresResultsAfterTtl() throws IOException, InterruptedException {
+        configuration.setTtl(Duration.ofMillis(1));
+        LogResultStore store = store();
+        store.put("a", output("a"));
+        store.complete("a");
+        Thread.sleep(20);
+
+        assertTrue(store.get("a").isEmpty());
+        assertEquals(1, store.getStats().getExpirations());
+    }
+
+    @Test
+    void ignoresCorruptRecordsOnLoad() throws IOException {
+        LogResultStore store = store();
+        store.put("a", output("a"));
+        store.complete("a");
+        store.close();
+
+        // Flip the last byte of the record's JSON, its checksum no longer matches
+        Path segment;
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            segment = files.sorted().findFirst().orElseThrow();
+        }
+        int last = 4 + 4 + 8 + 2 + "a".length() + json("a").length - 1;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, last);
+            buffer.put(0, (byte) (buffer.get(0) ^ 1));
+            buffer.rewind();
+            channel.write(buffer, last);
+        }
+
+        assertTrue(store().get("a").isEmpty());
+    }
+
+    private LogResultStore store() throws IOException {
+        configuration.setLogDirectory(logDirectory.toString());
+        return new LogResultStore(configuration, objectMapper);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files.count();
+        }
+    }
+
+    private byte[] json(String message) throws IOException {
+        return objectMapper.writeValueAsBytes(output(message));
+    }
+
+    private static Output output(String message) {
+        return TSPOutput.builder().message(message).build();
+    }
+}
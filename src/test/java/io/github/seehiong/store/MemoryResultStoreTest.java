@@ -0,0 +1,103 @@
+package io.github.seehiong.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.seehiong.model.ResultStoreStats;
+import io.github.seehiong.model.output.Output;
+import io.github.seehiong.model.output.TSPOutput;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+
+@MicronautTest
+class MemoryResultStoreTest {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path spillDirectory;
+
+    private final ResultStoreConfiguration configuration = new ResultStoreConfiguration();
+
+    @Test
+    void replacesLatestOutput() throws IOException {
+        MemoryResultStore store = store();
+        store.put("a", output("first"));
+        store.put("a", output("second"));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(output("second")), store.get("a").orElseThrow());
+        ResultStoreStats stats = store.getStats();
+        assertEquals(1, stats.getEntries());
+        assertEquals(objectMapper.writeValueAsBytes(output("second")).length, stats.getWeight());
+        assertTrue(store.get("unknown").isEmpty());
+        assertEquals(1, store.getStats().getMisses());
+    }
+
+    @Test
+    void dropsOldestBeyondMaxWeight() throws IOException {
+        configuration.setMaxWeight(1); // Only the newest result stays on the heap
+        MemoryResultStore store = store();
+        store.put("a", output("a"));
+        store.complete("a");
+        store.put("b", output("b"));
+
+        assertTrue(store.get("a").isEmpty());
+        assertTrue(store.get("b").isPresent());
+        assertEquals(1, store.getStats().getEvictions());
+    }
+
+    @Test
+    void spillsCompletedResultsOnly() throws IOException {
+        configuration.setMaxWeight(1);
+        configuration.setSpillDirectory(spillDirectory.toString());
+        MemoryResultStore store = store();
+        store.put("completed", output("completed"));
+        store.complete("completed");
+        store.put("running", output("running")); // Evicts the completed result to disk
+        store.put("next", output("next")); // Evicts the running one, which is dropped
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(output("completed")), store.get("completed").orElseThrow());
+        assertTrue(store.get("running").isEmpty());
+        assertEquals(1, store.getStats().getSpilled());
+        assertTrue(Files.exists(spillDirectory.resolve("completed.json.gz")));
+    }
+
+    @Test
+    void expiresResultsAfterTtl() throws IOException, InterruptedException {
+        configuration.setTtl(Duration.ofMillis(1));
+        MemoryResultStore store = store();
+        store.put("a", output("a"));
+        Thread.sleep(20);
+
+        assertTrue(store.get("a").isEmpty());
+    }
+
+    @Test
+    void clearsSpilledLeftoversOnStart() throws IOException {
+        Path leftover = Files.write(spillDirectory.resolve("old.json.gz"), "stale".getBytes(StandardCharsets.UTF_8));
+        configuration.setSpillDirectory(spillDirectory.toString());
+        store();
+
+        assertTrue(Files.notExists(leftover));
+    }
+
+    private MemoryResultStore store() throws IOException {
+        return new MemoryResultStore(configuration, objectMapper);
+    }
+
+    private static Output output(String message) {
+        return TSPOutput.builder().message(message).build();
+    }
+}
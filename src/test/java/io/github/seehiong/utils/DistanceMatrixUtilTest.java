@@ -0,0 +1,115 @@
+package io.github.seehiong.utils;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.Coordinate;
+import jdk.incubator.vector.DoubleVector;
+
+class DistanceMatrixUtilTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void symmetricMatchesNaiveLoop() {
+        // Empty and trivial, one partial tile, and partial tiles on the parallel path
+        for (int n : new int[] { 0, 1, 2, 255, 513, 777 }) {
+            double[] xs = coordinates(n);
+            double[] ys = coordinates(n);
+            assertMatrixEquals(naive(xs, ys, xs, ys), DistanceMatrixUtil.euclidean(xs, ys), "n=" + n);
+        }
+    }
+
+    @Test
+    void symmetricIsMirroredWithZeroDiagonal() {
+        double[] xs = coordinates(600);
+        double[] ys = coordinates(600);
+        double[][] distances = DistanceMatrixUtil.euclidean(xs, ys);
+        for (int i = 0; i < distances.length; i++) {
+            Assertions.assertEquals(0.0, distances[i][i]);
+            for (int j = 0; j < i; j++) {
+                Assertions.assertEquals(distances[j][i], distances[i][j]);
+            }
+        }
+    }
+
+    @Test
+    void rectangularMatchesNaiveLoop() {
+        // Around the parallel threshold of 512 * 512 cells, and degenerate shapes
+        int[][] shapes = { { 511, 513 }, { 512, 513 }, { 0, 5 }, { 5, 0 }, { 1, 1 }, { 3, 2 }, { 777, 3 } };
+        for (int[] shape : shapes) {
+            double[] fromXs = coordinates(shape[0]);
+            double[] fromYs = coordinates(shape[0]);
+            double[] toXs = coordinates(shape[1]);
+            double[] toYs = coordinates(shape[1]);
+            assertMatrixEquals(naive(fromXs, fromYs, toXs, toYs),
+                    DistanceMatrixUtil.euclidean(fromXs, fromYs, toXs, toYs), shape[0] + "x" + shape[1]);
+        }
+    }
+
+    @Test
+    void coordinateOverloadsMatchArrays() {
+        Coordinate[] from = { new Coordinate(0, 0), new Coordinate(3, 4) };
+        Coordinate[] to = { new Coordinate(6, 8) };
+
+        assertMatrixEquals(new double[][] { { 0, 5 }, { 5, 0 } }, DistanceMatrixUtil.euclidean(from), "symmetric");
+        assertMatrixEquals(new double[][] { { 10 }, { 5 } }, DistanceMatrixUtil.euclidean(from, to), "rectangular");
+    }
+
+    @Test
+    void kernelsAgreeOnEveryTailLength() {
+        int lanes = DoubleVector.SPECIES_PREFERRED.length();
+        double[] xs = coordinates(4 * lanes + 3);
+        double[] ys = coordinates(xs.length);
+        DistanceMatrixUtil.DistanceKernel scalar = new DistanceMatrixUtil.ScalarDistanceKernel();
+        DistanceMatrixUtil.DistanceKernel vector = new VectorDistanceKernel();
+
+        // Every start offset and length up to a few full vectors, so tails of 0 to lanes - 1 are all exercised
+        for (int from = 0; from <= lanes; from++) {
+            for (int to = from; to <= xs.length; to++) {
+                double[] expected = new double[xs.length];
+                double[] actual = new double[xs.length];
+                scalar.fillRow(12.5, -3.25, xs, ys, expected, from, to);
+                vector.fillRow(12.5, -3.25, xs, ys, actual, from, to);
+                Assertions.assertArrayEquals(expected, actual, "from=" + from + ", to=" + to);
+                if (to > from) {
+                    Assertions.assertEquals(naive(12.5, -3.25, xs[from], ys[from]), actual[from]);
+                }
+            }
+        }
+    }
+
+    private double[] coordinates(int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextDouble() * 2000 - 1000;
+        }
+        return values;
+    }
+
+    private static double[][] naive(double[] fromXs, double[] fromYs, double[] toXs, double[] toYs) {
+        double[][] distances = new double[fromXs.length][toXs.length];
+        for (int i = 0; i < fromXs.length; i++) {
+            for (int j = 0; j < toXs.length; j++) {
+                distances[i][j] = naive(fromXs[i], fromYs[i], toXs[j], toYs[j]);
+            }
+        }
+        return distances;
+    }
+
+    private static double naive(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // Exact: both kernels do the same IEEE operations as the naive loop, without fused multiply-adds
+    private static void assertMatrixEquals(double[][] expected, double[][] actual, String message) {
+        Assertions.assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertArrayEquals(expected[i], actual[i], message + ", row " + i);
+        }
+    }
+}
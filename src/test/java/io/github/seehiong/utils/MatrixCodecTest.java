@@ -0,0 +1,154 @@
+package io.github.seehiong.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.utils.MatrixCodec.MatrixPayload;
+
+class MatrixCodecTest {
+
+    private static final int MAX_DIMENSION = 1000;
+    private static final long MAX_BYTES = 1024 * 1024;
+
+    @Test
+    void roundTripsPlainPayload() throws IOException {
+        double[][] matrix = { { 0, 1.5, -2 }, { 3.25, 0, 1e-9 }, { 7, 8, 0 } };
+        MatrixPayload payload = MatrixCodec.decode(encode("{\"priority\":\"HIGH\"}", matrix), MAX_DIMENSION, MAX_BYTES);
+
+        Assertions.assertEquals("{\"priority\":\"HIGH\"}", payload.getHeader());
+        Assertions.assertTrue(Arrays.deepEquals(matrix, payload.getMatrix()));
+    }
+
+    @Test
+    void roundTripsGzipPayload() throws IOException {
+        double[][] matrix = new double[50][40];
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[i].length; j++) {
+                matrix[i][j] = i * 31.5 + j;
+            }
+        }
+        MatrixPayload payload = MatrixCodec.decode(gzip(encode("", matrix)), MAX_DIMENSION, MAX_BYTES);
+
+        Assertions.assertEquals("", payload.getHeader());
+        Assertions.assertTrue(Arrays.deepEquals(matrix, payload.getMatrix()));
+    }
+
+    @Test
+    void roundTripsEmptyMatrix() throws IOException {
+        MatrixPayload payload = MatrixCodec.decode(encode("{}", new double[0][]), MAX_DIMENSION, MAX_BYTES);
+
+        Assertions.assertEquals("{}", payload.getHeader());
+        Assertions.assertEquals(0, payload.getMatrix().length);
+    }
+
+    @Test
+    void decodesFloat32Values() throws IOException {
+        ByteBuffer body = preamble(2, 2, 2, 0);
+        body.putFloat(0).putFloat(1.5f).putFloat(2.25f).putFloat(0);
+        MatrixPayload payload = MatrixCodec.decode(body.array(), MAX_DIMENSION, MAX_BYTES);
+
+        Assertions.assertTrue(Arrays.deepEquals(new double[][] { { 0, 1.5 }, { 2.25, 0 } }, payload.getMatrix()));
+    }
+
+    @Test
+    void rejectsDimensionsTheBodyCannotHold() {
+        // A bare preamble claiming the largest matrix an int allows
+        byte[] body = preamble(1, Integer.MAX_VALUE, Integer.MAX_VALUE, 0).array();
+
+        Assertions.assertThrows(IOException.class, () -> MatrixCodec.decode(body, Integer.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsDimensionsAboveTheMaximum() throws IOException {
+        byte[] body = encode("", new double[MAX_DIMENSION + 1][1]);
+
+        Assertions.assertThrows(IOException.class, () -> MatrixCodec.decode(body, MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class, () -> MatrixCodec.decode(gzip(body), MAX_DIMENSION, MAX_BYTES));
+    }
+
+    @Test
+    void rejectsTruncatedAndPaddedBodies() throws IOException {
+        byte[] body = encode("{}", new double[][] { { 0, 1 }, { 1, 0 } });
+
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(Arrays.copyOf(body, body.length - 1), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(Arrays.copyOf(body, body.length + 8), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(gzip(Arrays.copyOf(body, body.length - 8)), MAX_DIMENSION, MAX_BYTES));
+    }
+
+    @Test
+    void rejectsPayloadsInflatingBeyondTheByteBudget() throws IOException {
+        // 2.9 MB of zeros compresses to a few KB, the budget applies to what it inflates to
+        byte[] body = encode("", new double[600][600]);
+        byte[] compressed = gzip(body);
+        Assertions.assertTrue(compressed.length < MAX_BYTES / 100);
+
+        Assertions.assertThrows(IOException.class, () -> MatrixCodec.decode(compressed, MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class, () -> MatrixCodec.decode(body, MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertEquals(600, MatrixCodec.decode(compressed, MAX_DIMENSION, body.length).getMatrix().length);
+    }
+
+    @Test
+    void rejectsBytesAfterTheMatrixInGzipBodies() throws IOException {
+        byte[] body = encode("{}", new double[][] { { 0, 1 }, { 1, 0 } });
+
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(gzip(Arrays.copyOf(body, body.length + 8)), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(gzip(Arrays.copyOf(body, body.length + 1)), MAX_DIMENSION, MAX_BYTES));
+    }
+
+    @Test
+    void rejectsMalformedPreambles() {
+        ByteBuffer badMagic = preamble(1, 0, 0, 0);
+        badMagic.put(0, (byte) 'X');
+        ByteBuffer badVersion = preamble(1, 0, 0, 0);
+        badVersion.put(4, (byte) 9);
+
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(badMagic.array(), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(badVersion.array(), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(preamble(3, 0, 0, 0).array(), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(preamble(1, -1, 2, 0).array(), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class,
+                () -> MatrixCodec.decode(preamble(1, 0, 0, -5).array(), MAX_DIMENSION, MAX_BYTES));
+        Assertions.assertThrows(IOException.class, () -> MatrixCodec.decode(new byte[7], MAX_DIMENSION, MAX_BYTES));
+    }
+
+    // Preamble followed by room for rows * cols float32 values when they fit
+    private static ByteBuffer preamble(int type, int rows, int cols, int headerLength) {
+        long values = (long) rows * cols;
+        int capacity = 20 + (type == 2 && values <= 1024 ? (int) values * Float.BYTES : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("OPTM".getBytes(StandardCharsets.US_ASCII)).put((byte) 1).put((byte) type).putShort((short) 0);
+        buffer.putInt(rows).putInt(cols).putInt(headerLength);
+        return buffer;
+    }
+
+    private static byte[] encode(String header, double[][] matrix) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatrixCodec.encode(header, matrix, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
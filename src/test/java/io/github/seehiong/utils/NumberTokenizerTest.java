@@ -0,0 +1,84 @@
+package io.github.seehiong.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class NumberTokenizerTest {
+
+    @Test
+    void fastPathMatchesParseDouble() {
+        String[] tokens = {
+            "0", "-0", "7", "+7", "-42", "3.25", "0.001", "-0.5", "123456789012345", "1e3", "2.5E-4", "-6.02e+2",
+            ".5", "5.", "0.1", "1234.5678", "9.999999999999999", "1e22", "1e-22"
+        };
+        NumberTokenizer tokenizer = tokenize(String.join(" ", tokens));
+
+        Assertions.assertEquals(tokens.length, tokenizer.size());
+        for (String token : tokens) {
+            Assertions.assertEquals(Double.parseDouble(token), tokenizer.nextDouble(), token);
+        }
+        Assertions.assertFalse(tokenizer.hasNext());
+    }
+
+    @Test
+    void slowPathHandlesLongMantissasAndLargeExponents() {
+        String[] tokens = { "3.14159265358979323846", "12345678901234567890", "1e300", "4.9e-324", "1e23" };
+        NumberTokenizer tokenizer = tokenize(String.join("\n", tokens));
+
+        for (String token : tokens) {
+            Assertions.assertEquals(Double.parseDouble(token), tokenizer.nextDouble(), token);
+        }
+    }
+
+    @Test
+    void tokensSpanChunksAndSeparators() {
+        byte[] bytes = "12.5,  -3\r\n4e2\t7".getBytes(StandardCharsets.US_ASCII);
+        NumberTokenizer tokenizer = new NumberTokenizer();
+        for (byte b : bytes) {
+            tokenizer.feed(new byte[] { b });
+        }
+        tokenizer.finish();
+
+        Assertions.assertEquals(12.5, tokenizer.nextDouble());
+        Assertions.assertEquals(-3, tokenizer.nextInt());
+        Assertions.assertEquals(400, tokenizer.nextLong());
+        Assertions.assertEquals(7, tokenizer.nextInt());
+    }
+
+    @Test
+    void nextIntRejectsFractionsAndOverflow() {
+        NumberTokenizer tokenizer = tokenize("3.7 3e10 -2147483649 2147483647");
+
+        Assertions.assertThrows(NumberFormatException.class, tokenizer::nextInt);
+        Assertions.assertThrows(NumberFormatException.class, tokenizer::nextInt);
+        Assertions.assertThrows(NumberFormatException.class, tokenizer::nextInt);
+        Assertions.assertEquals(Integer.MAX_VALUE, tokenizer.nextInt());
+    }
+
+    @Test
+    void nextLongRejectsFractionsAndInexactValues() {
+        NumberTokenizer tokenizer = tokenize("0.5 1e17 9007199254740992");
+
+        Assertions.assertThrows(NumberFormatException.class, tokenizer::nextLong);
+        Assertions.assertThrows(NumberFormatException.class, tokenizer::nextLong);
+        Assertions.assertEquals(9007199254740992L, tokenizer.nextLong());
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        Assertions.assertThrows(NumberFormatException.class, () -> tokenize("1-2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tokenize("1".repeat(65)));
+
+        NumberTokenizer tokenizer = tokenize("1");
+        tokenizer.nextDouble();
+        Assertions.assertThrows(IllegalStateException.class, tokenizer::nextDouble);
+    }
+
+    private static NumberTokenizer tokenize(String text) {
+        NumberTokenizer tokenizer = new NumberTokenizer();
+        tokenizer.feed(text.getBytes(StandardCharsets.US_ASCII));
+        return tokenizer.finish();
+    }
+}
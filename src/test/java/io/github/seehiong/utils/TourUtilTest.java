@@ -0,0 +1,48 @@
+package io.github.seehiong.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.seehiong.model.metric.TourMetric;
+
+class TourUtilTest {
+
+    @Test
+    void acceptsOpenAndClosedTours() {
+        Assertions.assertArrayEquals(new int[] { 0, 2, 1, 3 }, normalize(4, 0, 2, 1, 3));
+        Assertions.assertArrayEquals(new int[] { 0, 2, 1, 3 }, normalize(4, 0, 2, 1, 3, 0));
+    }
+
+    @Test
+    void rotatesToursStartingAwayFromCityZero() {
+        Assertions.assertArrayEquals(new int[] { 0, 3, 2, 1 }, normalize(4, 2, 1, 0, 3));
+        Assertions.assertArrayEquals(new int[] { 0, 3, 2, 1 }, normalize(4, 2, 1, 0, 3, 2));
+    }
+
+    @Test
+    void rejectsDuplicateAndOutOfRangeCities() {
+        Assertions.assertNull(normalize(4, 0, 1, 1, 3));
+        Assertions.assertNull(normalize(4, 0, 1, 2, 4));
+        Assertions.assertNull(normalize(4, 0, -1, 2, 3));
+        Assertions.assertNull(normalize(4, 0, 1, 2, 3, 1)); // Five cities, not a closed tour
+    }
+
+    @Test
+    void rejectsToursOfTheWrongLength() {
+        Assertions.assertNull(normalize(4, 0, 1, 2));
+        Assertions.assertNull(normalize(4, 0, 1, 2, 3, 4));
+        Assertions.assertNull(normalize(4));
+        Assertions.assertNull(TourUtil.normalize(null, 4));
+        Assertions.assertNull(TourUtil.normalize(new TourMetric(null), 4));
+    }
+
+    @Test
+    void acceptsSingleCity() {
+        Assertions.assertArrayEquals(new int[] { 0 }, normalize(1, 0));
+        Assertions.assertArrayEquals(new int[] { 0 }, normalize(1, 0, 0));
+    }
+
+    private static int[] normalize(int cities, int... tour) {
+        return TourUtil.normalize(new TourMetric(tour), cities);
+    }
+}